@@ -0,0 +1,29 @@
+package org.xxljob.client.plugin.logger;
+
+/**
+ * <p>{@link XxlJobLogger}获取调用方信息（类、函数、行号）的策略，获取调用方需要遍历线程栈，是日志输出中开销最大的步骤</p>
+ * <p>未获取调用方时，日志中使用调用方{@link org.slf4j.Logger}的名称代替</p>
+ * <p>直接调用{@link XxlJobLogger}时没有调用方Logger，仍需遍历线程栈找到调用方类以判断日志级别，但不创建{@link StackTraceElement}</p>
+ * <p>创建于 2026-10-18 12:30 12:30 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public enum CallerPolicy {
+
+    /**
+     * 每行日志都获取调用方
+     */
+    ALWAYS,
+
+    /**
+     * 仅{@code WARN}及以上级别获取调用方
+     */
+    WARN,
+
+    /**
+     * 不获取调用方，适用于日志格式中不输出调用方的场景
+     */
+    NEVER
+}
@@ -1,22 +1,41 @@
 package org.xxljob.client.plugin.logger;
 
 import com.xxl.job.core.context.XxlJobContext;
-import com.xxl.job.core.log.XxlJobFileAppender;
-import com.xxl.job.core.util.DateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.slf4j.event.Level;
-import org.slf4j.helpers.MessageFormatter;
+import org.xxljob.client.plugin.logger.appender.XxlJobAsyncLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobCachedFileLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobLogAppender;
+import org.xxljob.client.plugin.logger.archive.XxlJobLogArchiver;
+import org.xxljob.client.plugin.logger.encoder.LineEncoder;
+import org.xxljob.client.plugin.logger.encoder.XxlJobBinaryLogEncoder;
+import org.xxljob.client.plugin.logger.layout.CachedDateFormatter;
+import org.xxljob.client.plugin.logger.layout.JsonLayout;
+import org.xxljob.client.plugin.logger.layout.Layout;
+import org.xxljob.client.plugin.logger.layout.LogEvent;
+import org.xxljob.client.plugin.logger.layout.MdcAccessor;
+import org.xxljob.client.plugin.logger.layout.MessageFormats;
+import org.xxljob.client.plugin.logger.layout.PatternLayout;
+import org.xxljob.client.plugin.logger.layout.StringBuilderWriter;
+import org.xxljob.client.plugin.logger.layout.ThrowableRenderer;
+import org.xxljob.client.plugin.logger.layout.XxlJobContextField;
+import org.xxljob.client.plugin.logger.level.XxlJobLogLevelOverrides;
+import org.xxljob.client.plugin.logger.limit.XxlJobLogRateLimiter;
+import org.xxljob.client.plugin.logger.metrics.XxlJobLoggerMetrics;
 
 import java.io.PrintWriter;
-import java.io.Serializable;
-import java.io.Writer;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
  * <p>{@code xxl-job}的日志输出类</p>
@@ -27,7 +46,13 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *         <li>日期格式可通过{@link #setDateFormat(String)}自定义</li>
  *         <li>pid可通过{@link #isPid(boolean)}函数禁用</li>
  *         <li>tracing的key可通过{@link #setTracingKey(String)}自定义</li>
+ *         <li>调用方获取策略可通过{@link #setCallerPolicy(CallerPolicy)}自定义</li>
+ *         <li>日志写出方式可通过{@link #setAppender(XxlJobLogAppender)}自定义，如异步写出{@link XxlJobAsyncLogAppender}</li>
  *         <li>所有格式均可通过重写{@code mark*}函数自定义</li>
+ *         <li>也可通过{@link #setPattern(String)}设置logback风格的日志格式，此时不再使用{@code mark*}函数</li>
+ *         <li>可通过{@link #setLevelOverrides(XxlJobLogLevelOverrides)}按任务覆盖调用方Logger的日志级别</li>
+ *         <li>固定参数个数的日志函数判断需要输出后才创建参数数组：没有任务上下文，或传入调用方{@link Logger}且级别未开启时不产生任何对象；
+ *         直接调用时需遍历线程栈找到调用方类才能判断级别，遍历本身会产生对象，但级别未开启时不创建参数数组、不格式化</li>
  *     </ul>
  * </p>
  * <p>创建于 2024-12-29 00:44 00:44 </p>
@@ -44,6 +69,49 @@ public class XxlJobLogger {
      */
     private final static String FQCN = XxlJobLogger.class.getName();
 
+    /**
+     * 插件自身的包名，该包下的类均不是调用方
+     */
+    private final static String PLUGIN_PACKAGE = XxlJobLogger.class.getPackage().getName() + ".";
+
+    /**
+     * 遍历线程栈，找到调用方后立即停止，无需获取完整的线程栈
+     */
+    private final static StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * 按类缓存是否为日志相关的栈帧，避免每行日志重复比较类名
+     */
+    private final static ClassValue<Boolean> LOGGING_FRAMES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return XxlJobLogger.class.isAssignableFrom(type)
+                    || type.getName().startsWith(PLUGIN_PACKAGE)
+                    || Thread.class == type
+                    || Proxy.isProxyClass(type);
+        }
+    };
+
+    /**
+     * 按调用方类缓存{@link Logger}，判断日志级别时无需创建{@link StackTraceElement}
+     */
+    private final static ClassValue<Logger> CALLER_LOGGERS = new ClassValue<Logger>() {
+        @Override
+        protected Logger computeValue(Class<?> type) {
+            return LoggerFactory.getLogger(type);
+        }
+    };
+
+    /**
+     * 限流汇总行使用的Logger名称
+     */
+    private final static String RATE_LIMITER_NAME = XxlJobLogRateLimiter.class.getName();
+
+    /**
+     * 运行指标
+     */
+    private final static XxlJobLoggerMetrics METRICS = XxlJobLoggerMetrics.getInstance();
+
     /**
      * 当前进程pid
      */
@@ -59,15 +127,60 @@ public class XxlJobLogger {
      */
     protected String dateFormat = "yyyy-MM-dd HH:mm:ss.SSS";
 
+    /**
+     * 按{@link #dateFormat}编译的日期格式化，同一秒内复用格式化结果
+     */
+    protected volatile CachedDateFormatter dateFormatter = new CachedDateFormatter(this.dateFormat);
+
     /**
      * 基于OpenTracing的traceId
      */
     protected String tracingKey = "traceId";
 
     /**
-     * 需要标记追加到日志中的上下文Key
+     * 需要标记追加到日志中的上下文Key，设置时整体替换
+     */
+    private volatile ContextKeys contextKeys = ContextKeys.EMPTY;
+
+    /**
+     * 自定义日志格式，为null时使用{@code mark*}函数构造日志
+     */
+    protected volatile Layout layout;
+
+    /**
+     * 异常堆栈渲染，为null时使用{@link Throwable#printStackTrace()}
+     */
+    protected volatile ThrowableRenderer throwableRenderer;
+
+    /**
+     * 二进制日志格式编码，为null时写出文本
      */
-    protected final Set<String> contextKeys = new CopyOnWriteArraySet<>();
+    protected volatile XxlJobBinaryLogEncoder binaryEncoder;
+
+    /**
+     * 获取调用方信息的策略
+     */
+    protected volatile CallerPolicy callerPolicy = CallerPolicy.ALWAYS;
+
+    /**
+     * 日志文件写出组件，默认在任务线程同步写出，并缓存日志文件句柄
+     */
+    protected volatile XxlJobLogAppender appender = new XxlJobCachedFileLogAppender();
+
+    /**
+     * 按任务日志文件、日志级别限流，为null时不限流
+     */
+    protected volatile XxlJobLogRateLimiter rateLimiter;
+
+    /**
+     * 按任务覆盖的日志级别，为null时遵循调用方Logger的级别
+     */
+    protected volatile XxlJobLogLevelOverrides levelOverrides;
+
+    /**
+     * 任务结束后归档日志文件，为null时不归档
+     */
+    protected volatile XxlJobLogArchiver archiver;
 
     protected XxlJobLogger() {
         this.pid = this.getPid();
@@ -83,12 +196,14 @@ public class XxlJobLogger {
     }
 
     /**
-     * 设置日志输出的日期时间格式
+     * 设置日志输出的日期时间格式，格式语法同{@link java.time.format.DateTimeFormatter}
      *
      * @param dateFormat 日期时间格式
+     * @throws IllegalArgumentException 日期时间格式不合法
      */
     public void setDateFormat(String dateFormat) {
         if (null != dateFormat) {
+            this.dateFormatter = new CachedDateFormatter(dateFormat);
             this.dateFormat = dateFormat;
         }
     }
@@ -103,22 +218,182 @@ public class XxlJobLogger {
     }
 
     /**
-     * 设置需要标记追加到日志中的上下文Key
+     * 设置需要标记追加到日志中的上下文Key，替换之前设置的Key，按{@code keys}的迭代顺序输出，
+     * {@link XxlJobContextField}中的Key直接读取任务上下文
      *
-     * @param keys 上下文Key
+     * @param keys 上下文Key，为null时清空
      */
     public void setContextKeys(Set<String> keys) {
-        if (null == keys) {
-            this.contextKeys.clear();
+        // 都存在于上下文中，防止重复输出
+        this.contextKeys = null == keys ? ContextKeys.EMPTY : ContextKeys.compile(keys, this.tracingKey);
+    }
+
+    /**
+     * 设置logback风格的日志格式，如{@code %d{yyyy-MM-dd HH:mm:ss.SSS} %5level [%X{traceId:-N/A}] [%thread] %caller : %msg}，
+     * 转换词见{@link PatternLayout}，为null时恢复默认格式
+     *
+     * @param pattern 日志格式
+     * @throws IllegalArgumentException 日志格式不合法
+     */
+    public void setPattern(String pattern) {
+        this.layout = null == pattern ? null : PatternLayout.compile(pattern);
+    }
+
+    /**
+     * 使用JSON Lines日志格式，每行输出一个JSON对象，字段见{@link JsonLayout}，
+     * 按当前的{@link #tracingKey}和上下文Key输出，需在{@link #setTracingKey(String)}、{@link #setContextKeys(Set)}之后调用
+     */
+    public void useJsonLayout() {
+        this.layout = new JsonLayout(this.tracingKey, Arrays.asList(this.contextKeys.keys));
+    }
+
+    /**
+     * 设置自定义日志格式，为null时恢复默认格式
+     *
+     * @param layout 日志格式
+     */
+    public void setLayout(Layout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * 设置异常堆栈渲染，为null时使用{@link Throwable#printStackTrace()}输出完整堆栈
+     *
+     * @param throwableRenderer 异常堆栈渲染
+     */
+    public void setThrowableRenderer(ThrowableRenderer throwableRenderer) {
+        this.throwableRenderer = throwableRenderer;
+    }
+
+    /**
+     * 设置二进制日志格式，为null时恢复文本格式；启用后忽略自定义日志格式，读取时由{@link org.xxljob.client.plugin.logger.reader.XxlJobLogReader}还原为默认格式的文本，
+     * 写出组件需按字节写出，不能是{@link org.xxljob.client.plugin.logger.appender.XxlJobFileLogAppender}，也不能开启行偏移索引和文件大小限制
+     *
+     * @param binaryEncoder 二进制日志格式编码
+     * @throws IllegalStateException 当前写出组件不支持二进制记录
+     */
+    public synchronized void setBinaryEncoder(XxlJobBinaryLogEncoder binaryEncoder) {
+        this.appender.setBinaryRecords(null != binaryEncoder);
+        this.binaryEncoder = binaryEncoder;
+    }
+
+    /**
+     * 设置获取调用方信息的策略，默认{@link CallerPolicy#ALWAYS}
+     *
+     * @param callerPolicy 获取调用方信息的策略
+     */
+    public void setCallerPolicy(CallerPolicy callerPolicy) {
+        if (null != callerPolicy) {
+            this.callerPolicy = callerPolicy;
+        }
+    }
+
+    /**
+     * 设置日志文件写出组件，原组件会被关闭
+     *
+     * @param appender 日志文件写出组件
+     * @throws IllegalStateException 已设置二进制日志格式，但写出组件不支持二进制记录
+     */
+    public synchronized void setAppender(XxlJobLogAppender appender) {
+        if (null == appender) {
             return;
         }
 
-        this.contextKeys.addAll(keys);
-        this.contextKeys.remove("");
+        appender.setBinaryRecords(null != this.binaryEncoder);
 
-        // 都存在于上下文中，防止重复输出
-        if (null != this.tracingKey) {
-            this.contextKeys.remove(this.tracingKey);
+        final XxlJobLogAppender previous = this.appender;
+        this.appender = appender;
+        if (previous != appender) {
+            previous.close();
+        }
+    }
+
+    /**
+     * 设置日志限流，为null时不限流
+     *
+     * @param rateLimiter 日志限流
+     */
+    public void setRateLimiter(XxlJobLogRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * 设置按任务覆盖的日志级别，为null时遵循调用方Logger的级别
+     *
+     * @param levelOverrides 按任务覆盖的日志级别
+     */
+    public void setLevelOverrides(XxlJobLogLevelOverrides levelOverrides) {
+        this.levelOverrides = levelOverrides;
+    }
+
+    /**
+     * 当前任务是否通过覆盖级别开启了该日志级别，用于调用方Logger未开启时的{@code isXxxEnabled}判断
+     *
+     * @param level 日志级别
+     * @return 当前不是xxlJob任务调用或没有覆盖级别时返回false
+     */
+    public boolean isOverrideEnabled(Level level) {
+        final XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+        if (xxlJobContext == null) {
+            return false;
+        }
+
+        final int override = this.overrideLevel(xxlJobContext.getJobId());
+        return override != XxlJobLogLevelOverrides.NONE && level.toInt() >= override;
+    }
+
+    /**
+     * 设置日志归档，任务结束时压缩日志文件，为null时不归档，原归档组件会被关闭
+     *
+     * @param archiver 日志归档
+     */
+    public void setArchiver(XxlJobLogArchiver archiver) {
+        final XxlJobLogArchiver previous = this.archiver;
+        this.archiver = archiver;
+        if (null != previous && previous != archiver) {
+            previous.close();
+        }
+    }
+
+    /**
+     * 当前任务执行结束，等待该任务的日志全部写出并释放日志文件句柄，配置了{@link #archiver}时提交归档
+     * <p>
+     * 插件无法感知任务结束，需在任务处理函数结束时(包括抛出异常)调用，
+     * 或使用{@link org.xxljob.client.plugin.logger.handler.XxlJobLoggerJobHandler}包装任务处理器自动调用；
+     * 未调用时异步、多线程写出、内存映射写出的日志可能在任务结束后仍未写出，日志文件句柄直到空闲超时才释放，归档不会提交
+     * </p>
+     */
+    public void complete() {
+        final XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+        if (xxlJobContext == null) {
+            return;
+        }
+
+        final String logFileName = xxlJobContext.getJobLogFileName();
+        if (null == logFileName || logFileName.isEmpty()) {
+            return;
+        }
+
+        // 输出剩余的限流汇总
+        final XxlJobLogRateLimiter rateLimiter = this.rateLimiter;
+        final XxlJobLogRateLimiter.Bucket[] buckets = null == rateLimiter ? null : rateLimiter.remove(logFileName);
+        if (null != buckets) {
+            for (XxlJobLogRateLimiter.Bucket bucket : buckets) {
+                if (null != bucket) {
+                    this.writeSuppressed(xxlJobContext.getJobId(), logFileName, null, bucket.getLevel(), bucket.drainSuppressed());
+                }
+            }
+        }
+
+        final XxlJobBinaryLogEncoder binaryEncoder = this.binaryEncoder;
+        if (null != binaryEncoder) {
+            binaryEncoder.complete(logFileName);
+        }
+        this.appender.complete(logFileName);
+
+        final XxlJobLogArchiver archiver = this.archiver;
+        if (null != archiver) {
+            archiver.archive(logFileName);
         }
     }
 
@@ -165,130 +440,136 @@ public class XxlJobLogger {
      * 输出{@code trace}日志
      *
      * @param message 日志信息
-     * @param args    参数
      */
-    public void trace(String message, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.TRACE, message, args, null);
+    public void trace(String message) {
+        this.handlerNormalizedMessage(FQCN, Level.TRACE, message, null, null);
     }
 
     /**
      * 输出{@code trace}日志
      *
-     * @param fqcn        完全限定类名
-     * @param message     日志信息
-     * @param slf4jLogger slf4jLogger
-     * @param args        参数
+     * @param message 日志信息
+     * @param arg     参数
      */
-    public void trace(String fqcn, Logger slf4jLogger, String message, Object... args) {
-        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.TRACE, message, args, null);
+    public void trace(String message, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.TRACE, message, 1, arg, null, null);
     }
 
     /**
      * 输出{@code trace}日志
      *
      * @param message 日志信息
-     * @param ex      异常
-     * @param args    参数
+     * @param arg1    参数1
+     * @param arg2    参数2
      */
-    public void trace(String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.TRACE, message, args, ex);
+    public void trace(String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(FQCN, null, Level.TRACE, message, 2, arg1, arg2, null);
     }
 
     /**
      * 输出{@code trace}日志
      *
-     * @param fqcn        完全限定类名
-     * @param slf4jLogger slf4jLogger
-     * @param message     日志信息
-     * @param ex          异常
-     * @param args        参数
+     * @param message 日志信息
+     * @param args    参数
      */
-    public void trace(String fqcn, Logger slf4jLogger, String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.TRACE, message, args, ex);
+    public void trace(String message, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.TRACE, message, args, null);
     }
 
     /**
-     * 输出{@code debug}日志
+     * 输出{@code trace}日志
      *
      * @param message 日志信息
-     * @param args    参数
+     * @param ex      异常
      */
-    public void debug(String message, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.DEBUG, message, args, null);
+    public void trace(String message, Throwable ex) {
+        this.handlerNormalizedMessage(FQCN, Level.TRACE, message, null, ex);
     }
 
     /**
-     * 输出{@code debug}日志
+     * 输出{@code trace}日志
      *
-     * @param fqcn        完全限定类名
-     * @param slf4jLogger slf4jLogger
-     * @param message     日志信息
-     * @param args        参数
+     * @param message 日志信息
+     * @param ex      异常
+     * @param arg     参数
      */
-    public void debug(String fqcn, Logger slf4jLogger, String message, Object... args) {
-        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.DEBUG, message, args, null);
+    public void trace(String message, Throwable ex, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.TRACE, message, 1, arg, null, ex);
     }
 
     /**
-     * 输出{@code debug}日志
+     * 输出{@code trace}日志
      *
      * @param message 日志信息
      * @param ex      异常
      * @param args    参数
      */
-    public void debug(String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.DEBUG, message, args, ex);
+    public void trace(String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.TRACE, message, args, ex);
     }
 
     /**
-     * 输出{@code debug}日志
+     * 输出{@code trace}日志
      *
      * @param fqcn        完全限定类名
      * @param slf4jLogger slf4jLogger
      * @param message     日志信息
-     * @param ex          异常
-     * @param args        参数
      */
-    public void debug(String fqcn, Logger slf4jLogger, String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.DEBUG, message, args, ex);
+    public void trace(String fqcn, Logger slf4jLogger, String message) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.TRACE, message, null, null);
     }
 
     /**
-     * 输出{@code info}日志
+     * 输出{@code trace}日志
      *
-     * @param message 日志信息
-     * @param args    参数
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param arg         参数
      */
-    public void info(String message, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.INFO, message, args, null);
+    public void trace(String fqcn, Logger slf4jLogger, String message, Object arg) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.TRACE, message, 1, arg, null, null);
     }
 
     /**
-     * 输出{@code info}日志
+     * 输出{@code trace}日志
      *
      * @param fqcn        完全限定类名
      * @param slf4jLogger slf4jLogger
      * @param message     日志信息
-     * @param args        参数
+     * @param arg1        参数1
+     * @param arg2        参数2
      */
-    public void info(String fqcn, Logger slf4jLogger, String message, Object... args) {
-        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.INFO, message, args, null);
+    public void trace(String fqcn, Logger slf4jLogger, String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.TRACE, message, 2, arg1, arg2, null);
     }
 
+    /**
+     * 输出{@code trace}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param args        参数
+     */
+    public void trace(String fqcn, Logger slf4jLogger, String message, Object... args) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.TRACE, message, args, null);
+    }
 
     /**
-     * 输出{@code info}日志
+     * 输出{@code trace}日志
      *
-     * @param message 日志信息
-     * @param ex      异常
-     * @param args    参数
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param ex          异常
      */
-    public void info(String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.INFO, message, args, ex);
+    public void trace(String fqcn, Logger slf4jLogger, String message, Throwable ex) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.TRACE, message, null, ex);
     }
 
     /**
-     * 输出{@code info}日志
+     * 输出{@code trace}日志
      *
      * @param fqcn        完全限定类名
      * @param slf4jLogger slf4jLogger
@@ -296,65 +577,551 @@ public class XxlJobLogger {
      * @param ex          异常
      * @param args        参数
      */
-    public void info(String fqcn, Logger slf4jLogger, String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.INFO, message, args, ex);
+    public void trace(String fqcn, Logger slf4jLogger, String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.TRACE, message, args, ex);
     }
 
     /**
-     * 输出{@code warn}日志
+     * 输出{@code debug}日志
      *
      * @param message 日志信息
-     * @param args    参数
      */
-    public void warn(String message, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.WARN, message, args, null);
+    public void debug(String message) {
+        this.handlerNormalizedMessage(FQCN, Level.DEBUG, message, null, null);
     }
 
     /**
-     * 输出{@code warn}日志
+     * 输出{@code debug}日志
      *
-     * @param fqcn        完全限定类名
-     * @param slf4jLogger slf4jLogger
-     * @param message     日志信息
-     * @param args        参数
+     * @param message 日志信息
+     * @param arg     参数
      */
-    public void warn(String fqcn, Logger slf4jLogger, String message, Object... args) {
-        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.WARN, message, args, null);
+    public void debug(String message, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.DEBUG, message, 1, arg, null, null);
     }
 
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param message 日志信息
+     * @param arg1    参数1
+     * @param arg2    参数2
+     */
+    public void debug(String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(FQCN, null, Level.DEBUG, message, 2, arg1, arg2, null);
+    }
 
     /**
-     * 输出{@code warn}日志
+     * 输出{@code debug}日志
      *
      * @param message 日志信息
-     * @param ex      异常
      * @param args    参数
      */
-    public void warn(String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.WARN, message, args, ex);
+    public void debug(String message, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.DEBUG, message, args, null);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     */
+    public void debug(String message, Throwable ex) {
+        this.handlerNormalizedMessage(FQCN, Level.DEBUG, message, null, ex);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     * @param arg     参数
+     */
+    public void debug(String message, Throwable ex, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.DEBUG, message, 1, arg, null, ex);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     * @param args    参数
+     */
+    public void debug(String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.DEBUG, message, args, ex);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     */
+    public void debug(String fqcn, Logger slf4jLogger, String message) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.DEBUG, message, null, null);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param arg         参数
+     */
+    public void debug(String fqcn, Logger slf4jLogger, String message, Object arg) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.DEBUG, message, 1, arg, null, null);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param arg1        参数1
+     * @param arg2        参数2
+     */
+    public void debug(String fqcn, Logger slf4jLogger, String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.DEBUG, message, 2, arg1, arg2, null);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param args        参数
+     */
+    public void debug(String fqcn, Logger slf4jLogger, String message, Object... args) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.DEBUG, message, args, null);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param ex          异常
+     */
+    public void debug(String fqcn, Logger slf4jLogger, String message, Throwable ex) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.DEBUG, message, null, ex);
+    }
+
+    /**
+     * 输出{@code debug}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param ex          异常
+     * @param args        参数
+     */
+    public void debug(String fqcn, Logger slf4jLogger, String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.DEBUG, message, args, ex);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param message 日志信息
+     */
+    public void info(String message) {
+        this.handlerNormalizedMessage(FQCN, Level.INFO, message, null, null);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param message 日志信息
+     * @param arg     参数
+     */
+    public void info(String message, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.INFO, message, 1, arg, null, null);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param message 日志信息
+     * @param arg1    参数1
+     * @param arg2    参数2
+     */
+    public void info(String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(FQCN, null, Level.INFO, message, 2, arg1, arg2, null);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param message 日志信息
+     * @param args    参数
+     */
+    public void info(String message, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.INFO, message, args, null);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     */
+    public void info(String message, Throwable ex) {
+        this.handlerNormalizedMessage(FQCN, Level.INFO, message, null, ex);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     * @param arg     参数
+     */
+    public void info(String message, Throwable ex, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.INFO, message, 1, arg, null, ex);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     * @param args    参数
+     */
+    public void info(String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.INFO, message, args, ex);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     */
+    public void info(String fqcn, Logger slf4jLogger, String message) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.INFO, message, null, null);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param arg         参数
+     */
+    public void info(String fqcn, Logger slf4jLogger, String message, Object arg) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.INFO, message, 1, arg, null, null);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param arg1        参数1
+     * @param arg2        参数2
+     */
+    public void info(String fqcn, Logger slf4jLogger, String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.INFO, message, 2, arg1, arg2, null);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param args        参数
+     */
+    public void info(String fqcn, Logger slf4jLogger, String message, Object... args) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.INFO, message, args, null);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param ex          异常
+     */
+    public void info(String fqcn, Logger slf4jLogger, String message, Throwable ex) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.INFO, message, null, ex);
+    }
+
+    /**
+     * 输出{@code info}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param ex          异常
+     * @param args        参数
+     */
+    public void info(String fqcn, Logger slf4jLogger, String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.INFO, message, args, ex);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param message 日志信息
+     */
+    public void warn(String message) {
+        this.handlerNormalizedMessage(FQCN, Level.WARN, message, null, null);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param message 日志信息
+     * @param arg     参数
+     */
+    public void warn(String message, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.WARN, message, 1, arg, null, null);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param message 日志信息
+     * @param arg1    参数1
+     * @param arg2    参数2
+     */
+    public void warn(String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(FQCN, null, Level.WARN, message, 2, arg1, arg2, null);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param message 日志信息
+     * @param args    参数
+     */
+    public void warn(String message, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.WARN, message, args, null);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     */
+    public void warn(String message, Throwable ex) {
+        this.handlerNormalizedMessage(FQCN, Level.WARN, message, null, ex);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     * @param arg     参数
+     */
+    public void warn(String message, Throwable ex, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.WARN, message, 1, arg, null, ex);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     * @param args    参数
+     */
+    public void warn(String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.WARN, message, args, ex);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     */
+    public void warn(String fqcn, Logger slf4jLogger, String message) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.WARN, message, null, null);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param arg         参数
+     */
+    public void warn(String fqcn, Logger slf4jLogger, String message, Object arg) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.WARN, message, 1, arg, null, null);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param arg1        参数1
+     * @param arg2        参数2
+     */
+    public void warn(String fqcn, Logger slf4jLogger, String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.WARN, message, 2, arg1, arg2, null);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param args        参数
+     */
+    public void warn(String fqcn, Logger slf4jLogger, String message, Object... args) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.WARN, message, args, null);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param ex          异常
+     */
+    public void warn(String fqcn, Logger slf4jLogger, String message, Throwable ex) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.WARN, message, null, ex);
+    }
+
+    /**
+     * 输出{@code warn}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param ex          异常
+     * @param args        参数
+     */
+    public void warn(String fqcn, Logger slf4jLogger, String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.WARN, message, args, ex);
+    }
+
+    /**
+     * 输出{@code error}日志
+     *
+     * @param message 日志信息
+     */
+    public void error(String message) {
+        this.handlerNormalizedMessage(FQCN, Level.ERROR, message, null, null);
+    }
+
+    /**
+     * 输出{@code error}日志
+     *
+     * @param message 日志信息
+     * @param arg     参数
+     */
+    public void error(String message, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.ERROR, message, 1, arg, null, null);
+    }
+
+    /**
+     * 输出{@code error}日志
+     *
+     * @param message 日志信息
+     * @param arg1    参数1
+     * @param arg2    参数2
+     */
+    public void error(String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(FQCN, null, Level.ERROR, message, 2, arg1, arg2, null);
+    }
+
+    /**
+     * 输出{@code error}日志
+     *
+     * @param message 日志信息
+     * @param args    参数
+     */
+    public void error(String message, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.ERROR, message, args, null);
+    }
+
+    /**
+     * 输出{@code error}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     */
+    public void error(String message, Throwable ex) {
+        this.handlerNormalizedMessage(FQCN, Level.ERROR, message, null, ex);
+    }
+
+    /**
+     * 输出{@code error}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     * @param arg     参数
+     */
+    public void error(String message, Throwable ex, Object arg) {
+        this.handlerNormalizedMessage(FQCN, null, Level.ERROR, message, 1, arg, null, ex);
+    }
+
+    /**
+     * 输出{@code error}日志
+     *
+     * @param message 日志信息
+     * @param ex      异常
+     * @param args    参数
+     */
+    public void error(String message, Throwable ex, Object... args) {
+        this.handlerNormalizedMessage(FQCN, Level.ERROR, message, args, ex);
+    }
+
+    /**
+     * 输出{@code error}日志
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     */
+    public void error(String fqcn, Logger slf4jLogger, String message) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.ERROR, message, null, null);
     }
 
     /**
-     * 输出{@code warn}日志
+     * 输出{@code error}日志
      *
      * @param fqcn        完全限定类名
      * @param slf4jLogger slf4jLogger
      * @param message     日志信息
-     * @param ex          异常
-     * @param args        参数
+     * @param arg         参数
      */
-    public void warn(String fqcn, Logger slf4jLogger, String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.WARN, message, args, ex);
+    public void error(String fqcn, Logger slf4jLogger, String message, Object arg) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.ERROR, message, 1, arg, null, null);
     }
 
     /**
      * 输出{@code error}日志
      *
-     * @param message 日志信息
-     * @param args    参数
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param arg1        参数1
+     * @param arg2        参数2
      */
-    public void error(String message, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.ERROR, message, args, null);
+    public void error(String fqcn, Logger slf4jLogger, String message, Object arg1, Object arg2) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.ERROR, message, 2, arg1, arg2, null);
     }
 
     /**
@@ -369,16 +1136,16 @@ public class XxlJobLogger {
         this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.ERROR, message, args, null);
     }
 
-
     /**
      * 输出{@code error}日志
      *
-     * @param message 日志信息
-     * @param ex      异常
-     * @param args    参数
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param ex          异常
      */
-    public void error(String message, Throwable ex, Object... args) {
-        this.handlerNormalizedMessage(FQCN, Level.ERROR, message, args, ex);
+    public void error(String fqcn, Logger slf4jLogger, String message, Throwable ex) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.ERROR, message, null, ex);
     }
 
     /**
@@ -394,6 +1161,17 @@ public class XxlJobLogger {
         this.handlerNormalizedMessage(fqcn, slf4jLogger, Level.ERROR, message, args, ex);
     }
 
+    /**
+     * 任务的覆盖级别
+     *
+     * @param jobId 任务id
+     * @return {@link XxlJobLogLevelOverrides#levelOf(long)}，未设置覆盖时返回{@link XxlJobLogLevelOverrides#NONE}
+     */
+    private int overrideLevel(long jobId) {
+        final XxlJobLogLevelOverrides levelOverrides = this.levelOverrides;
+        return null == levelOverrides ? XxlJobLogLevelOverrides.NONE : levelOverrides.levelOf(jobId);
+    }
+
     /**
      * 追加到xxlJob日志文件，当前不是xxlJob任务调用，直接忽略
      *
@@ -404,6 +1182,27 @@ public class XxlJobLogger {
      * @param e           异常
      */
     private void handlerNormalizedMessage(String fqcn, Logger slf4jLogger, Level level, String message, Object[] args, Throwable e) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, level, message, args, 0, null, null, e);
+    }
+
+    /**
+     * 固定参数个数的日志函数直接传入参数，判断需要输出后才创建参数数组，当前不是xxlJob任务调用、日志级别未开启或被限流时不创建
+     *
+     * @param fqcn        完全限定类名
+     * @param slf4jLogger slf4jLogger
+     * @param message     日志信息
+     * @param argCount    固定参数个数，为0时使用{@code args}
+     * @param arg1        参数1
+     * @param arg2        参数2
+     * @param e           异常
+     */
+    private void handlerNormalizedMessage(String fqcn, Logger slf4jLogger, Level level, String message, int argCount,
+                                          Object arg1, Object arg2, Throwable e) {
+        this.handlerNormalizedMessage(fqcn, slf4jLogger, level, message, null, argCount, arg1, arg2, e);
+    }
+
+    private void handlerNormalizedMessage(String fqcn, Logger slf4jLogger, Level level, String message, Object[] args,
+                                          int argCount, Object arg1, Object arg2, Throwable e) {
         final XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
         if (xxlJobContext == null) {
             return;
@@ -414,31 +1213,266 @@ public class XxlJobLogger {
             return;
         }
 
-        final StackTraceElement caller = this.getCaller(fqcn);
-        // 优先使用 slf4jLogger
+        // 覆盖级别未开启时，在遍历线程栈之前忽略
+        final int override = this.overrideLevel(xxlJobContext.getJobId());
+        if (level.toInt() < override) {
+            return;
+        }
+
+        // 优先使用 slf4jLogger，此时无需遍历线程栈即可判断日志级别；否则只找到调用方栈帧，按类获取Logger
         Logger logger = slf4jLogger;
+        StackWalker.StackFrame frame = null;
         if (null == logger) {
-            logger = this.getLogger(caller);
+            frame = this.lookupCallerFrame(fqcn);
+            logger = null == frame ? null : this.getLogger(frame.getDeclaringClass());
+        }
+
+        // 日志级别忽略，没有覆盖级别时忽略规则同调用方Logger
+        if (override == XxlJobLogLevelOverrides.NONE && !this.isLevelEnabled(level, logger)) {
+            return;
+        }
+
+        if (this.isRateLimited(xxlJobContext.getJobId(), logFileName, null, level)) {
+            return;
+        }
+
+        // 只在需要输出调用方时创建StackTraceElement
+        StackTraceElement caller = null;
+        if (this.isCallerRequired(level)) {
+            caller = null == frame ? this.lookupCaller(fqcn) : frame.toStackTraceElement();
+        }
+
+        if (argCount == 1) {
+            args = new Object[]{arg1};
+        } else if (argCount == 2) {
+            args = new Object[]{arg1, arg2};
+        }
+        this.write(xxlJobContext.getJobId(), logFileName, null, System.currentTimeMillis(), level, caller,
+                null == logger ? null : logger.getName(), message, args, null, e);
+    }
+
+    /**
+     * 追加日志框架已格式化的日志，用于logback、log4j2等日志框架的appender，不再判断日志级别、格式化占位符和遍历线程栈，
+     * 当前不是xxlJob任务调用，直接忽略
+     *
+     * @param loggerName 日志框架的Logger名称
+     * @param level      日志级别
+     * @param timestamp  毫秒时间戳
+     * @param caller     日志框架获取的调用方，未获取时为null，可先通过{@link #isCallerRequired(Level)}判断是否需要获取
+     * @param message    已格式化的日志信息，可以是日志框架复用的{@link StringBuilder}，只在调用期间读取
+     * @param mdc        日志事件的MDC，为null时读取当前线程的{@link MDC}
+     * @param e          异常
+     */
+    public void append(String loggerName, Level level, long timestamp, StackTraceElement caller, CharSequence message,
+                       Map<String, String> mdc, Throwable e) {
+        final XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+        if (xxlJobContext == null) {
+            return;
+        }
+
+        this.append(xxlJobContext.getJobId(), xxlJobContext.getJobLogFileName(), null, loggerName, level, timestamp,
+                caller, message, mdc, e);
+    }
+
+    /**
+     * 追加日志框架已格式化的日志到指定的任务日志文件，用于日志事件不在任务线程中处理的场景，如log4j2的AsyncLogger
+     *
+     * @param jobId       任务id
+     * @param logFileName 任务日志文件，为空时忽略
+     * @param threadName  输出日志的线程名称，为null时使用当前线程
+     * @param loggerName  日志框架的Logger名称
+     * @param level       日志级别
+     * @param timestamp   毫秒时间戳
+     * @param caller      日志框架获取的调用方，未获取时为null
+     * @param message     已格式化的日志信息，可以是日志框架复用的{@link StringBuilder}，只在调用期间读取
+     * @param mdc         日志事件的MDC，为null时读取当前线程的{@link MDC}
+     * @param e           异常
+     */
+    public void append(long jobId, String logFileName, String threadName, String loggerName, Level level, long timestamp,
+                       StackTraceElement caller, CharSequence message, Map<String, String> mdc, Throwable e) {
+        if (null == logFileName || logFileName.isEmpty()) {
+            return;
+        }
+
+        // 日志框架已按级别过滤，覆盖级别只能进一步压低
+        if (level.toInt() < this.overrideLevel(jobId)) {
+            return;
+        }
+
+        if (this.isRateLimited(jobId, logFileName, threadName, level)) {
+            return;
         }
 
-        // 日志级别忽略，忽略规则同调用方Logger
-        if (!this.isLevelEnabled(level, logger)) {
+        this.write(jobId, logFileName, threadName, timestamp, level, caller, loggerName, message, null, mdc, e);
+    }
+
+    /**
+     * 是否被限流，到达汇总间隔时先输出被丢弃的行数
+     *
+     * @param jobId       任务id
+     * @param logFileName 日志文件
+     * @param threadName  输出日志的线程名称，为null时使用当前线程
+     * @param level       日志级别
+     * @return boolean
+     */
+    private boolean isRateLimited(long jobId, String logFileName, String threadName, Level level) {
+        final XxlJobLogRateLimiter rateLimiter = this.rateLimiter;
+        if (null == rateLimiter) {
+            return false;
+        }
+
+        final XxlJobLogRateLimiter.Bucket bucket = rateLimiter.getBucket(logFileName, level);
+        if (null == bucket) {
+            return false;
+        }
+
+        final boolean acquired = bucket.tryAcquire();
+        this.writeSuppressed(jobId, logFileName, threadName, level, bucket.pollSuppressed());
+        return !acquired;
+    }
+
+    /**
+     * 输出被限流丢弃的行数
+     */
+    private void writeSuppressed(long jobId, String logFileName, String threadName, Level level, long suppressed) {
+        if (suppressed <= 0) {
             return;
         }
 
-        final StringBuilder log = new StringBuilder();
-        this.markDate(new Date(), log);
-        this.markLevel(level, log);
-        this.markPid(log);
+        METRICS.recordSuppressed(suppressed);
+        this.write(jobId, logFileName, threadName, System.currentTimeMillis(), level, null, RATE_LIMITER_NAME,
+                suppressed + " " + level + " lines suppressed by rate limit", null, null, null);
+    }
+
+    /**
+     * 直接渲染到当前线程复用的缓冲区，编码后交给写出组件
+     *
+     * @param jobId       任务id
+     * @param logFileName 日志文件
+     * @param threadName  输出日志的线程名称，为null时使用当前线程
+     * @param timestamp   毫秒时间戳
+     * @param level       日志级别
+     * @param caller      调用方，未获取时为null
+     * @param loggerName  调用方{@link Logger}名称
+     * @param message     日志信息
+     * @param args        参数，为null时不格式化占位符
+     * @param mdc         MDC，为null时读取当前线程的{@link MDC}
+     * @param e           异常
+     */
+    private void write(long jobId, String logFileName, String threadName, long timestamp, Level level, StackTraceElement caller,
+                       String loggerName, CharSequence message, Object[] args, Map<String, String> mdc, Throwable e) {
+        final LineEncoder encoder = LineEncoder.acquire();
+        try {
+            final StringBuilder log = encoder.builder();
+            final Layout layout = this.layout;
+            // 一行日志只读取一次当前线程的MDC
+            if (null == mdc && (null != layout || null != this.tracingKey || this.contextKeys.mdcRequired)) {
+                mdc = MdcAccessor.current();
+            }
+
+            final XxlJobBinaryLogEncoder binaryEncoder = this.binaryEncoder;
+            if (null != binaryEncoder) {
+                this.writeBinary(binaryEncoder, encoder, jobId, logFileName, threadName, timestamp, level, caller, loggerName, message, args, mdc, e);
+                return;
+            }
+
+            if (null != layout) {
+                layout.format(encoder.event().set(timestamp, level, this.isPid ? this.pid : -1,
+                        Thread.currentThread(), caller, loggerName, message, args, e).mdc(mdc).threadName(threadName)
+                        .jobId(jobId).logFileName(logFileName).throwableRenderer(this.throwableRenderer), log);
+            } else {
+                this.markDate(timestamp, log);
+                this.markLevel(level, log);
+                this.markPid(log);
+
+                this.markTrace(mdc, log);
+                this.markContext(mdc, jobId, logFileName, log);
+
+                if (null == threadName) {
+                    this.markThread(Thread.currentThread(), log);
+                } else {
+                    this.markThread(threadName, log);
+                }
+                this.markCaller(caller, loggerName, log);
+                if (null == message || message instanceof String) {
+                    this.markMessage((String) message, args, e, logFileName, log);
+                } else {
+                    // 日志框架已格式化的信息直接追加，不转换为String
+                    log.append(message);
+                    if (null != e) {
+                        log.append(" :");
+                        this.markMessage(null, null, e, logFileName, log);
+                    }
+                }
+            }
+
+            final ByteBuffer line = encoder.encode();
+            final int byteCount = line.remaining();
+            final long start = System.nanoTime();
+            this.appender.append(logFileName, level, line);
+            METRICS.recordWrite(jobId, level, byteCount, System.nanoTime() - start);
+        } finally {
+            encoder.release();
+        }
+    }
+
+    /**
+     * 以二进制格式写出，traceId、上下文和异常堆栈按文本格式渲染后写出
+     */
+    private void writeBinary(XxlJobBinaryLogEncoder binaryEncoder, LineEncoder encoder, long jobId, String logFileName, String threadName,
+                             long timestamp, Level level, StackTraceElement caller, String loggerName, CharSequence message, Object[] args,
+                             Map<String, String> mdc, Throwable e) {
+        String trace = null;
+        if (null != this.tracingKey) {
+            trace = mdcValue(mdc, this.tracingKey);
+            if (null == trace || trace.isEmpty()) {
+                trace = "N/A";
+            }
+        }
+
+        final StringBuilder builder = encoder.builder();
+        this.markContext(mdc, jobId, logFileName, builder);
+        final String context = builder.length() == 0 ? null : builder.toString();
+        builder.setLength(0);
 
-        this.markTrace(log);
-        this.markContext(log);
+        String throwable = null;
+        if (null != e) {
+            this.markMessage(null, null, e, logFileName, builder);
+            throwable = builder.toString();
+            builder.setLength(0);
+        }
+
+        final LogEvent event = encoder.event().set(timestamp, level, this.isPid ? this.pid : -1, Thread.currentThread(), caller,
+                loggerName, message, args, e).threadName(threadName).jobId(jobId).logFileName(logFileName);
+        final long start = System.nanoTime();
+        final int byteCount = binaryEncoder.append(this.appender, event, this.dateFormat, trace, context, throwable);
+        METRICS.recordWrite(jobId, level, byteCount, System.nanoTime() - start);
+    }
 
-        this.markThread(Thread.currentThread(), log);
-        this.markCaller(caller, log);
-        this.markMessage(message, args, e, log);
+    /**
+     * 获取调用方并记录耗时
+     *
+     * @param fqcn 完全限定类名
+     * @return {@link StackTraceElement}
+     */
+    private StackTraceElement lookupCaller(String fqcn) {
+        final long start = System.nanoTime();
+        final StackTraceElement caller = this.getCaller(fqcn);
+        METRICS.recordCallerLookup(System.nanoTime() - start);
+        return caller;
+    }
 
-        XxlJobFileAppender.appendLog(logFileName, log.toString());
+    /**
+     * 获取调用方栈帧并记录耗时
+     *
+     * @param fqcn 完全限定类名
+     * @return {@link StackWalker.StackFrame}
+     */
+    private StackWalker.StackFrame lookupCallerFrame(String fqcn) {
+        final long start = System.nanoTime();
+        final StackWalker.StackFrame frame = this.getCallerFrame(fqcn);
+        METRICS.recordCallerLookup(System.nanoTime() - start);
+        return frame;
     }
 
     /**
@@ -476,7 +1510,18 @@ public class XxlJobLogger {
      * @param messageBuilder 日志文本构造器
      */
     protected void markDate(Date date, StringBuilder messageBuilder) {
-        messageBuilder.append(DateUtil.format(date, this.dateFormat)).append(' ');
+        this.markDate(date.getTime(), messageBuilder);
+    }
+
+    /**
+     * 构造日志日期信息，直接写入日志文本构造器，无需创建{@link Date}对象
+     *
+     * @param timestamp      毫秒时间戳
+     * @param messageBuilder 日志文本构造器
+     */
+    protected void markDate(long timestamp, StringBuilder messageBuilder) {
+        this.dateFormatter.format(timestamp, messageBuilder);
+        messageBuilder.append(' ');
     }
 
     /**
@@ -486,7 +1531,8 @@ public class XxlJobLogger {
      * @param messageBuilder 日志文本构造器
      */
     protected void markLevel(Level level, StringBuilder messageBuilder) {
-        messageBuilder.append(String.format("%5s", level.toString())).append(' ');
+        padLeft(level.toString(), messageBuilder);
+        messageBuilder.append(' ');
     }
 
     /**
@@ -514,11 +1560,21 @@ public class XxlJobLogger {
      * @param messageBuilder 日志文本构造器
      */
     public void markTrace(StringBuilder messageBuilder) {
+        this.markTrace(null, messageBuilder);
+    }
+
+    /**
+     * 向日志上追加Trace信息,格式: {@code [traceId]}，如果traceId不存在，则追加{@code [N/A]}
+     *
+     * @param mdc            日志事件的MDC，为null时读取当前线程的{@link MDC}
+     * @param messageBuilder 日志文本构造器
+     */
+    protected void markTrace(Map<String, String> mdc, StringBuilder messageBuilder) {
         if (null == this.tracingKey) {
             return;
         }
 
-        String traceValue = MDC.get(this.tracingKey);
+        String traceValue = mdcValue(mdc, this.tracingKey);
         if (null == traceValue || traceValue.isEmpty()) {
             traceValue = "N/A";
         }
@@ -532,25 +1588,56 @@ public class XxlJobLogger {
      * @param messageBuilder 日志文本构造器
      */
     public void markContext(StringBuilder messageBuilder) {
-        if (this.contextKeys.isEmpty()) {
+        this.markContext(null, messageBuilder);
+    }
+
+    /**
+     * 向日志上追加上下文信息,格式: {@code {key1=value1,key2=value2}}
+     *
+     * @param mdc            日志事件的MDC，为null时读取当前线程的{@link MDC}
+     * @param messageBuilder 日志文本构造器
+     */
+    protected void markContext(Map<String, String> mdc, StringBuilder messageBuilder) {
+        final XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+        this.markContext(mdc, null == xxlJobContext ? 0 : xxlJobContext.getJobId(),
+                null == xxlJobContext ? null : xxlJobContext.getJobLogFileName(), messageBuilder);
+    }
+
+    /**
+     * 向日志上追加上下文信息,格式: {@code {key1=value1,key2=value2}}
+     *
+     * @param mdc            日志事件的MDC，为null时读取当前线程的{@link MDC}
+     * @param jobId          任务id
+     * @param logFileName    任务日志文件
+     * @param messageBuilder 日志文本构造器
+     */
+    protected void markContext(Map<String, String> mdc, long jobId, String logFileName, StringBuilder messageBuilder) {
+        final ContextKeys contextKeys = this.contextKeys;
+        final String[] keys = contextKeys.keys;
+        if (keys.length == 0) {
             return;
         }
 
         boolean isAppend = false;
-        for (String key : this.contextKeys) {
-            final String value = MDC.get(key);
-            if (null == value || value.isEmpty()) {
-                continue;
-            }
-
-            if (isAppend) {
-                messageBuilder.append(",");
+        for (int i = 0; i < keys.length; i++) {
+            final int start = messageBuilder.length();
+            messageBuilder.append(isAppend ? ',' : '{').append(keys[i]).append('=');
+
+            final XxlJobContextField field = contextKeys.fields[i];
+            if (null != field) {
+                if (!field.appendTo(jobId, logFileName, messageBuilder)) {
+                    messageBuilder.setLength(start);
+                    continue;
+                }
             } else {
-                messageBuilder.append('{');
+                final String value = mdcValue(mdc, keys[i]);
+                if (null == value || value.isEmpty()) {
+                    messageBuilder.setLength(start);
+                    continue;
+                }
+                messageBuilder.append(value);
             }
-
             isAppend = true;
-            messageBuilder.append(key).append("=").append(value);
         }
 
         if (isAppend) {
@@ -565,7 +1652,56 @@ public class XxlJobLogger {
      * @param messageBuilder 日志文本构造器
      */
     protected void markThread(Thread thread, StringBuilder messageBuilder) {
-        messageBuilder.append('[').append(String.format("%5s", thread.getName())).append(']').append(' ');
+        this.markThread(thread.getName(), messageBuilder);
+    }
+
+    /**
+     * 构造日志线程信息
+     *
+     * @param threadName     线程名称
+     * @param messageBuilder 日志文本构造器
+     */
+    protected void markThread(String threadName, StringBuilder messageBuilder) {
+        messageBuilder.append('[');
+        padLeft(threadName, messageBuilder);
+        messageBuilder.append(']').append(' ');
+    }
+
+    /**
+     * 左侧补空格到5个字符，同{@code String.format("%5s", value)}，不产生中间字符串
+     */
+    private static void padLeft(String value, StringBuilder messageBuilder) {
+        final String text = String.valueOf(value);
+        for (int i = text.length(); i < 5; i++) {
+            messageBuilder.append(' ');
+        }
+        messageBuilder.append(text);
+    }
+
+    /**
+     * 构造日志调用方信息，未获取调用方时使用{@link Logger}名称代替
+     *
+     * @param caller         调用方
+     * @param logger         调用方{@link Logger}对象
+     * @param messageBuilder 日志文本构造器
+     */
+    protected void markCaller(StackTraceElement caller, Logger logger, StringBuilder messageBuilder) {
+        this.markCaller(caller, null == logger ? null : logger.getName(), messageBuilder);
+    }
+
+    /**
+     * 构造日志调用方信息，未获取调用方时使用Logger名称代替
+     *
+     * @param caller         调用方
+     * @param loggerName     调用方Logger名称
+     * @param messageBuilder 日志文本构造器
+     */
+    protected void markCaller(StackTraceElement caller, String loggerName, StringBuilder messageBuilder) {
+        if (null == caller && null != loggerName) {
+            messageBuilder.append(loggerName).append(" : ");
+            return;
+        }
+        this.markCaller(caller, messageBuilder);
     }
 
     /**
@@ -593,7 +1729,7 @@ public class XxlJobLogger {
         if (null != message) {
             hasMessage = true;
             // 格式化{}占位符
-            messageBuilder.append(MessageFormatter.arrayFormat(message, args, e).getMessage());
+            MessageFormats.formatTo(message, args, messageBuilder);
         }
 
 
@@ -613,6 +1749,39 @@ public class XxlJobLogger {
 
     }
 
+    /**
+     * 日志信息和异常堆栈，设置了{@link #throwableRenderer}时由其渲染异常堆栈
+     *
+     * @param message        日志信息
+     * @param args           参数
+     * @param e              异常
+     * @param logFileName    任务日志文件
+     * @param messageBuilder 日志文本构造器
+     */
+    protected void markMessage(String message, Object[] args, Throwable e, String logFileName, StringBuilder messageBuilder) {
+        final ThrowableRenderer renderer = this.throwableRenderer;
+        if (null == renderer || null == e) {
+            this.markMessage(message, args, e, messageBuilder);
+            return;
+        }
+
+        if (null != message) {
+            MessageFormats.formatTo(message, args, messageBuilder);
+            messageBuilder.append(" :");
+        }
+        renderer.render(e, logFileName, messageBuilder);
+    }
+
+    /**
+     * 读取MDC中的值
+     *
+     * @param mdc 日志事件的MDC，为null时读取当前线程的{@link MDC}
+     * @param key key
+     * @return String
+     */
+    private static String mdcValue(Map<String, String> mdc, String key) {
+        return null == mdc ? MDC.get(key) : mdc.get(key);
+    }
 
     /**
      * 获取当前进程 PID
@@ -631,23 +1800,54 @@ public class XxlJobLogger {
     }
 
     /**
-     * 获取调用方信息
+     * 当前级别是否需要获取调用方信息，日志格式中未使用调用方时不获取
+     *
+     * @param level 日志级别
+     * @return boolean
+     */
+    public boolean isCallerRequired(Level level) {
+        // 自定义日志格式中未使用调用方
+        final Layout layout = this.layout;
+        if (null != layout && !layout.isCallerRequired()) {
+            return false;
+        }
+
+        switch (this.callerPolicy) {
+            case NEVER:
+                return false;
+            case WARN:
+                return level.toInt() >= Level.WARN.toInt();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 获取调用方信息，跳过{@code fqcn}、插件自身、{@link XxlJobLogger}子类以及动态代理类的栈帧
      *
      * @param fqcn 完全限定类名
      * @return {@link StackTraceElement }
      */
     protected StackTraceElement getCaller(String fqcn) {
+        final StackWalker.StackFrame frame = this.getCallerFrame(fqcn);
+        return null == frame ? null : frame.toStackTraceElement();
+    }
+
+    /**
+     * 获取调用方栈帧，规则同{@link #getCaller(String)}，栈帧保留调用方类，需要时再创建{@link StackTraceElement}
+     *
+     * @param fqcn 完全限定类名
+     * @return {@link StackWalker.StackFrame}，未找到时返回null
+     */
+    protected StackWalker.StackFrame getCallerFrame(String fqcn) {
         try {
-            final StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-            for (final StackTraceElement element : stackTrace) {
-                if (!element.getClassName().equals(fqcn) && !element.getClassName().startsWith(Thread.class.getName())) {
-                    return element;
-                }
-            }
+            return STACK_WALKER.walk(frames -> frames
+                    .filter(frame -> !LOGGING_FRAMES.get(frame.getDeclaringClass()) && !frame.getClassName().equals(fqcn))
+                    .findFirst()
+                    .orElse(null));
         } catch (Throwable ex) {
             return null;
         }
-        return null;
     }
 
     /**
@@ -663,72 +1863,59 @@ public class XxlJobLogger {
         return LoggerFactory.getLogger(caller.getClassName());
     }
 
-
     /**
-     * 基于{@link StringBuilder}实现的{@link Writer}
+     * 获取调用方类的{@link Logger}对象，按类缓存
      *
-     * @author witt
+     * @param callerClass 调用方类
+     * @return {@link Logger }
      */
-    private static class StringBuilderWriter extends Writer implements Serializable {
-
-        private static final long serialVersionUID = -971136813713692050L;
-
-        private final StringBuilder builder;
-
-        public StringBuilderWriter() {
-            this.builder = new StringBuilder();
-        }
-
-        public StringBuilderWriter(int capacity) {
-            this.builder = new StringBuilder(capacity);
-        }
-
-        public StringBuilderWriter(StringBuilder builder) {
-            this.builder = builder != null ? builder : new StringBuilder();
-        }
+    protected Logger getLogger(Class<?> callerClass) {
+        return CALLER_LOGGERS.get(callerClass);
+    }
 
-        public Writer append(char value) {
-            this.builder.append(value);
-            return this;
-        }
+    /**
+     * 编译后的上下文Key，不可变，修改时整体替换
+     */
+    private static final class ContextKeys {
 
-        public Writer append(CharSequence value) {
-            this.builder.append(value);
-            return this;
-        }
+        private static final ContextKeys EMPTY = new ContextKeys(new String[0], new XxlJobContextField[0]);
 
-        public Writer append(CharSequence value, int start, int end) {
-            this.builder.append(value, start, end);
-            return this;
-        }
+        private final String[] keys;
 
-        public void close() {
-        }
+        /**
+         * 与{@link #keys}一一对应，不是内置字段时为null
+         */
+        private final XxlJobContextField[] fields;
 
-        public void flush() {
-        }
+        /**
+         * 是否有需要读取MDC的Key
+         */
+        private final boolean mdcRequired;
 
-        public void write(String value) {
-            if (value != null) {
-                this.builder.append(value);
+        private ContextKeys(String[] keys, XxlJobContextField[] fields) {
+            this.keys = keys;
+            this.fields = fields;
+            boolean mdcRequired = false;
+            for (XxlJobContextField field : fields) {
+                mdcRequired |= null == field;
             }
-
+            this.mdcRequired = mdcRequired;
         }
 
-        public void write(char[] value, int offset, int length) {
-            if (value != null) {
-                this.builder.append(value, offset, length);
+        private static ContextKeys compile(Set<String> keys, String tracingKey) {
+            final List<String> compiled = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                if (null != key && !key.isEmpty() && !key.equals(tracingKey) && !compiled.contains(key)) {
+                    compiled.add(key);
+                }
             }
 
-        }
-
-        public StringBuilder getBuilder() {
-            return this.builder;
-        }
-
-        public String toString() {
-            return this.builder.toString();
+            final String[] array = compiled.toArray(new String[0]);
+            final XxlJobContextField[] fields = new XxlJobContextField[array.length];
+            for (int i = 0; i < array.length; i++) {
+                fields[i] = XxlJobContextField.of(array[i]);
+            }
+            return new ContextKeys(array, fields);
         }
     }
-
 }
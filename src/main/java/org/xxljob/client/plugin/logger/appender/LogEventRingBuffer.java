@@ -0,0 +1,175 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>多生产者单消费者的有界无锁环形队列，槽位预先分配，入队不产生额外对象</p>
+ * <p>每个槽位维护一个序号：序号等于生产位置时可写，等于生产位置+1时可读，消费后推进一圈</p>
+ * <p>每个槽位持有一个复用的字节数组，入队时将日志行复制到槽位中，只有超出槽位大小的日志行才会扩容，超大的槽位在出队后释放</p>
+ * <p>创建于 2026-10-18 10:31 10:31 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+final class LogEventRingBuffer {
+
+    private final int mask;
+
+    private final int capacity;
+
+    /**
+     * 槽位允许保留的最大字节数
+     */
+    private static final int MAX_RETAINED_SLOT_BYTES = 64 * 1024;
+
+    /**
+     * 槽位初始字节数
+     */
+    private static final int INITIAL_SLOT_BYTES = 256;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final AtomicLongArray sequences;
+
+    private final String[] logFileNames;
+
+    private final byte[][] lines;
+
+    private final int[] lengths;
+
+    /**
+     * 下一个生产位置
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 下一个消费位置，仅消费线程写入
+     */
+    private volatile long head;
+
+    LogEventRingBuffer(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.capacity = size;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.logFileNames = new String[size];
+        this.lines = new byte[size][];
+        this.lengths = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+            this.lines[i] = EMPTY;
+        }
+    }
+
+    /**
+     * 入队，将{@code line}剩余的内容复制到槽位中
+     *
+     * @return 队列已满返回false，{@code line}不变
+     */
+    boolean offer(String logFileName, ByteBuffer line) {
+        long position = this.tail.get();
+        int index;
+        for (; ; ) {
+            index = (int) (position & this.mask);
+            final long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+
+        final int length = line.remaining();
+        if (this.lines[index].length < length) {
+            this.lines[index] = new byte[Math.max(length, INITIAL_SLOT_BYTES)];
+        }
+        line.get(this.lines[index], 0, length);
+        this.lengths[index] = length;
+        this.logFileNames[index] = logFileName;
+        this.sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * 批量读取已发布的槽位，仅允许消费线程调用；返回的字节数组是槽位本身，{@link #release(int)}之前不会被生产者复用
+     *
+     * @param logFileNames 日志文件
+     * @param lines        编码后的日志行
+     * @param lengths      日志行的字节数
+     * @return 读取数量
+     */
+    int drainTo(String[] logFileNames, byte[][] lines, int[] lengths) {
+        final int limit = Math.min(logFileNames.length, Math.min(lines.length, lengths.length));
+        long position = this.head;
+        int count = 0;
+        while (count < limit) {
+            final int index = (int) (position & this.mask);
+            if (this.sequences.get(index) != position + 1) {
+                break;
+            }
+
+            logFileNames[count] = this.logFileNames[index];
+            lines[count] = this.lines[index];
+            lengths[count] = this.lengths[index];
+            position++;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 释放{@link #drainTo(String[], byte[][], int[])}读取的槽位，仅允许消费线程调用
+     *
+     * @param count 读取数量
+     */
+    void release(int count) {
+        long position = this.head;
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (position & this.mask);
+            this.logFileNames[index] = null;
+            if (this.lines[index].length > MAX_RETAINED_SLOT_BYTES) {
+                this.lines[index] = EMPTY;
+            }
+            this.sequences.lazySet(index, position + this.capacity);
+            position++;
+        }
+        this.head = position;
+    }
+
+    /**
+     * 当前队列中元素的近似数量
+     */
+    int size() {
+        return (int) Math.max(0, this.tail.get() - this.head);
+    }
+
+    int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * 已发布的生产位置
+     */
+    long producedSequence() {
+        return this.tail.get();
+    }
+
+    /**
+     * 已出队的消费位置
+     */
+    long consumedSequence() {
+        return this.head;
+    }
+}
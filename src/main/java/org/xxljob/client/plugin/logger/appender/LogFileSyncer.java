@@ -0,0 +1,67 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link XxlJobLogDurability#GROUP_COMMIT}的组提交线程，写出时只登记文件，每个间隔对登记的所有文件执行一次落盘</p>
+ * <p>创建于 2026-10-18 22:15 22:15 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+final class LogFileSyncer {
+
+    /**
+     * 可落盘的日志文件
+     */
+    interface Syncable {
+
+        /**
+         * 落盘，失败时忽略，文件已关闭时直接返回
+         */
+        void sync();
+    }
+
+    private final Set<Syncable> dirty = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService executor;
+
+    LogFileSyncer(long intervalMillis) {
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "xxl-job-logger-syncer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::syncDirty, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 登记有未落盘内容的文件
+     */
+    void dirty(Syncable file) {
+        this.dirty.add(file);
+    }
+
+    private void syncDirty() {
+        final Iterator<Syncable> iterator = this.dirty.iterator();
+        while (iterator.hasNext()) {
+            final Syncable file = iterator.next();
+            iterator.remove();
+            file.sync();
+        }
+    }
+
+    /**
+     * 落盘剩余的文件后停止
+     */
+    void close() {
+        this.executor.shutdownNow();
+        this.syncDirty();
+    }
+}
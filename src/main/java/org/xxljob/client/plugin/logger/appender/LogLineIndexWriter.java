@@ -0,0 +1,331 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import org.xxljob.client.plugin.logger.encoder.XxlJobBinaryLogEncoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>单个日志文件的{@link XxlJobLogLineIndex}写出，由日志文件句柄在持有句柄锁时调用</p>
+ * <p>
+ * 本插件写出的内容直接在写出缓冲区中计数，文件大小由句柄按写出的字节数累加，不再读取文件。
+ * xxl-job自身也会通过{@code XxlJobFileAppender.appendLog}写入同一文件，累加的大小看不到这些写入，
+ * 因此每次写出新的条目前和关闭时读取一次实际大小：与已计数的位置不一致时，回到上次确认的计数状态，从该位置读取文件到末尾重新计数，
+ * 保证写出的条目总是准确；读取文件大小的次数与条目数相同，而不是每次写出一次
+ * </p>
+ * <p>行以{@code \n}、{@code \r}或{@code \r\n}结尾，与{@link java.io.LineNumberReader}一致；以{@code \r}结束的行要等到下一个字节才能确定下一行的起始偏移</p>
+ * <p>行首出现{@link XxlJobBinaryLogEncoder#MARKER}时清空索引并停止写出，二进制记录解码后的行数与换行符个数不一致</p>
+ * <p>创建于 2026-10-18 21:15 21:15 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+final class LogLineIndexWriter {
+
+    private static final int SCAN_BYTES = 64 * 1024;
+
+    private static final int FLUSH_ENTRIES = 64;
+
+    private final Path logPath;
+
+    private final Path indexPath;
+
+    private final int interval;
+
+    private FileChannel reader;
+
+    private FileChannel writer;
+
+    /**
+     * 已计数内容的结束偏移
+     */
+    private long countedOffset;
+
+    /**
+     * 已计数的行数，以{@code \r}结束的行在读到{@code \r}时计入
+     */
+    private long countedLines;
+
+    /**
+     * 上一个字节是{@code \r}，紧随的{@code \n}不再计为一行
+     */
+    private boolean afterCarriageReturn;
+
+    /**
+     * 下一个字节位于行首
+     */
+    private boolean lineStart;
+
+    /**
+     * 第K行以{@code \r}结束，条目偏移等待下一个字节确定
+     */
+    private boolean entryPending;
+
+    /**
+     * 文件中存在二进制记录，不再写索引
+     */
+    private boolean disabled;
+
+    private ByteBuffer scanBuffer;
+
+    /**
+     * 待写出的条目，确认文件大小后才写出
+     */
+    private ByteBuffer entries = ByteBuffer.allocate(XxlJobLogLineIndex.ENTRY_BYTES * FLUSH_ENTRIES);
+
+    /**
+     * 上次确认文件大小时的计数状态，见{@link #verify()}
+     */
+    private long verifiedOffset;
+
+    private long verifiedLines;
+
+    private boolean verifiedAfterCarriageReturn;
+
+    private boolean verifiedLineStart;
+
+    private boolean verifiedEntryPending;
+
+    LogLineIndexWriter(Path logPath, int interval) {
+        this.logPath = logPath;
+        this.indexPath = Paths.get(XxlJobLogLineIndex.getIndexFileName(logPath.toString()));
+        this.interval = interval;
+    }
+
+    /**
+     * 打开索引文件，已有索引时从最后一个条目继续，不合法时重建
+     */
+    void open() throws IOException {
+        this.writer = FileChannel.open(this.indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.reader = FileChannel.open(this.logPath, StandardOpenOption.READ);
+
+        final long entries = XxlJobLogLineIndex.entryCount(this.writer);
+        if (entries > 0 && XxlJobLogLineIndex.readInterval(this.writer) == this.interval) {
+            final long offset = XxlJobLogLineIndex.readEntry(this.writer, entries - 1);
+            if (offset >= 0 && offset <= this.reader.size()) {
+                this.writer.truncate(XxlJobLogLineIndex.HEADER_BYTES + entries * XxlJobLogLineIndex.ENTRY_BYTES);
+                this.resume(offset, (entries - 1) * this.interval);
+                return;
+            }
+        }
+        this.reset();
+    }
+
+    /**
+     * 日志文件内容被改写时重建索引，下次写出时从头计数
+     */
+    void reset() throws IOException {
+        this.writer.truncate(0);
+        final ByteBuffer buffer = ByteBuffer.allocate(XxlJobLogLineIndex.HEADER_BYTES + XxlJobLogLineIndex.ENTRY_BYTES);
+        buffer.putInt(XxlJobLogLineIndex.MAGIC).putInt(this.interval).putLong(0).flip();
+        writeFully(this.writer, buffer, 0);
+
+        this.resume(0, 0);
+        this.disabled = false;
+    }
+
+    private void resume(long offset, long lines) {
+        this.countedOffset = offset;
+        this.countedLines = lines;
+        this.afterCarriageReturn = false;
+        this.lineStart = true;
+        this.entryPending = false;
+        this.entries.clear();
+        this.confirm();
+    }
+
+    /**
+     * 记录当前计数状态为已确认
+     */
+    private void confirm() {
+        this.verifiedOffset = this.countedOffset;
+        this.verifiedLines = this.countedLines;
+        this.verifiedAfterCarriageReturn = this.afterCarriageReturn;
+        this.verifiedLineStart = this.lineStart;
+        this.verifiedEntryPending = this.entryPending;
+    }
+
+    /**
+     * 读取实际文件大小，与已计数的位置不一致时说明上次确认之后有其他写入，丢弃未写出的条目，从上次确认的状态重新读取文件计数
+     *
+     * @return 实际文件大小
+     */
+    private long verify() throws IOException {
+        final long size = this.reader.size();
+        if (size != this.countedOffset) {
+            this.countedOffset = this.verifiedOffset;
+            this.countedLines = this.verifiedLines;
+            this.afterCarriageReturn = this.verifiedAfterCarriageReturn;
+            this.lineStart = this.verifiedLineStart;
+            this.entryPending = this.verifiedEntryPending;
+            this.entries.clear();
+            if (size < this.countedOffset) {
+                this.reset();
+            }
+            this.scan(size);
+        }
+        this.confirm();
+        return size;
+    }
+
+    /**
+     * 记录写出的内容
+     *
+     * @param buffer   已写出的内容
+     * @param from     起始位置
+     * @param to       结束位置
+     * @param fileSize 句柄累加的写出后文件大小
+     * @return 文件大小，写出条目前读取了实际大小时返回实际大小
+     */
+    long written(ByteBuffer buffer, int from, int to, long fileSize) throws IOException {
+        if (this.disabled) {
+            return fileSize;
+        }
+
+        final long start = fileSize - (to - from);
+        if (start == this.countedOffset) {
+            this.count(buffer, from, to);
+        } else {
+            if (start < this.countedOffset) {
+                // 文件被截断或改写
+                this.reset();
+            }
+            this.scan(fileSize);
+        }
+
+        if (this.disabled || this.entries.position() == 0) {
+            return fileSize;
+        }
+        fileSize = this.verify();
+        this.flush();
+        return fileSize;
+    }
+
+    /**
+     * 从{@link #countedOffset}读取文件并计数，最多到{@code limit}
+     */
+    private void scan(long limit) throws IOException {
+        if (null == this.scanBuffer) {
+            this.scanBuffer = ByteBuffer.allocate(SCAN_BYTES);
+        }
+
+        final ByteBuffer buffer = this.scanBuffer;
+        while (!this.disabled && this.countedOffset < limit) {
+            buffer.clear().limit((int) Math.min(SCAN_BYTES, limit - this.countedOffset));
+            final int read = this.reader.read(buffer, this.countedOffset);
+            if (read <= 0) {
+                break;
+            }
+            this.count(buffer, 0, read);
+        }
+    }
+
+    /**
+     * 计数{@link #countedOffset}开始的内容，每K行记录一个条目
+     */
+    private void count(ByteBuffer buffer, int from, int to) throws IOException {
+        final long base = this.countedOffset - from;
+        for (int i = from; i < to; i++) {
+            final byte b = buffer.get(i);
+            if (this.entryPending) {
+                // 上一行以\r结束，\r\n之后才是下一行
+                this.entryPending = false;
+                this.entry(b == '\n' ? base + i + 1 : base + i);
+            }
+
+            if (b == '\n') {
+                if (!this.afterCarriageReturn) {
+                    this.countedLines++;
+                    if (this.countedLines % this.interval == 0) {
+                        this.entry(base + i + 1);
+                    }
+                }
+                this.afterCarriageReturn = false;
+                this.lineStart = true;
+            } else if (b == '\r') {
+                this.countedLines++;
+                this.entryPending = this.countedLines % this.interval == 0;
+                this.afterCarriageReturn = true;
+                this.lineStart = true;
+            } else {
+                if (this.lineStart && b == XxlJobBinaryLogEncoder.MARKER) {
+                    this.disable();
+                    return;
+                }
+                this.afterCarriageReturn = false;
+                this.lineStart = false;
+            }
+        }
+        this.countedOffset = base + to;
+    }
+
+    private void entry(long offset) {
+        if (!this.entries.hasRemaining()) {
+            // 确认文件大小之前不能写出，单次写出的行数很多时扩容
+            final ByteBuffer grown = ByteBuffer.allocate(this.entries.capacity() << 1);
+            this.entries.flip();
+            this.entries = grown.put(this.entries);
+        }
+        this.entries.putLong(offset);
+    }
+
+    private void flush() throws IOException {
+        if (this.entries.position() == 0) {
+            return;
+        }
+
+        this.entries.flip();
+        writeFully(this.writer, this.entries, this.writer.size());
+        this.entries.clear();
+    }
+
+    /**
+     * 清空索引，读取时从头读取
+     */
+    private void disable() throws IOException {
+        this.disabled = true;
+        this.entries.clear();
+        this.writer.truncate(0);
+    }
+
+    /**
+     * 计数剩余内容后关闭，未确定偏移的条目在下次打开时重新计数
+     */
+    void close() {
+        if (null != this.reader && null != this.writer && !this.disabled) {
+            try {
+                this.verify();
+                if (!this.disabled) {
+                    this.flush();
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // ignore
+            }
+        }
+        closeQuietly(this.reader);
+        closeQuietly(this.writer);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (null == channel) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.xxljob.client.plugin.logger.appender;
+
+/**
+ * <p>{@link XxlJobAsyncLogAppender}队列已满时的处理策略</p>
+ * <p>创建于 2026-10-18 10:26 10:26 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 阻塞任务线程，直到队列有空闲位置
+     */
+    BLOCK,
+
+    /**
+     * 队列剩余容量不足时优先丢弃{@code TRACE}和{@code DEBUG}日志，其余级别阻塞等待
+     */
+    DROP_DEBUG,
+
+    /**
+     * 直接丢弃
+     */
+    DISCARD
+}
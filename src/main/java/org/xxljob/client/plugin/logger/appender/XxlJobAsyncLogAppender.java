@@ -0,0 +1,454 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.encoder.LineEncoder;
+import org.xxljob.client.plugin.logger.metrics.XxlJobLoggerMetrics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>异步写出实现，任务线程只将渲染好的日志行放入有界无锁环形队列，由独立的写出线程按日志文件批量写出到{@link #delegate}</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>队列满时的处理方式由{@link OverflowPolicy}决定</li>
+ *         <li>日志行复制到队列槽位复用的字节数组中，入队不产生额外对象</li>
+ *         <li>{@link #complete(String)}会等待调用前入队的日志全部写出，保证任务结束时日志完整</li>
+ *         <li>JVM退出时会写出队列中剩余的日志，{@link #close()}后移除退出时的钩子，被替换的实例不会一直被引用</li>
+ *         <li>关闭期间入队而写出线程已退出的日志由入队线程写出，不会丢失；{@link #close()}返回后{@link #delegate}已关闭，
+ *         之后的日志直接丢弃并计入{@link #getDroppedCount()}，不会逐行重新打开已关闭的文件</li>
+ *     </ul>
+ * </p>
+ * <p>创建于 2026-10-18 10:48 10:48 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class XxlJobAsyncLogAppender implements XxlJobLogAppender {
+
+    /**
+     * 默认队列容量
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * 默认每批最大写出行数
+     */
+    public static final int DEFAULT_BATCH_SIZE = 512;
+
+    /**
+     * 写出线程空闲时的最长休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 生产者等待队列空闲位置时的休眠时间
+     */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * {@link OverflowPolicy#DROP_DEBUG}策略下，剩余容量低于该比例时开始丢弃低级别日志
+     */
+    private static final int DROP_DEBUG_THRESHOLD_DIVISOR = 5;
+
+    /**
+     * 批量写出缓冲区初始大小
+     */
+    private static final int INITIAL_BATCH_BYTES = 64 * 1024;
+
+    /**
+     * 批量写出缓冲区允许保留的最大大小
+     */
+    private static final int MAX_RETAINED_BATCH_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * 实际写出日志的组件
+     */
+    private final XxlJobLogAppender delegate;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final LogEventRingBuffer ringBuffer;
+
+    private final int batchSize;
+
+    private final Thread worker;
+
+    /**
+     * JVM退出时写出剩余日志
+     */
+    private final Thread shutdownHook;
+
+    /**
+     * 已写出的消费位置，用于{@link #complete(String)}等待
+     */
+    private volatile long writtenSequence;
+
+    /**
+     * 写出线程是否处于休眠状态，仅在休眠时才需要唤醒
+     */
+    private volatile boolean waiting;
+
+    private volatile boolean running = true;
+
+    /**
+     * {@link #delegate}是否已关闭，在{@link #ringBuffer}锁内修改
+     */
+    private volatile boolean delegateClosed;
+
+    /**
+     * 被丢弃的日志行数
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * 等待日志写出的最长时间，单位毫秒
+     */
+    private volatile long completeTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+
+    public XxlJobAsyncLogAppender() {
+        this(new XxlJobCachedFileLogAppender());
+    }
+
+    public XxlJobAsyncLogAppender(XxlJobLogAppender delegate) {
+        this(delegate, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    public XxlJobAsyncLogAppender(XxlJobLogAppender delegate, int capacity, OverflowPolicy overflowPolicy) {
+        this(delegate, capacity, DEFAULT_BATCH_SIZE, overflowPolicy);
+    }
+
+    public XxlJobAsyncLogAppender(XxlJobLogAppender delegate, int capacity, int batchSize, OverflowPolicy overflowPolicy) {
+        if (null == delegate) {
+            throw new IllegalArgumentException("delegate appender must not be null");
+        }
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("capacity and batchSize must be positive");
+        }
+
+        this.delegate = delegate;
+        this.overflowPolicy = null == overflowPolicy ? OverflowPolicy.BLOCK : overflowPolicy;
+        this.ringBuffer = new LogEventRingBuffer(capacity);
+        this.batchSize = Math.min(batchSize, this.ringBuffer.capacity());
+
+        this.worker = new Thread(this::drainLoop, "xxl-job-logger-async");
+        this.worker.setDaemon(true);
+        this.worker.start();
+
+        this.shutdownHook = new Thread(this::close, "xxl-job-logger-async-shutdown");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * 设置{@link #complete(String)}等待日志写出的最长时间
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     */
+    public void setCompleteTimeout(long timeout, TimeUnit unit) {
+        this.completeTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * 获取被丢弃的日志行数
+     *
+     * @return long
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    @Override
+    public void append(String logFileName, Level level, String line) {
+        this.append(logFileName, level, ByteBuffer.wrap(((null == line ? "" : line) + LineEncoder.LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 入队，调用方会复用缓冲区，入队时复制到槽位中；队列已满时按{@link #overflowPolicy}处理
+     */
+    @Override
+    public void append(String logFileName, Level level, ByteBuffer lines) {
+        if (!this.running) {
+            this.appendAfterClose(logFileName, level, lines);
+            return;
+        }
+
+        if (this.overflowPolicy == OverflowPolicy.DROP_DEBUG && this.isDroppable(level)
+                && this.ringBuffer.capacity() - this.ringBuffer.size() <= this.ringBuffer.capacity() / DROP_DEBUG_THRESHOLD_DIVISOR) {
+            this.drop(1);
+            return;
+        }
+
+        while (!this.ringBuffer.offer(logFileName, lines)) {
+            if (!this.running) {
+                this.appendAfterClose(logFileName, level, lines);
+                return;
+            }
+            if (this.overflowPolicy == OverflowPolicy.DISCARD) {
+                this.drop(1);
+                return;
+            }
+
+            // 队列已满，唤醒写出线程后等待
+            LockSupport.unpark(this.worker);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+
+        if (!this.running) {
+            // 入队时正在关闭，写出线程可能已经退出
+            this.drainAfterClose();
+        } else if (this.waiting) {
+            LockSupport.unpark(this.worker);
+        }
+    }
+
+    @Override
+    public void setBinaryRecords(boolean binaryRecords) {
+        this.delegate.setBinaryRecords(binaryRecords);
+    }
+
+    @Override
+    public void complete(String logFileName) {
+        if (Thread.currentThread() == this.worker) {
+            this.delegate.complete(logFileName);
+            return;
+        }
+
+        final long target = this.ringBuffer.producedSequence();
+        final long deadline = System.currentTimeMillis() + this.completeTimeoutMillis;
+        while (this.writtenSequence < target && this.worker.isAlive()) {
+            if (System.currentTimeMillis() > deadline) {
+                break;
+            }
+            LockSupport.unpark(this.worker);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+
+        this.delegate.complete(logFileName);
+    }
+
+    @Override
+    public void close() {
+        if (!this.running) {
+            return;
+        }
+
+        this.running = false;
+        if (Thread.currentThread() != this.shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // JVM正在退出
+            }
+        }
+
+        LockSupport.unpark(this.worker);
+        this.drainAfterClose();
+        // 之后入队的日志由入队线程在锁内丢弃，不会写入已关闭的delegate
+        synchronized (this.ringBuffer) {
+            this.delegateClosed = true;
+        }
+        this.delegate.close();
+    }
+
+    /**
+     * 关闭后同步写出：先写出队列中剩余的日志，保持顺序；{@link #delegate}已关闭时丢弃
+     */
+    private void appendAfterClose(String logFileName, Level level, ByteBuffer lines) {
+        this.drainAfterClose();
+        synchronized (this.ringBuffer) {
+            if (this.delegateClosed) {
+                this.drop(1);
+                return;
+            }
+            this.delegate.append(logFileName, level, lines);
+        }
+    }
+
+    /**
+     * 等待写出线程退出，之后由调用线程写出队列中剩余的日志，{@link #delegate}已关闭时丢弃
+     */
+    private void drainAfterClose() {
+        try {
+            this.worker.join(this.completeTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.worker.isAlive() || this.ringBuffer.size() == 0) {
+            return;
+        }
+
+        // 写出线程已退出，多个调用线程之间互斥，保证只有一个消费者
+        synchronized (this.ringBuffer) {
+            final Batches batches = new Batches(this.batchSize);
+            while (this.drainOnce(batches) > 0) {
+                // 直到队列为空
+            }
+        }
+    }
+
+    /**
+     * 写出线程主循环
+     */
+    private void drainLoop() {
+        final Batches batches = new Batches(this.batchSize);
+        for (; ; ) {
+            if (this.drainOnce(batches) > 0) {
+                continue;
+            }
+
+            if (!this.running) {
+                // 关闭前再次确认队列为空
+                if (this.ringBuffer.size() == 0) {
+                    return;
+                }
+                continue;
+            }
+
+            this.waiting = true;
+            if (this.ringBuffer.size() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            this.waiting = false;
+        }
+    }
+
+    /**
+     * 出队一批日志，按日志文件复制到各自的写出缓冲区后释放槽位，再合并为一次写出，同一文件内保持入队顺序
+     *
+     * @return 出队数量
+     */
+    private int drainOnce(Batches batches) {
+        final int count = this.ringBuffer.drainTo(batches.logFileNames, batches.lines, batches.lengths);
+        if (count == 0) {
+            return 0;
+        }
+
+        for (int i = 0; i < count; i++) {
+            batches.batch(batches.logFileNames[i], batches.lengths[i]).put(batches.lines[i], 0, batches.lengths[i]);
+            batches.logFileNames[i] = null;
+            batches.lines[i] = null;
+        }
+        this.ringBuffer.release(count);
+        final long consumed = this.ringBuffer.consumedSequence();
+
+        final Iterator<Map.Entry<String, Batch>> iterator = batches.batches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Batch> entry = iterator.next();
+            final Batch batch = entry.getValue();
+            if (batch.lines == 0) {
+                // 本轮没有写出的文件不再保留缓冲区
+                iterator.remove();
+                continue;
+            }
+
+            if (this.delegateClosed) {
+                this.drop(batch.lines);
+                batch.clear();
+                continue;
+            }
+
+            batch.buffer.flip();
+            try {
+                this.delegate.append(entry.getKey(), null, batch.buffer);
+            } catch (Throwable e) {
+                this.drop(batch.lines);
+            }
+            batch.clear();
+        }
+
+        this.writtenSequence = consumed;
+        return count;
+    }
+
+    /**
+     * 记录丢弃的日志行数，同时计入{@link XxlJobLoggerMetrics}
+     */
+    private void drop(int count) {
+        this.droppedCount.addAndGet(count);
+        XxlJobLoggerMetrics.getInstance().recordDropped(count);
+    }
+
+    /**
+     * 是否允许优先丢弃
+     */
+    private boolean isDroppable(Level level) {
+        return level == Level.TRACE || level == Level.DEBUG;
+    }
+
+    /**
+     * 消费线程的出队数组和按日志文件分组的写出缓冲区，仅消费线程访问
+     */
+    private static final class Batches {
+
+        private final String[] logFileNames;
+
+        private final byte[][] lines;
+
+        private final int[] lengths;
+
+        private final Map<String, Batch> batches = new LinkedHashMap<>();
+
+        private Batches(int batchSize) {
+            this.logFileNames = new String[batchSize];
+            this.lines = new byte[batchSize][];
+            this.lengths = new int[batchSize];
+        }
+
+        /**
+         * 获取日志文件的写出缓冲区，剩余空间不足{@code length}时扩容
+         */
+        private ByteBuffer batch(String logFileName, int length) {
+            Batch batch = this.batches.get(logFileName);
+            if (null == batch) {
+                batch = new Batch(Math.max(INITIAL_BATCH_BYTES, length));
+                this.batches.put(logFileName, batch);
+            } else if (batch.buffer.remaining() < length) {
+                final ByteBuffer grown = ByteBuffer.allocate(Math.max(batch.buffer.capacity() << 1, batch.buffer.position() + length));
+                batch.buffer.flip();
+                grown.put(batch.buffer);
+                batch.buffer = grown;
+            }
+            batch.lines++;
+            return batch.buffer;
+        }
+    }
+
+    /**
+     * 单个日志文件的写出缓冲区
+     */
+    private static final class Batch {
+
+        private ByteBuffer buffer;
+
+        /**
+         * 缓冲区中的行数
+         */
+        private int lines;
+
+        private Batch(int capacity) {
+            this.buffer = ByteBuffer.allocate(capacity);
+        }
+
+        /**
+         * 写出后清空，超大批次扩容的缓冲区缩回初始大小
+         */
+        private void clear() {
+            this.lines = 0;
+            if (this.buffer.capacity() > MAX_RETAINED_BATCH_BYTES) {
+                this.buffer = ByteBuffer.allocate(INITIAL_BATCH_BYTES);
+            } else {
+                this.buffer.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,850 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import com.xxl.job.core.log.XxlJobFileAppender;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.encoder.LineEncoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>缓存日志文件句柄的写出实现，每个活跃的任务日志文件保持一个{@link FileChannel}，避免每行日志都打开、追加、关闭文件</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>同时打开的文件数不超过{@link #maxOpenFiles}，超出时按LRU关闭最久未使用的文件</li>
+ *         <li>空闲超过{@link #idleTimeoutMillis}的文件会被后台线程关闭</li>
+ *         <li>{@link #complete(String)}时立即关闭该任务的日志文件</li>
+ *         <li>每行日志在文件锁内一次写出，多线程写同一文件时保证行完整</li>
+ *         <li>设置{@link #maxHeadBytes}后限制单个文件大小：保留开头的{@link #maxHeadBytes}字节和最近的{@link #maxTailBytes}字节，
+ *         中间以一行标记说明省略的字节数，文件最大约为{@code maxHeadBytes + 2 * maxTailBytes}</li>
+ *         <li>设置{@link #setIndexInterval(int)}后，每K行在{@link XxlJobLogLineIndex}中记录一次行偏移，读取日志时直接定位</li>
+ *         <li>通过{@link #setDurability(XxlJobLogDurability, long)}设置日志何时落盘，默认由操作系统决定</li>
+ *     </ul>
+ * </p>
+ * <p>创建于 2026-10-18 11:35 11:35 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class XxlJobCachedFileLogAppender implements XxlJobLogAppender {
+
+    /**
+     * 默认最大同时打开的文件数
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+
+    /**
+     * 默认空闲关闭时间，单位毫秒
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * 行分隔符，与{@link XxlJobFileAppender#appendLog(String, String)}保持一致
+     */
+    private static final byte[] LINE_SEPARATOR = LineEncoder.LINE_SEPARATOR.getBytes(StandardCharsets.UTF_8);
+
+    private final int maxOpenFiles;
+
+    private final long idleTimeoutMillis;
+
+    /**
+     * 单个文件保留的开头字节数，0为不限制文件大小
+     */
+    private final long maxHeadBytes;
+
+    /**
+     * 超出{@link #maxHeadBytes}后保留的最近字节数
+     */
+    private final long maxTailBytes;
+
+    /**
+     * 行偏移索引间隔，0为不写索引
+     */
+    private volatile int indexInterval;
+
+    /**
+     * 是否写出二进制日志记录，行偏移索引和文件大小限制按文本行处理，不能同时开启
+     */
+    private volatile boolean binaryRecords;
+
+    /**
+     * 持久化策略
+     */
+    private volatile XxlJobLogDurability durability = XxlJobLogDurability.NONE;
+
+    /**
+     * 组提交线程，仅{@link XxlJobLogDurability#GROUP_COMMIT}时存在
+     */
+    private volatile LogFileSyncer syncer;
+
+    /**
+     * 按访问顺序排列的文件句柄，所有访问都需要持有该对象的锁
+     */
+    private final LinkedHashMap<String, LogFileHandle> handles = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 空闲句柄清理线程，首次打开文件时启动
+     */
+    private volatile ScheduledExecutorService evictor;
+
+    private volatile boolean closed;
+
+    public XxlJobCachedFileLogAppender() {
+        this(DEFAULT_MAX_OPEN_FILES, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    public XxlJobCachedFileLogAppender(int maxOpenFiles, long idleTimeoutMillis) {
+        this(maxOpenFiles, idleTimeoutMillis, 0, 0);
+    }
+
+    /**
+     * @param maxOpenFiles      最大同时打开的文件数
+     * @param idleTimeoutMillis 空闲关闭时间，单位毫秒
+     * @param maxHeadBytes      单个文件保留开头的字节数，0为不限制文件大小
+     * @param maxTailBytes      单个文件超出限制后保留最近的字节数
+     */
+    public XxlJobCachedFileLogAppender(int maxOpenFiles, long idleTimeoutMillis, long maxHeadBytes, long maxTailBytes) {
+        if (maxOpenFiles <= 0 || idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("maxOpenFiles and idleTimeoutMillis must be positive");
+        }
+        if (maxHeadBytes < 0 || maxTailBytes < 0 || (maxHeadBytes > 0 && maxTailBytes == 0)) {
+            throw new IllegalArgumentException("maxHeadBytes must not be negative and maxTailBytes must be positive when capped");
+        }
+
+        this.maxOpenFiles = maxOpenFiles;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxHeadBytes = maxHeadBytes;
+        this.maxTailBytes = maxTailBytes;
+    }
+
+    /**
+     * 设置行偏移索引间隔，对之后打开的文件生效
+     *
+     * @param indexInterval 每隔多少行记录一次偏移，0为不写索引
+     * @throws IllegalStateException 已开启二进制日志记录
+     */
+    public synchronized void setIndexInterval(int indexInterval) {
+        if (indexInterval < 0) {
+            throw new IllegalArgumentException("indexInterval must not be negative");
+        }
+        if (indexInterval > 0 && this.binaryRecords) {
+            throw new IllegalStateException("line index does not support binary records");
+        }
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * 行偏移索引和文件大小限制按文本行处理，开启任一项时不支持二进制记录
+     */
+    @Override
+    public synchronized void setBinaryRecords(boolean binaryRecords) {
+        if (binaryRecords && this.indexInterval > 0) {
+            throw new IllegalStateException("line index does not support binary records");
+        }
+        if (binaryRecords && this.maxHeadBytes > 0) {
+            throw new IllegalStateException("size capped files do not support binary records");
+        }
+        this.binaryRecords = binaryRecords;
+    }
+
+    /**
+     * 设置持久化策略，组提交间隔为{@link XxlJobLogDurability#DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS}
+     *
+     * @param durability 持久化策略
+     */
+    public void setDurability(XxlJobLogDurability durability) {
+        this.setDurability(durability, XxlJobLogDurability.DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * 设置持久化策略，关闭时是否落盘对之后打开的文件生效
+     *
+     * @param durability                持久化策略
+     * @param groupCommitIntervalMillis 组提交间隔，单位毫秒
+     */
+    public void setDurability(XxlJobLogDurability durability, long groupCommitIntervalMillis) {
+        if (null == durability || groupCommitIntervalMillis <= 0) {
+            throw new IllegalArgumentException("durability must not be null and groupCommitIntervalMillis must be positive");
+        }
+
+        final LogFileSyncer previous;
+        synchronized (this) {
+            previous = this.syncer;
+            this.syncer = durability == XxlJobLogDurability.GROUP_COMMIT && !this.closed ? new LogFileSyncer(groupCommitIntervalMillis) : null;
+            this.durability = durability;
+        }
+
+        if (null != previous) {
+            previous.close();
+        }
+    }
+
+    @Override
+    public void append(String logFileName, Level level, String line) {
+        final byte[] bytes = (null == line ? "" : line).getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocate(bytes.length + LINE_SEPARATOR.length);
+        buffer.put(bytes).put(LINE_SEPARATOR).flip();
+        this.write(logFileName, buffer);
+    }
+
+    @Override
+    public void append(String logFileName, Level level, ByteBuffer lines) {
+        this.write(logFileName, lines);
+    }
+
+    @Override
+    public void complete(String logFileName) {
+        final LogFileHandle handle;
+        synchronized (this.handles) {
+            handle = this.handles.remove(logFileName);
+        }
+
+        if (null != handle) {
+            handle.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        final List<LogFileHandle> opened;
+        synchronized (this.handles) {
+            opened = new ArrayList<>(this.handles.values());
+            this.handles.clear();
+        }
+
+        for (LogFileHandle handle : opened) {
+            handle.close();
+        }
+
+        final ScheduledExecutorService evictor = this.evictor;
+        if (null != evictor) {
+            evictor.shutdownNow();
+        }
+
+        final LogFileSyncer syncer;
+        synchronized (this) {
+            syncer = this.syncer;
+            this.syncer = null;
+        }
+        if (null != syncer) {
+            syncer.close();
+        }
+    }
+
+    /**
+     * 当前打开的文件数
+     *
+     * @return int
+     */
+    public int getOpenFiles() {
+        synchronized (this.handles) {
+            return this.handles.size();
+        }
+    }
+
+    /**
+     * 写出完整的若干行，写出失败时关闭句柄并退化为按原始字节追加写出
+     */
+    private void write(String logFileName, ByteBuffer buffer) {
+        if (null == logFileName || logFileName.trim().isEmpty()) {
+            return;
+        }
+
+        // 句柄可能在获取后被并发关闭，重试一次
+        for (int attempt = 0; attempt < 2; attempt++) {
+            final LogFileHandle handle = this.acquire(logFileName);
+            if (null == handle) {
+                break;
+            }
+
+            final int position = buffer.position();
+            try {
+                if (handle.write(buffer)) {
+                    handle.dirty(this.syncer);
+                    return;
+                }
+            } catch (IOException e) {
+                this.complete(logFileName);
+                buffer.position(position);
+                break;
+            }
+            buffer.position(position);
+        }
+
+        // 内容可能是二进制记录，按原始字节追加
+        XxlJobFileLogAppender.appendBytes(logFileName, buffer);
+    }
+
+    /**
+     * 获取或打开日志文件句柄
+     *
+     * @return {@link LogFileHandle}, 打开失败返回null
+     */
+    private LogFileHandle acquire(String logFileName) {
+        if (this.closed) {
+            return null;
+        }
+
+        List<LogFileHandle> evicted = null;
+        LogFileHandle handle;
+        boolean created = false;
+        synchronized (this.handles) {
+            handle = this.handles.get(logFileName);
+            if (null == handle) {
+                // 先放入未打开的句柄，在锁外打开文件，打开期间其他文件的获取不等待
+                handle = new LogFileHandle(logFileName);
+                this.handles.put(logFileName, handle);
+                evicted = this.evictEldest();
+                created = true;
+            }
+        }
+
+        if (null != evicted) {
+            evicted.forEach(LogFileHandle::close);
+        }
+
+        if (created) {
+            if (!handle.open(this.maxHeadBytes, this.maxTailBytes, this.indexInterval, this.durability != XxlJobLogDurability.NONE)) {
+                synchronized (this.handles) {
+                    this.handles.remove(logFileName, handle);
+                }
+                return null;
+            }
+        } else if (!handle.awaitOpened()) {
+            return null;
+        }
+
+        this.startEvictor();
+        handle.lastAccess = System.currentTimeMillis();
+        return handle;
+    }
+
+    /**
+     * 超出最大打开数时移除最久未使用的句柄，需持有{@link #handles}锁调用，返回的句柄在锁外关闭
+     */
+    private List<LogFileHandle> evictEldest() {
+        List<LogFileHandle> evicted = null;
+        final Iterator<LogFileHandle> iterator = this.handles.values().iterator();
+        while (this.handles.size() > this.maxOpenFiles && iterator.hasNext()) {
+            if (null == evicted) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(iterator.next());
+            iterator.remove();
+        }
+        return evicted;
+    }
+
+    /**
+     * 关闭空闲超时的句柄
+     */
+    private void evictIdle() {
+        final long expireBefore = System.currentTimeMillis() - this.idleTimeoutMillis;
+        final List<LogFileHandle> evicted = new ArrayList<>();
+        synchronized (this.handles) {
+            final Iterator<Map.Entry<String, LogFileHandle>> iterator = this.handles.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final LogFileHandle handle = iterator.next().getValue();
+                if (handle.lastAccess < expireBefore) {
+                    evicted.add(handle);
+                    iterator.remove();
+                }
+            }
+        }
+
+        evicted.forEach(LogFileHandle::close);
+    }
+
+    private void startEvictor() {
+        if (null != this.evictor) {
+            return;
+        }
+
+        synchronized (this) {
+            if (null != this.evictor || this.closed) {
+                return;
+            }
+
+            final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "xxl-job-logger-file-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long period = Math.max(1, this.idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+            this.evictor = evictor;
+        }
+    }
+
+    /**
+     * 单个日志文件的句柄，写出和关闭互斥
+     */
+    private static final class LogFileHandle implements LogFileSyncer.Syncable {
+
+        /**
+         * 省略标记行，数字部分定宽，省略的字节数增加时原位改写
+         */
+        private static final String MARKER_PREFIX = "------ elided ";
+
+        private static final String MARKER_SUFFIX = " bytes ------";
+
+        private static final int MARKER_DIGITS = 20;
+
+        private static final int MARKER_LENGTH = MARKER_PREFIX.length() + MARKER_DIGITS + MARKER_SUFFIX.length() + LINE_SEPARATOR.length;
+
+        /**
+         * 查找行边界、恢复标记行时最多读取的字节数
+         */
+        private static final int SCAN_BYTES = 64 * 1024;
+
+        private final String logFileName;
+
+        /**
+         * 打开完成后释放，获取到未打开句柄的线程在此等待
+         */
+        private final CountDownLatch opened = new CountDownLatch(1);
+
+        /**
+         * 打开失败
+         */
+        private boolean failed;
+
+        private Path path;
+
+        private FileChannel channel;
+
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private boolean closed;
+
+        /**
+         * 关闭前是否落盘
+         */
+        private boolean syncOnClose;
+
+        /**
+         * 是否已登记到组提交线程
+         */
+        private volatile boolean dirty;
+
+        private long maxHeadBytes;
+
+        private long maxTailBytes;
+
+        /**
+         * 文件大小，打开时读取，之后按写出的字节数累加，仅在写入标记、压缩和行偏移索引写出条目时重新读取
+         */
+        private long size;
+
+        /**
+         * 标记行的位置，未超出限制时为-1
+         */
+        private long markerPosition = -1;
+
+        /**
+         * 已省略的字节数
+         */
+        private long elided;
+
+        /**
+         * 行偏移索引，写出失败后不再使用
+         */
+        private LogLineIndexWriter index;
+
+        private LogFileHandle(String logFileName) {
+            this.logFileName = logFileName;
+        }
+
+        /**
+         * 打开文件，由放入句柄的线程在{@link #handles}锁外调用，打开前已被关闭时不再打开
+         *
+         * @return 打开失败返回false
+         */
+        private synchronized boolean open(long maxHeadBytes, long maxTailBytes, int indexInterval, boolean syncOnClose) {
+            try {
+                if (this.closed) {
+                    return true;
+                }
+
+                this.path = Paths.get(this.logFileName);
+                this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                this.size = this.channel.size();
+                this.syncOnClose = syncOnClose;
+                if (maxHeadBytes > 0) {
+                    this.cap(maxHeadBytes, maxTailBytes);
+                }
+                if (indexInterval > 0) {
+                    this.index(indexInterval);
+                }
+                return true;
+            } catch (IOException | RuntimeException e) {
+                this.failed = true;
+                this.close();
+                return false;
+            } finally {
+                this.opened.countDown();
+            }
+        }
+
+        /**
+         * 等待其他线程打开完成
+         *
+         * @return 打开失败返回false
+         */
+        private boolean awaitOpened() {
+            boolean interrupted = false;
+            for (; ; ) {
+                try {
+                    this.opened.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return !this.failed;
+        }
+
+        /**
+         * 启用文件大小限制，恢复已有的标记行，压缩后的文件可能小于{@link #maxHeadBytes}，非空文件都需要查找；
+         * 未找到且文件已超出限制时在末尾写入新的标记行
+         */
+        private void cap(long maxHeadBytes, long maxTailBytes) throws IOException {
+            this.maxHeadBytes = maxHeadBytes;
+            this.maxTailBytes = maxTailBytes;
+            if (this.size > 0 && !this.recoverMarker() && this.size > maxHeadBytes) {
+                this.writeMarker();
+            }
+        }
+
+        /**
+         * 启用行偏移索引，打开失败时不写索引
+         */
+        private void index(int interval) {
+            final LogLineIndexWriter index = new LogLineIndexWriter(this.path, interval);
+            try {
+                index.open();
+                this.index = index;
+            } catch (IOException | RuntimeException e) {
+                index.close();
+            }
+        }
+
+        /**
+         * 写出全部内容
+         *
+         * @return 句柄已关闭返回false
+         */
+        private synchronized boolean write(ByteBuffer buffer) throws IOException {
+            if (this.closed) {
+                return false;
+            }
+
+            final int from = buffer.position();
+            this.writeCapped(buffer);
+            this.indexWritten(buffer, from);
+            return true;
+        }
+
+        /**
+         * 记录写出的内容到行偏移索引，xxl-job直接追加的内容不计入累加的文件大小，索引写出条目前读取实际大小后同步
+         */
+        private void indexWritten(ByteBuffer buffer, int from) {
+            if (null == this.index) {
+                return;
+            }
+
+            try {
+                this.size = this.index.written(buffer, from, buffer.position(), this.size);
+            } catch (IOException | RuntimeException e) {
+                this.index.close();
+                this.index = null;
+            }
+        }
+
+        /**
+         * 按文件大小限制写出
+         */
+        private void writeCapped(ByteBuffer buffer) throws IOException {
+            if (this.maxHeadBytes <= 0) {
+                this.writeFully(buffer);
+                return;
+            }
+
+            if (this.markerPosition < 0) {
+                // 写出能放入开头部分的完整行，剩余部分写在标记行之后
+                final long available = this.maxHeadBytes - this.size;
+                if (available >= buffer.remaining()) {
+                    this.writeFully(buffer);
+                    return;
+                }
+
+                final int headLimit = lineBoundary(buffer, available);
+                if (headLimit > 0) {
+                    final int limit = buffer.limit();
+                    buffer.limit(buffer.position() + headLimit);
+                    this.writeFully(buffer);
+                    buffer.limit(limit);
+                }
+                this.writeMarker();
+            }
+
+            this.writeFully(buffer);
+            if (this.size - this.tailStart() > 2 * this.maxTailBytes) {
+                this.compact();
+            }
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                this.size += this.channel.write(buffer);
+            }
+        }
+
+        private long tailStart() {
+            return this.markerPosition + MARKER_LENGTH;
+        }
+
+        /**
+         * 从{@code from}开始查找下一行的起始位置
+         *
+         * @return 换行符之后的位置，{@code end}之前没有换行符时返回-1
+         */
+        private static long nextLineStart(FileChannel channel, ByteBuffer buffer, long from, long end) throws IOException {
+            long position = from;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                final int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        return position + i + 1;
+                    }
+                }
+                position += read;
+            }
+            return -1;
+        }
+
+        /**
+         * 在文件末尾写入标记行
+         */
+        private void writeMarker() throws IOException {
+            this.size = this.channel.size();
+            this.markerPosition = this.size;
+            this.writeFully(ByteBuffer.wrap(marker(0)));
+        }
+
+        /**
+         * 只保留最近的{@link #maxTailBytes}字节：从行边界开始移动到标记行之后，截断文件并改写标记行
+         * <p>持有排他的{@link FileLock}后重新读取文件大小，复制到大小不再变化为止再截断，复制期间其他写入者追加的内容一并移动。
+         * {@link FileLock}是建议锁，xxl-job的{@code appendLog}不获取该锁，最后一次读取大小与截断之间追加的内容仍会丢失，
+         * 该窗口只有一次系统调用</p>
+         */
+        private void compact() throws IOException {
+            try (FileChannel rw = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = rw.lock()) {
+                long end = rw.size();
+                final long tailStart = this.tailStart();
+                long cut = end - this.maxTailBytes;
+
+                // 从完整的行开始保留，直到文件末尾都没有换行符时跳过本次压缩
+                final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+                cut = nextLineStart(rw, buffer, cut, end);
+                if (cut < 0 || cut <= tailStart) {
+                    this.size = end;
+                    return;
+                }
+
+                long src = cut;
+                long dst = tailStart;
+                for (; ; ) {
+                    while (src < end) {
+                        buffer.clear();
+                        final int read = rw.read(buffer, src);
+                        if (read <= 0) {
+                            break;
+                        }
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            dst += rw.write(buffer, dst);
+                        }
+                        src += read;
+                    }
+
+                    // 复制期间又有追加时继续复制
+                    final long size = rw.size();
+                    if (size <= end) {
+                        break;
+                    }
+                    end = size;
+                }
+
+                // xxl-job追加时不持有文件锁，最后一次读取大小到截断之间追加的内容会被截断
+                rw.truncate(dst);
+                this.elided += cut - tailStart;
+                rw.write(ByteBuffer.wrap(marker(this.elided)), this.markerPosition);
+                this.size = dst;
+            } catch (OverlappingFileLockException e) {
+                // 同一进程的其他句柄正在压缩该文件，下次写出时再压缩
+                return;
+            }
+
+            // 标记行之后的偏移已改变，重建索引
+            if (null != this.index) {
+                this.index.reset();
+            }
+        }
+
+        /**
+         * 从已有文件中找到标记行
+         * <p>标记行写在开头部分之后，单行超出剩余空间时开头部分会提前结束，xxl-job追加的内容也可能使其超过{@link #maxHeadBytes}，
+         * 因此从{@link #maxHeadBytes}之后{@link #SCAN_BYTES}处向文件开头查找，找到的最后一个标记行即为写入的标记行</p>
+         *
+         * @return 未找到返回false
+         */
+        private boolean recoverMarker() throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES + MARKER_LENGTH);
+            // 追加模式的句柄不可读
+            try (FileChannel reader = FileChannel.open(this.path, StandardOpenOption.READ)) {
+                long end = Math.min(this.size, this.maxHeadBytes + SCAN_BYTES);
+                while (end > 0) {
+                    // 相邻两段重叠一个标记行的长度，跨段的标记行同样能找到
+                    final long from = Math.max(0, end - SCAN_BYTES);
+                    buffer.clear().limit((int) Math.min(buffer.capacity(), this.size - from));
+                    while (buffer.hasRemaining()) {
+                        if (reader.read(buffer, from + buffer.position()) < 0) {
+                            break;
+                        }
+                    }
+
+                    final String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.ISO_8859_1);
+                    for (int index = text.lastIndexOf(MARKER_PREFIX, (int) (end - from) - 1); index >= 0;
+                         index = text.lastIndexOf(MARKER_PREFIX, index - 1)) {
+                        final long elided = parseMarker(text, index);
+                        if (elided >= 0) {
+                            this.elided = elided;
+                            this.markerPosition = from + index;
+                            return true;
+                        }
+                    }
+                    end = from;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 解析{@code index}处的标记行
+         *
+         * @return 省略的字节数，不是完整的标记行时返回-1
+         */
+        private static long parseMarker(String text, int index) {
+            final int digits = index + MARKER_PREFIX.length();
+            if (index + MARKER_LENGTH > text.length() || !text.startsWith(MARKER_SUFFIX, digits + MARKER_DIGITS)) {
+                return -1;
+            }
+
+            try {
+                return Long.parseLong(text.substring(digits, digits + MARKER_DIGITS).trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        /**
+         * 写出后登记到组提交线程，已登记时跳过
+         */
+        private void dirty(LogFileSyncer syncer) {
+            if (null != syncer && !this.dirty) {
+                this.dirty = true;
+                syncer.dirty(this);
+            }
+        }
+
+        /**
+         * 不持有句柄锁落盘，不阻塞写出，并发关闭时忽略
+         */
+        @Override
+        public void sync() {
+            this.dirty = false;
+            try {
+                this.channel.force(false);
+            } catch (IOException ignored) {
+                // 已关闭或落盘失败，下次写出后重试
+            }
+        }
+
+        private synchronized void close() {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            if (null != this.index) {
+                this.index.close();
+                this.index = null;
+            }
+            if (null == this.channel) {
+                // 打开前被关闭
+                return;
+            }
+            if (this.syncOnClose) {
+                this.sync();
+            }
+            try {
+                this.channel.close();
+            } catch (IOException ignored) {
+                // ignore
+            }
+        }
+
+        /**
+         * 不超过{@code maxBytes}的完整行的字节数
+         */
+        private static int lineBoundary(ByteBuffer buffer, long maxBytes) {
+            final int start = buffer.position();
+            final int end = (int) Math.min(buffer.limit(), start + maxBytes);
+            for (int i = end - 1; i >= start; i--) {
+                if (buffer.get(i) == '\n') {
+                    return i + 1 - start;
+                }
+            }
+            return 0;
+        }
+
+        private static byte[] marker(long elided) {
+            final StringBuilder builder = new StringBuilder(MARKER_LENGTH).append(MARKER_PREFIX);
+            final String digits = Long.toString(elided);
+            for (int i = digits.length(); i < MARKER_DIGITS; i++) {
+                builder.append(' ');
+            }
+            return builder.append(digits).append(MARKER_SUFFIX).append(LineEncoder.LINE_SEPARATOR).toString().getBytes(StandardCharsets.ISO_8859_1);
+        }
+    }
+}
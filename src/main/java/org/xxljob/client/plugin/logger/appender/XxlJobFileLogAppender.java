@@ -0,0 +1,57 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import com.xxl.job.core.log.XxlJobFileAppender;
+import org.slf4j.event.Level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>默认的同步写出实现，直接委托{@link XxlJobFileAppender#appendLog(String, String)}在当前线程写出</p>
+ * <p>创建于 2026-10-18 10:20 10:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class XxlJobFileLogAppender implements XxlJobLogAppender {
+
+    /**
+     * 写出一行日志，多行日志合并后的内容由{@link XxlJobFileAppender#appendLog(String, String)}一次写出
+     */
+    @Override
+    public void append(String logFileName, Level level, String line) {
+        XxlJobFileAppender.appendLog(logFileName, line);
+    }
+
+    /**
+     * {@link XxlJobFileAppender#appendLog(String, String)}只能写出文本，不支持二进制记录
+     */
+    @Override
+    public void setBinaryRecords(boolean binaryRecords) {
+        if (binaryRecords) {
+            throw new IllegalStateException(XxlJobFileLogAppender.class.getSimpleName() + " writes text only and does not support binary records");
+        }
+    }
+
+    /**
+     * 按原始字节追加写出，供缓存句柄、内存映射写出失败后退化使用。
+     * 内容可能是二进制记录，不能解码后交给{@link XxlJobFileAppender#appendLog(String, String)}，
+     * 每行已以{@link org.xxljob.client.plugin.logger.encoder.LineEncoder#LINE_SEPARATOR}结尾，不再追加换行符；
+     * 与{@link XxlJobFileAppender#appendLog(String, String)}一致，写出失败时丢弃
+     *
+     * @param logFileName 任务日志文件
+     * @param lines       编码完成的日志行
+     */
+    static void appendBytes(String logFileName, ByteBuffer lines) {
+        try (FileChannel channel = FileChannel.open(Paths.get(logFileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (lines.hasRemaining()) {
+                channel.write(lines);
+            }
+        } catch (IOException | RuntimeException ignored) {
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.encoder.LineEncoder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>{@code xxl-job}日志文件写出组件，负责将{@link org.xxljob.client.plugin.logger.XxlJobLogger}渲染好的日志行写入任务日志文件</p>
+ * <p>实现类必须是线程安全的，多个任务线程可能同时写出同一个日志文件</p>
+ * <p>创建于 2026-10-18 10:12 10:12 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public interface XxlJobLogAppender {
+
+    /**
+     * 写出一行日志，行尾换行符由实现追加
+     *
+     * @param logFileName 任务日志文件
+     * @param level       日志级别
+     * @param line        渲染完成的日志行
+     */
+    void append(String logFileName, Level level, String line);
+
+    /**
+     * 写出已编码为UTF-8的一行或多行日志，每行都以{@link LineEncoder#LINE_SEPARATOR}结尾
+     * <p>{@code lines}由调用方复用，仅在本次调用期间有效，需要延迟写出的实现必须复制其内容</p>
+     * <p>默认解码后调用{@link #append(String, Level, String)}</p>
+     *
+     * @param logFileName 任务日志文件
+     * @param level       日志级别，批量写出多行时为null
+     * @param lines       编码完成的日志行
+     */
+    default void append(String logFileName, Level level, ByteBuffer lines) {
+        final String content = StandardCharsets.UTF_8.decode(lines).toString();
+        final int end = content.endsWith(LineEncoder.LINE_SEPARATOR) ? content.length() - LineEncoder.LINE_SEPARATOR.length() : content.length();
+        this.append(logFileName, level, content.substring(0, end));
+    }
+
+    /**
+     * 设置是否写出{@link org.xxljob.client.plugin.logger.encoder.XxlJobBinaryLogEncoder}二进制日志记录，
+     * 不支持二进制记录时抛出{@link IllegalStateException}，开启后实现类也不能再开启与二进制记录冲突的配置
+     * <p>默认支持</p>
+     *
+     * @param binaryRecords 是否写出二进制日志记录
+     */
+    default void setBinaryRecords(boolean binaryRecords) {
+    }
+
+    /**
+     * 任务执行结束，此函数返回前该任务日志文件的内容必须已完整写出
+     *
+     * @param logFileName 任务日志文件
+     */
+    default void complete(String logFileName) {
+    }
+
+    /**
+     * 关闭并释放资源
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,32 @@
+package org.xxljob.client.plugin.logger.appender;
+
+/**
+ * <p>日志写出的持久化策略，决定日志内容何时通过{@code fsync}落盘</p>
+ * <p>创建于 2026-10-18 22:10 22:10 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public enum XxlJobLogDurability {
+
+    /**
+     * 不主动落盘，由操作系统决定，进程崩溃不丢失，机器宕机可能丢失最近的日志
+     */
+    NONE,
+
+    /**
+     * 组提交，后台线程每隔固定时间对期间写出过的所有文件执行一次落盘，宕机最多丢失一个间隔内的日志
+     */
+    GROUP_COMMIT,
+
+    /**
+     * 任务结束或文件关闭时落盘，{@link XxlJobLogAppender#complete(String)}返回后日志已完整落盘
+     */
+    ON_COMPLETE;
+
+    /**
+     * 默认组提交间隔，单位毫秒
+     */
+    public static final long DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS = 1000;
+}
@@ -0,0 +1,110 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>任务日志的行偏移索引文件{@code 日志文件.idx}，由{@link XxlJobCachedFileLogAppender}写出，
+ * 供{@link org.xxljob.client.plugin.logger.reader.XxlJobLogReader}直接定位到指定行</p>
+ * <p>
+ * 格式：
+ *     <ul>
+ *         <li>文件头8字节：4字节魔数{@link #MAGIC}，4字节索引间隔K</li>
+ *         <li>之后每8字节一个条目，第i个条目为第{@code i * K + 1}行的起始字节偏移，第0个条目总是0</li>
+ *     </ul>
+ * 行以{@code \n}、{@code \r}或{@code \r\n}结尾计数，与{@code xxl-job}读取日志使用的{@link java.io.LineNumberReader}一致；
+ * 日志文件中出现{@link org.xxljob.client.plugin.logger.encoder.XxlJobBinaryLogEncoder}二进制记录时清空索引，不再使用
+ * </p>
+ * <p>创建于 2026-10-18 21:05 21:05 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class XxlJobLogLineIndex {
+
+    /**
+     * 索引文件后缀
+     */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    /**
+     * 魔数
+     */
+    public static final int MAGIC = 0x584A4C49;
+
+    /**
+     * 文件头长度
+     */
+    public static final int HEADER_BYTES = 8;
+
+    /**
+     * 条目长度
+     */
+    public static final int ENTRY_BYTES = 8;
+
+    private XxlJobLogLineIndex() {
+    }
+
+    /**
+     * 索引文件路径
+     *
+     * @param logFileName 任务日志文件
+     * @return String
+     */
+    public static String getIndexFileName(String logFileName) {
+        return logFileName + INDEX_SUFFIX;
+    }
+
+    /**
+     * 读取索引间隔
+     *
+     * @param channel 索引文件
+     * @return 索引间隔，文件头不合法时返回-1
+     */
+    public static int readInterval(FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                return -1;
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            return -1;
+        }
+
+        final int interval = header.getInt();
+        return interval > 0 ? interval : -1;
+    }
+
+    /**
+     * 条目数量
+     *
+     * @param channel 索引文件
+     * @return long
+     */
+    public static long entryCount(FileChannel channel) throws IOException {
+        return Math.max(0, (channel.size() - HEADER_BYTES) / ENTRY_BYTES);
+    }
+
+    /**
+     * 读取条目
+     *
+     * @param channel 索引文件
+     * @param entry   条目下标
+     * @return 起始字节偏移，读取失败返回-1
+     */
+    public static long readEntry(FileChannel channel, long entry) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES);
+        final long position = HEADER_BYTES + entry * ENTRY_BYTES;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return -1;
+            }
+        }
+        buffer.flip();
+        return buffer.getLong();
+    }
+}
@@ -0,0 +1,654 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import com.xxl.job.core.log.XxlJobFileAppender;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.encoder.LineEncoder;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>内存映射写出实现，将日志直接复制到日志文件的{@link MappedByteBuffer}映射区域，写出时没有系统调用，适合单次执行输出数百MB日志的任务</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>每次映射{@link #chunkBytes}字节，写满后从当前位置重新映射，跨映射边界的行按字节顺序连续写出</li>
+ *         <li>映射会将文件扩展到映射区域末尾，{@link #complete(String)}、空闲超时或关闭时截断到实际长度</li>
+ *         <li>进程异常退出时文件末尾会残留0字节，再次打开时从末尾向前找到实际长度并截断，
+ *         {@link #recover(String)}也可单独调用</li>
+ *         <li>映射期间存在{@code 日志文件.mapped}标记文件，截断到实际长度后删除；
+ *         {@link org.xxljob.client.plugin.logger.reader.XxlJobLogReader}只对存在标记的文件跳过行首的0字节、在行中间的0字节处结束，其他文件的0字节按原样读取</li>
+ *         <li>xxl-job通过{@link XxlJobFileAppender#appendLog(String, String)}追加的内容会写在映射区域之后，
+ *         重新映射和关闭时移动到实际长度处，同一时刻的日志顺序可能与输出顺序不同；
+ *         重新映射时将原位置清零，读取时不会看到重复的内容，映射期间追加的内容读取时跳过中间的0字节后同样可见</li>
+ *         <li>解除映射使用{@code sun.misc.Unsafe#invokeCleaner}，不可用时等待GC回收</li>
+ *         <li>通过{@link #setDurability(XxlJobLogDurability, long)}设置日志何时落盘，落盘时持有文件锁，期间该文件的写出等待</li>
+ *     </ul>
+ * </p>
+ * <p>创建于 2026-10-18 21:50 21:50 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class XxlJobMappedFileLogAppender implements XxlJobLogAppender {
+
+    /**
+     * 默认每次映射的字节数
+     */
+    public static final int DEFAULT_CHUNK_BYTES = 8 * 1024 * 1024;
+
+    /**
+     * 默认最大同时映射的文件数
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 16;
+
+    /**
+     * 映射期间标记文件的后缀
+     */
+    public static final String MAPPED_SUFFIX = ".mapped";
+
+    /**
+     * 行分隔符，与{@link XxlJobFileAppender#appendLog(String, String)}保持一致
+     */
+    private static final byte[] LINE_SEPARATOR = LineEncoder.LINE_SEPARATOR.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 恢复文件长度时每次读取的字节数
+     */
+    private static final int SCAN_BYTES = 64 * 1024;
+
+    /**
+     * {@code sun.misc.Unsafe#invokeCleaner(ByteBuffer)}，不可用时为null
+     */
+    private static final MethodHandle INVOKE_CLEANER = lookupInvokeCleaner();
+
+    private final int chunkBytes;
+
+    private final int maxOpenFiles;
+
+    private final long idleTimeoutMillis;
+
+    private volatile XxlJobLogDurability durability = XxlJobLogDurability.NONE;
+
+    /**
+     * 组提交线程，仅{@link XxlJobLogDurability#GROUP_COMMIT}时存在
+     */
+    private volatile LogFileSyncer syncer;
+
+    /**
+     * 按访问顺序排列的映射文件，所有访问都需要持有该对象的锁
+     */
+    private final LinkedHashMap<String, MappedLogFile> files = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile ScheduledExecutorService evictor;
+
+    private volatile boolean closed;
+
+    public XxlJobMappedFileLogAppender() {
+        this(DEFAULT_CHUNK_BYTES, DEFAULT_MAX_OPEN_FILES, XxlJobCachedFileLogAppender.DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param chunkBytes        每次映射的字节数
+     * @param maxOpenFiles      最大同时映射的文件数
+     * @param idleTimeoutMillis 空闲关闭时间，单位毫秒
+     */
+    public XxlJobMappedFileLogAppender(int chunkBytes, int maxOpenFiles, long idleTimeoutMillis) {
+        if (chunkBytes <= 0 || maxOpenFiles <= 0 || idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("chunkBytes, maxOpenFiles and idleTimeoutMillis must be positive");
+        }
+
+        this.chunkBytes = chunkBytes;
+        this.maxOpenFiles = maxOpenFiles;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * 设置持久化策略，组提交间隔为{@link XxlJobLogDurability#DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS}
+     *
+     * @param durability 持久化策略
+     */
+    public void setDurability(XxlJobLogDurability durability) {
+        this.setDurability(durability, XxlJobLogDurability.DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * 设置持久化策略，关闭时是否落盘对之后打开的文件生效
+     *
+     * @param durability                持久化策略
+     * @param groupCommitIntervalMillis 组提交间隔，单位毫秒
+     */
+    public void setDurability(XxlJobLogDurability durability, long groupCommitIntervalMillis) {
+        if (null == durability || groupCommitIntervalMillis <= 0) {
+            throw new IllegalArgumentException("durability must not be null and groupCommitIntervalMillis must be positive");
+        }
+
+        final LogFileSyncer previous;
+        synchronized (this) {
+            previous = this.syncer;
+            this.syncer = durability == XxlJobLogDurability.GROUP_COMMIT && !this.closed ? new LogFileSyncer(groupCommitIntervalMillis) : null;
+            this.durability = durability;
+        }
+
+        if (null != previous) {
+            previous.close();
+        }
+    }
+
+    /**
+     * 恢复异常退出时残留了0字节的日志文件，截断到实际长度
+     *
+     * @param logFileName 任务日志文件
+     * @return 实际长度
+     * @throws IOException 读写失败
+     */
+    public static long recover(String logFileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(logFileName), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long length = recoverLength(channel);
+            if (length < channel.size()) {
+                channel.truncate(length);
+            }
+            Files.deleteIfExists(Paths.get(getMappedFileName(logFileName)));
+            return length;
+        }
+    }
+
+    /**
+     * 映射期间标记文件路径，存在时日志文件中可能有尚未使用的0字节区域
+     *
+     * @param logFileName 任务日志文件
+     * @return String
+     */
+    public static String getMappedFileName(String logFileName) {
+        return logFileName + MAPPED_SUFFIX;
+    }
+
+    @Override
+    public void append(String logFileName, Level level, String line) {
+        final byte[] bytes = (null == line ? "" : line).getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocate(bytes.length + LINE_SEPARATOR.length);
+        buffer.put(bytes).put(LINE_SEPARATOR).flip();
+        this.write(logFileName, buffer);
+    }
+
+    @Override
+    public void append(String logFileName, Level level, ByteBuffer lines) {
+        this.write(logFileName, lines);
+    }
+
+    @Override
+    public void complete(String logFileName) {
+        final MappedLogFile file;
+        synchronized (this.files) {
+            file = this.files.remove(logFileName);
+        }
+
+        if (null != file) {
+            file.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        final List<MappedLogFile> opened;
+        synchronized (this.files) {
+            opened = new ArrayList<>(this.files.values());
+            this.files.clear();
+        }
+
+        opened.forEach(MappedLogFile::close);
+
+        final ScheduledExecutorService evictor = this.evictor;
+        if (null != evictor) {
+            evictor.shutdownNow();
+        }
+
+        final LogFileSyncer syncer;
+        synchronized (this) {
+            syncer = this.syncer;
+            this.syncer = null;
+        }
+        if (null != syncer) {
+            syncer.close();
+        }
+    }
+
+    /**
+     * 写出完整的若干行，写出失败时关闭映射并退化为按原始字节追加写出
+     */
+    private void write(String logFileName, ByteBuffer buffer) {
+        if (null == logFileName || logFileName.trim().isEmpty()) {
+            return;
+        }
+
+        // 文件可能在获取后被并发关闭，重试一次
+        for (int attempt = 0; attempt < 2; attempt++) {
+            final MappedLogFile file = this.acquire(logFileName);
+            if (null == file) {
+                break;
+            }
+
+            final int position = buffer.position();
+            try {
+                if (file.write(buffer)) {
+                    file.dirty(this.syncer);
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                this.complete(logFileName);
+                buffer.position(position);
+                break;
+            }
+            buffer.position(position);
+        }
+
+        // 内容可能是二进制记录，按原始字节追加
+        XxlJobFileLogAppender.appendBytes(logFileName, buffer);
+    }
+
+    private MappedLogFile acquire(String logFileName) {
+        if (this.closed) {
+            return null;
+        }
+
+        List<MappedLogFile> evicted = null;
+        MappedLogFile file;
+        synchronized (this.files) {
+            file = this.files.get(logFileName);
+            if (null == file) {
+                try {
+                    file = MappedLogFile.open(Paths.get(logFileName), this.chunkBytes);
+                    file.syncOnClose = this.durability != XxlJobLogDurability.NONE;
+                } catch (IOException | RuntimeException e) {
+                    return null;
+                }
+
+                this.files.put(logFileName, file);
+                final Iterator<MappedLogFile> iterator = this.files.values().iterator();
+                while (this.files.size() > this.maxOpenFiles && iterator.hasNext()) {
+                    if (null == evicted) {
+                        evicted = new ArrayList<>();
+                    }
+                    evicted.add(iterator.next());
+                    iterator.remove();
+                }
+            }
+        }
+
+        if (null != evicted) {
+            evicted.forEach(MappedLogFile::close);
+        }
+
+        this.startEvictor();
+        file.lastAccess = System.currentTimeMillis();
+        return file;
+    }
+
+    private void evictIdle() {
+        final long expireBefore = System.currentTimeMillis() - this.idleTimeoutMillis;
+        final List<MappedLogFile> evicted = new ArrayList<>();
+        synchronized (this.files) {
+            final Iterator<Map.Entry<String, MappedLogFile>> iterator = this.files.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final MappedLogFile file = iterator.next().getValue();
+                if (file.lastAccess < expireBefore) {
+                    evicted.add(file);
+                    iterator.remove();
+                }
+            }
+        }
+
+        evicted.forEach(MappedLogFile::close);
+    }
+
+    private void startEvictor() {
+        if (null != this.evictor) {
+            return;
+        }
+
+        synchronized (this) {
+            if (null != this.evictor || this.closed) {
+                return;
+            }
+
+            final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "xxl-job-logger-mapped-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long period = Math.max(1, this.idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+            this.evictor = evictor;
+        }
+    }
+
+    /**
+     * 从文件末尾向前跳过0字节，得到实际长度
+     */
+    private static long recoverLength(FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+        long end = channel.size();
+        while (end > 0) {
+            final long start = Math.max(0, end - SCAN_BYTES);
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) != 0) {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * 解除映射，之后不能再访问该缓冲区
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (null == buffer || null == INVOKE_CLEANER) {
+            return;
+        }
+
+        try {
+            INVOKE_CLEANER.invoke(buffer);
+        } catch (Throwable ignored) {
+            // 等待GC回收
+        }
+    }
+
+    private static MethodHandle lookupInvokeCleaner() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个日志文件的映射，写出和关闭互斥
+     */
+    private static final class MappedLogFile implements LogFileSyncer.Syncable {
+
+        private final FileChannel channel;
+
+        /**
+         * 映射期间的标记文件
+         */
+        private final Path mappedPath;
+
+        private final int chunkBytes;
+
+        private MappedByteBuffer buffer;
+
+        /**
+         * 实际长度，即下一个字节的写出位置
+         */
+        private long position;
+
+        /**
+         * 映射扩展后的文件长度，超出部分是其他进程或xxl-job追加的内容
+         */
+        private long extent;
+
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private boolean closed;
+
+        /**
+         * 关闭前是否落盘
+         */
+        private boolean syncOnClose;
+
+        /**
+         * 是否已登记到组提交线程
+         */
+        private volatile boolean dirty;
+
+        private MappedLogFile(FileChannel channel, Path mappedPath, int chunkBytes) {
+            this.channel = channel;
+            this.mappedPath = mappedPath;
+            this.chunkBytes = chunkBytes;
+        }
+
+        private static MappedLogFile open(Path path, int chunkBytes) throws IOException {
+            // 映射扩展文件之前创建标记，读取时不会把未使用的区域当作日志内容
+            final Path mappedPath = Paths.get(getMappedFileName(path.toString()));
+            if (!Files.exists(mappedPath)) {
+                try {
+                    Files.createFile(mappedPath);
+                } catch (FileAlreadyExistsException ignored) {
+                    // 其他句柄已创建
+                }
+            }
+
+            final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                final MappedLogFile file = new MappedLogFile(channel, mappedPath, chunkBytes);
+                file.position = recoverLength(channel);
+                file.extent = channel.size();
+                file.remap();
+                return file;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * 写出全部内容，放不下时在行边界处重新映射，单次写出超过映射大小时跨映射边界连续写出
+         *
+         * @return 已关闭返回false
+         */
+        private synchronized boolean write(ByteBuffer source) throws IOException {
+            if (this.closed) {
+                return false;
+            }
+
+            if (source.remaining() > this.buffer.remaining()) {
+                final ByteBuffer appended = this.remap();
+                if (null != appended) {
+                    this.put(appended);
+                }
+            }
+
+            // 跨映射边界时其他来源追加的内容放在本次写出之后，避免插入到行中间
+            ByteBuffer pending = this.put(source);
+            while (null != pending) {
+                pending = this.put(pending);
+            }
+            return true;
+        }
+
+        /**
+         * 复制到映射区域
+         *
+         * @return 复制期间重新映射时移出的追加内容
+         */
+        private ByteBuffer put(ByteBuffer source) throws IOException {
+            ByteBuffer pending = null;
+            while (source.hasRemaining()) {
+                if (!this.buffer.hasRemaining()) {
+                    pending = concat(pending, this.remap());
+                }
+
+                final int length = Math.min(source.remaining(), this.buffer.remaining());
+                final int limit = source.limit();
+                source.limit(source.position() + length);
+                this.buffer.put(source);
+                source.limit(limit);
+                this.position += length;
+            }
+            return pending;
+        }
+
+        /**
+         * 从实际长度处重新映射，映射前取出{@link #extent}之后追加的内容并将原位置清零，由调用方写到合适的位置
+         *
+         * @return 追加的内容，没有时返回null
+         */
+        private ByteBuffer remap() throws IOException {
+            unmap(this.buffer);
+            this.buffer = null;
+
+            final long appendedFrom = this.extent;
+            final ByteBuffer appended = this.readAppended();
+            if (null != appended) {
+                // 新的映射可能覆盖原位置，未被本文件写出覆盖的部分会作为重复内容被读取
+                this.zero(appendedFrom, this.extent);
+            }
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, this.position, this.chunkBytes);
+            this.extent = Math.max(this.extent, this.position + this.chunkBytes);
+            return appended;
+        }
+
+        /**
+         * 读取{@link #extent}之后追加的内容，读取后不再视为追加
+         */
+        private ByteBuffer readAppended() throws IOException {
+            final long size = this.channel.size();
+            if (size <= this.extent) {
+                return null;
+            }
+
+            final ByteBuffer appended = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE, size - this.extent));
+            while (appended.hasRemaining()) {
+                if (this.channel.read(appended, this.extent + appended.position()) < 0) {
+                    break;
+                }
+            }
+            appended.flip();
+            appended.limit(recoverEnd(appended));
+            this.extent = size;
+            return appended.hasRemaining() ? appended : null;
+        }
+
+        /**
+         * 将{@code [from, to)}写为0字节
+         */
+        private void zero(long from, long to) throws IOException {
+            final ByteBuffer zeros = ByteBuffer.allocate((int) Math.min(SCAN_BYTES, to - from));
+            while (from < to) {
+                zeros.clear().limit((int) Math.min(zeros.capacity(), to - from));
+                while (zeros.hasRemaining()) {
+                    from += this.channel.write(zeros, from);
+                }
+            }
+        }
+
+        /**
+         * 写出后登记到组提交线程，已登记时跳过
+         */
+        private void dirty(LogFileSyncer syncer) {
+            if (null != syncer && !this.dirty) {
+                this.dirty = true;
+                syncer.dirty(this);
+            }
+        }
+
+        /**
+         * 持有文件锁落盘，避免落盘期间映射被解除
+         */
+        @Override
+        public synchronized void sync() {
+            this.dirty = false;
+            if (this.closed) {
+                return;
+            }
+
+            try {
+                this.buffer.force();
+                this.channel.force(false);
+            } catch (IOException | RuntimeException ignored) {
+                // 落盘失败，下次写出后重试
+            }
+        }
+
+        /**
+         * 截断到实际长度后关闭
+         */
+        private synchronized void close() {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            unmap(this.buffer);
+            this.buffer = null;
+            try {
+                final ByteBuffer appended = this.readAppended();
+                while (null != appended && appended.hasRemaining()) {
+                    this.position += this.channel.write(appended, this.position);
+                }
+                this.channel.truncate(this.position);
+                if (this.syncOnClose) {
+                    this.channel.force(true);
+                }
+                Files.deleteIfExists(this.mappedPath);
+            } catch (IOException ignored) {
+                // 再次打开时恢复
+            } finally {
+                try {
+                    this.channel.close();
+                } catch (IOException ignored) {
+                    // ignore
+                }
+            }
+        }
+
+        private static ByteBuffer concat(ByteBuffer first, ByteBuffer second) {
+            if (null == first || null == second) {
+                return null == first ? second : first;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate(first.remaining() + second.remaining());
+            buffer.put(first).put(second).flip();
+            return buffer;
+        }
+
+        /**
+         * 追加内容中最后一个非0字节之后的位置
+         */
+        private static int recoverEnd(ByteBuffer buffer) {
+            for (int i = buffer.limit() - 1; i >= buffer.position(); i--) {
+                if (buffer.get(i) != 0) {
+                    return i + 1;
+                }
+            }
+            return buffer.position();
+        }
+    }
+}
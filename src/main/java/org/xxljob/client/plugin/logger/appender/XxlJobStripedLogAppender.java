@@ -0,0 +1,616 @@
+package org.xxljob.client.plugin.logger.appender;
+
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.encoder.LineEncoder;
+import org.xxljob.client.plugin.logger.metrics.XxlJobLoggerMetrics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>分线程暂存的写出实现，适合分片、并行任务中大量线程写同一个日志文件的场景</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>每个线程将日志行复制到自己的暂存区，暂存区只有一个生产者和一个消费者，线程之间没有锁竞争，槽位复用，不产生额外对象</li>
+ *         <li>每行日志在复制前从全局计数器取得序号，唯一的合并线程按序号从各暂存区取出整行，按日志文件合并为一次写出到{@link #delegate}，
+ *         所有线程的日志交错顺序与取得序号的顺序一致</li>
+ *         <li>序号已取得但尚未复制完成的行会短暂阻塞之后的行，保证顺序；合并线程先让出CPU，仍未发布时休眠并逐步延长休眠时间，不会空转</li>
+ *         <li>暂存区满时等待合并线程取出，不丢弃日志</li>
+ *         <li>取出后超出{@link #MAX_RETAINED_SLOT_BYTES}的槽位、或使暂存区保留的字节数超出{@link #MAX_RETAINED_STAGE_BYTES}的槽位释放，
+ *         线程池中每个线程长期保留的内存有上限</li>
+ *         <li>{@link #complete(String)}会等待调用前取得序号的日志全部写出</li>
+ *         <li>JVM退出时会写出暂存区中剩余的日志，{@link #close()}后移除退出时的钩子，被替换的实例不会一直被引用</li>
+ *         <li>关闭期间发布而合并线程已退出的日志由发布线程取出写出，不会丢失；{@link #close()}返回后{@link #delegate}已关闭，
+ *         之后的日志直接丢弃并计入{@link XxlJobLoggerMetrics}</li>
+ *     </ul>
+ * </p>
+ * <p>创建于 2026-10-18 23:20 23:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class XxlJobStripedLogAppender implements XxlJobLogAppender {
+
+    /**
+     * 默认每个线程暂存的行数
+     */
+    public static final int DEFAULT_STAGE_CAPACITY = 256;
+
+    /**
+     * 合并线程每轮最多取出的行数
+     */
+    private static final int MAX_DRAIN_LINES = 4096;
+
+    /**
+     * 合并线程空闲时的最长休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 生产者等待暂存区空闲位置时的休眠时间，也是合并线程等待未发布的行时的最长休眠时间
+     */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * 合并线程等待未发布的行时，开始休眠前让出CPU的次数
+     */
+    private static final int STALL_YIELD_ROUNDS = 16;
+
+    /**
+     * 合并线程等待未发布的行时的最短休眠时间
+     */
+    private static final long STALL_MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    /**
+     * 槽位允许保留的最大字节数，超出的在取出后释放
+     */
+    private static final int MAX_RETAINED_SLOT_BYTES = 16 * 1024;
+
+    /**
+     * 单个暂存区所有槽位允许保留的最大字节数，超出时取出后释放
+     */
+    private static final int MAX_RETAINED_STAGE_BYTES = 256 * 1024;
+
+    /**
+     * 单个文件写出缓冲区初始大小
+     */
+    private static final int INITIAL_BATCH_BYTES = 64 * 1024;
+
+    /**
+     * 单个文件写出缓冲区允许保留的最大大小
+     */
+    private static final int MAX_RETAINED_BATCH_BYTES = 4 * 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * 实际写出日志的组件
+     */
+    private final XxlJobLogAppender delegate;
+
+    private final int stageCapacity;
+
+    /**
+     * 下一个序号
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 序号小于该值的日志均已写出，用于{@link #complete(String)}等待
+     */
+    private volatile long writtenSequence;
+
+    /**
+     * 当前线程的暂存区
+     */
+    private final ThreadLocal<Stage> stage = ThreadLocal.withInitial(this::register);
+
+    /**
+     * 已注册的暂存区，注册和移除时整体替换
+     */
+    private volatile Stage[] stages = new Stage[0];
+
+    private final Thread drainer;
+
+    /**
+     * 合并状态，合并线程运行时仅由其访问，退出后由关闭期间发布的线程在锁内访问
+     */
+    private final Drain drainState = new Drain();
+
+    /**
+     * JVM退出时写出剩余日志
+     */
+    private final Thread shutdownHook;
+
+    /**
+     * 合并线程是否处于休眠状态，仅在休眠时才需要唤醒
+     */
+    private volatile boolean waiting;
+
+    private volatile boolean running = true;
+
+    /**
+     * {@link #delegate}是否已关闭，在{@link #drainState}锁内修改
+     */
+    private volatile boolean delegateClosed;
+
+    /**
+     * 等待日志写出的最长时间，单位毫秒
+     */
+    private volatile long completeTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+
+    public XxlJobStripedLogAppender() {
+        this(new XxlJobCachedFileLogAppender());
+    }
+
+    public XxlJobStripedLogAppender(XxlJobLogAppender delegate) {
+        this(delegate, DEFAULT_STAGE_CAPACITY);
+    }
+
+    /**
+     * @param delegate      实际写出日志的组件
+     * @param stageCapacity 每个线程暂存的行数
+     */
+    public XxlJobStripedLogAppender(XxlJobLogAppender delegate, int stageCapacity) {
+        if (null == delegate) {
+            throw new IllegalArgumentException("delegate appender must not be null");
+        }
+        if (stageCapacity <= 0) {
+            throw new IllegalArgumentException("stageCapacity must be positive");
+        }
+
+        int capacity = 1;
+        while (capacity < stageCapacity) {
+            capacity <<= 1;
+        }
+
+        this.delegate = delegate;
+        this.stageCapacity = capacity;
+
+        this.drainer = new Thread(this::drainLoop, "xxl-job-logger-striped");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+
+        this.shutdownHook = new Thread(this::close, "xxl-job-logger-striped-shutdown");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * 设置{@link #complete(String)}等待日志写出的最长时间
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     */
+    public void setCompleteTimeout(long timeout, TimeUnit unit) {
+        this.completeTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    @Override
+    public void append(String logFileName, Level level, String line) {
+        this.append(logFileName, level, ByteBuffer.wrap(((null == line ? "" : line) + LineEncoder.LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public void append(String logFileName, Level level, ByteBuffer lines) {
+        if (Thread.currentThread() == this.drainer) {
+            this.delegate.append(logFileName, level, lines);
+            return;
+        }
+        if (!this.running) {
+            this.appendAfterClose(logFileName, level, lines);
+            return;
+        }
+
+        final Stage stage = this.stage.get();
+        final long tail = stage.tail.get();
+        while (tail - stage.head.get() >= this.stageCapacity) {
+            if (!this.running) {
+                this.appendAfterClose(logFileName, level, lines);
+                return;
+            }
+
+            // 暂存区已满，唤醒合并线程后等待
+            LockSupport.unpark(this.drainer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+
+        // 取得序号前分配好空间，取得序号后只做复制，尽快发布
+        final int index = (int) (tail & stage.mask);
+        final int length = lines.remaining();
+        if (stage.data[index].length < length) {
+            stage.data[index] = new byte[Math.max(length, 256)];
+        }
+
+        stage.sequences[index] = this.sequence.getAndIncrement();
+        lines.get(stage.data[index], 0, length);
+        stage.lengths[index] = length;
+        stage.logFileNames[index] = logFileName;
+        stage.tail.lazySet(tail + 1);
+
+        if (!this.running) {
+            // 发布时正在关闭，合并线程可能已经退出
+            this.drainAfterClose();
+        } else if (this.waiting) {
+            LockSupport.unpark(this.drainer);
+        }
+    }
+
+    @Override
+    public void setBinaryRecords(boolean binaryRecords) {
+        this.delegate.setBinaryRecords(binaryRecords);
+    }
+
+    @Override
+    public void complete(String logFileName) {
+        if (Thread.currentThread() == this.drainer) {
+            this.delegate.complete(logFileName);
+            return;
+        }
+
+        final long target = this.sequence.get();
+        final long deadline = System.currentTimeMillis() + this.completeTimeoutMillis;
+        while (this.writtenSequence < target && this.drainer.isAlive()) {
+            if (System.currentTimeMillis() > deadline) {
+                break;
+            }
+            LockSupport.unpark(this.drainer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+
+        this.delegate.complete(logFileName);
+    }
+
+    @Override
+    public void close() {
+        if (!this.running) {
+            return;
+        }
+
+        this.running = false;
+        if (Thread.currentThread() != this.shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // JVM正在退出
+            }
+        }
+
+        LockSupport.unpark(this.drainer);
+        this.drainAfterClose();
+        // 之后发布的日志由发布线程在锁内丢弃，不会写入已关闭的delegate
+        synchronized (this.drainState) {
+            this.delegateClosed = true;
+        }
+        this.delegate.close();
+    }
+
+    /**
+     * 关闭后同步写出：先取出暂存区中剩余的日志，保持顺序；{@link #delegate}已关闭时丢弃
+     */
+    private void appendAfterClose(String logFileName, Level level, ByteBuffer lines) {
+        this.drainAfterClose();
+        synchronized (this.drainState) {
+            if (this.delegateClosed) {
+                XxlJobLoggerMetrics.getInstance().recordDropped(1);
+                return;
+            }
+            this.delegate.append(logFileName, level, lines);
+        }
+    }
+
+    /**
+     * 等待合并线程退出，之后由调用线程取出暂存区中已发布的连续日志；
+     * 序号在前的行尚未发布时停止，由发布该行的线程继续取出
+     */
+    private void drainAfterClose() {
+        try {
+            this.drainer.join(this.completeTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.drainer.isAlive()) {
+            return;
+        }
+
+        // 合并线程已退出，多个调用线程之间互斥，保证只有一个消费者
+        synchronized (this.drainState) {
+            while (this.drain(this.drainState) > 0) {
+                // 直到没有连续的已发布日志
+            }
+        }
+    }
+
+    /**
+     * 当前线程首次写出时注册暂存区
+     */
+    private Stage register() {
+        final Stage stage = new Stage(Thread.currentThread(), this.stageCapacity);
+        synchronized (this) {
+            final Stage[] stages = Arrays.copyOf(this.stages, this.stages.length + 1);
+            stages[stages.length - 1] = stage;
+            this.stages = stages;
+        }
+        return stage;
+    }
+
+    /**
+     * 移除线程已结束且已取空的暂存区
+     */
+    private void removeTerminated() {
+        synchronized (this) {
+            final List<Stage> alive = new ArrayList<>(this.stages.length);
+            for (Stage stage : this.stages) {
+                if (stage.owner.isAlive() || stage.head.get() != stage.tail.get()) {
+                    alive.add(stage);
+                }
+            }
+            if (alive.size() != this.stages.length) {
+                this.stages = alive.toArray(new Stage[0]);
+            }
+        }
+    }
+
+    /**
+     * 合并线程主循环
+     */
+    private void drainLoop() {
+        final Drain drain = this.drainState;
+        int stalls = 0;
+        for (; ; ) {
+            if (this.drain(drain) > 0) {
+                stalls = 0;
+                continue;
+            }
+
+            // 有序号已取得但尚未发布的行，生产者可能在复制前被调度出去，先让出CPU，之后休眠并逐步延长
+            if (this.sequence.get() != drain.nextSequence) {
+                if (++stalls <= STALL_YIELD_ROUNDS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, Math.min(BLOCK_PARK_NANOS, STALL_MIN_PARK_NANOS << Math.min(stalls - STALL_YIELD_ROUNDS, 16)));
+                }
+                continue;
+            }
+            stalls = 0;
+
+            if (!this.running) {
+                return;
+            }
+
+            this.removeTerminated();
+            this.waiting = true;
+            if (this.sequence.get() == drain.nextSequence) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            this.waiting = false;
+        }
+    }
+
+    /**
+     * 按序号从各暂存区取出连续的行，按日志文件合并写出
+     *
+     * @return 取出的行数
+     */
+    private int drain(Drain drain) {
+        final Stage[] stages = this.stages;
+        final int count = stages.length;
+        drain.ensureCapacity(count);
+        final long[] heads = drain.heads;
+        final long[] tails = drain.tails;
+        for (int i = 0; i < count; i++) {
+            heads[i] = stages[i].head.get();
+            tails[i] = stages[i].tail.get();
+        }
+
+        int drained = 0;
+        int last = 0;
+        boolean refreshed = false;
+        while (drained < MAX_DRAIN_LINES) {
+            final int found = find(stages, heads, tails, drain.nextSequence, last);
+            if (found < 0) {
+                // 重新读取一次发布位置，仍未找到说明下一行尚未发布
+                if (refreshed) {
+                    break;
+                }
+                for (int i = 0; i < count; i++) {
+                    tails[i] = stages[i].tail.get();
+                }
+                refreshed = true;
+                continue;
+            }
+
+            refreshed = false;
+            final Stage stage = stages[found];
+            final int index = (int) (heads[found] & stage.mask);
+            drain.batch(stage.logFileNames[index], stage.lengths[index]).put(stage.data[index], 0, stage.lengths[index]);
+            stage.logFileNames[index] = null;
+            stage.retain(index);
+
+            heads[found]++;
+            drain.nextSequence++;
+            drained++;
+            last = found;
+        }
+
+        if (drained == 0) {
+            return 0;
+        }
+
+        for (int i = 0; i < count; i++) {
+            stages[i].head.lazySet(heads[i]);
+        }
+        if (this.delegateClosed) {
+            drain.clear();
+            XxlJobLoggerMetrics.getInstance().recordDropped(drained);
+        } else {
+            drain.write(this.delegate);
+        }
+        this.writtenSequence = drain.nextSequence;
+        return drained;
+    }
+
+    /**
+     * 查找下一行所在的暂存区，优先查找上一行所在的暂存区
+     *
+     * @return 暂存区下标，未找到返回-1
+     */
+    private static int find(Stage[] stages, long[] heads, long[] tails, long sequence, int last) {
+        final int count = stages.length;
+        for (int n = 0; n < count; n++) {
+            final int i = last + n < count ? last + n : last + n - count;
+            if (heads[i] < tails[i] && stages[i].sequences[(int) (heads[i] & stages[i].mask)] == sequence) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 单个线程的暂存区，仅所属线程写入槽位，合并线程读取
+     */
+    private static final class Stage {
+
+        private final Thread owner;
+
+        private final int mask;
+
+        private final long[] sequences;
+
+        private final String[] logFileNames;
+
+        private final byte[][] data;
+
+        private final int[] lengths;
+
+        /**
+         * 每个槽位取出后保留的字节数，仅合并线程访问
+         */
+        private final int[] retained;
+
+        /**
+         * 所有槽位保留的字节数，仅合并线程访问
+         */
+        private int retainedBytes;
+
+        /**
+         * 下一个发布位置，仅所属线程写入
+         */
+        private final AtomicLong tail = new AtomicLong();
+
+        /**
+         * 下一个取出位置，仅合并线程写入
+         */
+        private final AtomicLong head = new AtomicLong();
+
+        private Stage(Thread owner, int capacity) {
+            this.owner = owner;
+            this.mask = capacity - 1;
+            this.sequences = new long[capacity];
+            this.logFileNames = new String[capacity];
+            this.data = new byte[capacity][];
+            this.lengths = new int[capacity];
+            this.retained = new int[capacity];
+            Arrays.fill(this.data, EMPTY);
+        }
+
+        /**
+         * 取出槽位后决定是否保留其字节数组，超出单个槽位或整个暂存区的上限时释放
+         */
+        private void retain(int index) {
+            this.retainedBytes -= this.retained[index];
+            final int length = this.data[index].length;
+            if (length > MAX_RETAINED_SLOT_BYTES || this.retainedBytes + length > MAX_RETAINED_STAGE_BYTES) {
+                this.data[index] = EMPTY;
+                this.retained[index] = 0;
+                return;
+            }
+            this.retained[index] = length;
+            this.retainedBytes += length;
+        }
+    }
+
+    /**
+     * 合并线程的状态，仅合并线程访问
+     */
+    private static final class Drain {
+
+        private long nextSequence;
+
+        private long[] heads = new long[16];
+
+        private long[] tails = new long[16];
+
+        private final Map<String, ByteBuffer> batches = new LinkedHashMap<>();
+
+        private void ensureCapacity(int count) {
+            if (this.heads.length < count) {
+                this.heads = new long[count << 1];
+                this.tails = new long[count << 1];
+            }
+        }
+
+        /**
+         * 获取日志文件的写出缓冲区，剩余空间不足{@code length}时扩容
+         */
+        private ByteBuffer batch(String logFileName, int length) {
+            ByteBuffer buffer = this.batches.get(logFileName);
+            if (null == buffer) {
+                buffer = ByteBuffer.allocate(Math.max(INITIAL_BATCH_BYTES, length));
+                this.batches.put(logFileName, buffer);
+            } else if (buffer.remaining() < length) {
+                final ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() << 1, buffer.position() + length));
+                buffer.flip();
+                grown.put(buffer);
+                this.batches.put(logFileName, grown);
+                buffer = grown;
+            }
+            return buffer;
+        }
+
+        /**
+         * 丢弃本轮取出的日志
+         */
+        private void clear() {
+            for (ByteBuffer buffer : this.batches.values()) {
+                buffer.clear();
+            }
+        }
+
+        private void write(XxlJobLogAppender delegate) {
+            final Iterator<Map.Entry<String, ByteBuffer>> iterator = this.batches.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, ByteBuffer> entry = iterator.next();
+                final ByteBuffer buffer = entry.getValue();
+                if (buffer.position() == 0) {
+                    // 本轮没有写出的文件不再保留缓冲区
+                    iterator.remove();
+                    continue;
+                }
+
+                buffer.flip();
+                try {
+                    delegate.append(entry.getKey(), null, buffer);
+                } catch (Throwable ignored) {
+                    // 写出失败的日志丢弃
+                }
+                buffer.clear();
+
+                if (buffer.capacity() > MAX_RETAINED_BATCH_BYTES) {
+                    entry.setValue(ByteBuffer.allocate(INITIAL_BATCH_BYTES));
+                }
+            }
+        }
+    }
+}
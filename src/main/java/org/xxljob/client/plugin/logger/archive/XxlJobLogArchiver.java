@@ -0,0 +1,340 @@
+package org.xxljob.client.plugin.logger.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xxljob.client.plugin.logger.appender.XxlJobLogLineIndex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>任务日志归档，任务结束后在后台线程将日志文件压缩为{@code 日志文件.gz}并删除原文件</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>任务结束后延迟{@link #delayMillis}再压缩，等待xxl-job输出任务结束日志</li>
+ *         <li>先将原文件改名为{@code 日志文件.archiving}再压缩，改名后xxl-job追加的日志写入新的原文件，稍后再次归档；
+ *         改名后等待{@link #RENAME_GRACE_MILLIS}，让改名前已打开文件的写入完成，再压缩到文件大小不再变化为止，删除前再次确认大小</li>
+ *         <li>每次归档的内容先压缩为单独的gzip成员，再追加到压缩文件末尾，耗时与已归档的内容无关；追加失败时截断到追加前的长度</li>
+ *         <li>改名、追加gzip成员和删除归档中文件时持有该文件的写锁，{@link #getReadLock(String)}读取期间不会看到不完整的gzip成员或重复的内容</li>
+ *         <li>归档后删除{@link XxlJobLogLineIndex}行偏移索引</li>
+ *         <li>压缩后的日志通过{@link org.xxljob.client.plugin.logger.reader.XxlJobLogReader}读取</li>
+ *     </ul>
+ * </p>
+ * <p>创建于 2026-10-18 20:20 20:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class XxlJobLogArchiver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(XxlJobLogArchiver.class);
+
+    /**
+     * 压缩文件后缀
+     */
+    public static final String ARCHIVE_SUFFIX = ".gz";
+
+    /**
+     * 默认延迟压缩时间，单位毫秒
+     */
+    public static final long DEFAULT_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * 归档中的日志文件后缀
+     */
+    public static final String ARCHIVING_SUFFIX = ".archiving";
+
+    /**
+     * 归档后又有日志追加时的最大归档次数
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * 改名后等待已打开文件的写入完成的时间，单位毫秒
+     */
+    private static final long RENAME_GRACE_MILLIS = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 按日志文件分段的读写锁
+     */
+    private static final ReentrantReadWriteLock[] LOCKS = new ReentrantReadWriteLock[64];
+
+    static {
+        for (int i = 0; i < LOCKS.length; i++) {
+            LOCKS[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    private final int level;
+
+    private final long delayMillis;
+
+    private volatile ScheduledExecutorService executor;
+
+    /**
+     * 日志文件改名为归档中文件的时间，只在归档线程访问
+     */
+    private final Map<String, Long> renamedMillis = new HashMap<>();
+
+    private volatile boolean closed;
+
+    public XxlJobLogArchiver() {
+        this(Deflater.DEFAULT_COMPRESSION, DEFAULT_DELAY_MILLIS);
+    }
+
+    /**
+     * @param level       压缩级别，见{@link Deflater}
+     * @param delayMillis 任务结束后延迟压缩的时间，单位毫秒
+     */
+    public XxlJobLogArchiver(int level, long delayMillis) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION || delayMillis < 0) {
+            throw new IllegalArgumentException("invalid compression level or delay");
+        }
+
+        this.level = level;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * 归档压缩文件路径
+     *
+     * @param logFileName 任务日志文件
+     * @return String
+     */
+    public static String getArchiveFileName(String logFileName) {
+        return logFileName + ARCHIVE_SUFFIX;
+    }
+
+    /**
+     * 归档中的日志文件路径，压缩完成后删除
+     *
+     * @param logFileName 任务日志文件
+     * @return String
+     */
+    public static String getArchivingFileName(String logFileName) {
+        return logFileName + ARCHIVING_SUFFIX;
+    }
+
+    /**
+     * 读取日志文件时持有的锁，读取期间归档不会改名、追加压缩内容或删除归档中文件
+     *
+     * @param logFileName 任务日志文件
+     * @return Lock
+     */
+    public static Lock getReadLock(String logFileName) {
+        return getLock(logFileName).readLock();
+    }
+
+    private static ReentrantReadWriteLock getLock(String logFileName) {
+        return LOCKS[(logFileName.hashCode() & Integer.MAX_VALUE) % LOCKS.length];
+    }
+
+    /**
+     * 提交归档，不阻塞调用线程
+     *
+     * @param logFileName 任务日志文件
+     */
+    public void archive(String logFileName) {
+        if (null == logFileName || logFileName.trim().isEmpty() || this.closed) {
+            return;
+        }
+        this.schedule(logFileName, 1);
+    }
+
+    /**
+     * 停止归档线程，未执行的归档被放弃，日志文件保持原样
+     */
+    public void close() {
+        this.closed = true;
+        final ScheduledExecutorService executor = this.executor;
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void schedule(String logFileName, int attempt) {
+        this.schedule(logFileName, attempt, this.delayMillis);
+    }
+
+    private void schedule(String logFileName, int attempt, long delayMillis) {
+        try {
+            this.getExecutor().schedule(() -> this.compress(logFileName, attempt), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException ignored) {
+            // 已关闭
+        }
+    }
+
+    /**
+     * 压缩日志文件，归档期间原文件又有日志追加时稍后再次归档
+     */
+    private void compress(String logFileName, int attempt) {
+        final Path source = Paths.get(logFileName);
+        final Path pending = Paths.get(getArchivingFileName(logFileName));
+        final Path archive = Paths.get(getArchiveFileName(logFileName));
+        final Path temp = Paths.get(getArchiveFileName(logFileName) + ".tmp");
+        final Lock lock = getLock(logFileName).writeLock();
+        try {
+            // 上次归档中断时遗留的文件先继续归档
+            if (!Files.exists(pending)) {
+                if (!Files.isRegularFile(source)) {
+                    return;
+                }
+                lock.lock();
+                try {
+                    Files.move(source, pending, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    lock.unlock();
+                }
+                this.renamedMillis.put(logFileName, System.currentTimeMillis());
+            }
+
+            // 同一文件多次提交归档时，同样等待改名后的写入完成
+            final long renamed = this.renamedMillis.computeIfAbsent(logFileName, key -> System.currentTimeMillis());
+            final long elapsed = System.currentTimeMillis() - renamed;
+            if (elapsed < RENAME_GRACE_MILLIS) {
+                this.schedule(logFileName, attempt, RENAME_GRACE_MILLIS - elapsed);
+                return;
+            }
+
+            // 本次内容压缩为单独的gzip成员
+            final long compressed;
+            try (FileChannel in = FileChannel.open(pending, StandardOpenOption.READ);
+                 OutputStream out = new LevelGZIPOutputStream(Files.newOutputStream(temp), this.level)) {
+                compressed = transfer(in, out);
+            }
+
+            lock.lock();
+            try {
+                if (Files.size(pending) != compressed) {
+                    // 改名前已打开的句柄在压缩后又追加了日志，稍后重新压缩
+                    Files.delete(temp);
+                    this.retry(logFileName, attempt);
+                    return;
+                }
+
+                appendMember(temp, archive);
+                Files.delete(pending);
+            } finally {
+                lock.unlock();
+            }
+
+            Files.delete(temp);
+            this.renamedMillis.remove(logFileName);
+            Files.deleteIfExists(Paths.get(XxlJobLogLineIndex.getIndexFileName(logFileName)));
+
+            if (Files.exists(source)) {
+                // 改名后xxl-job又追加了日志
+                this.retry(logFileName, attempt);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // ignore
+            }
+            LOGGER.warn("archive job log {} error", logFileName, e);
+        }
+    }
+
+    private void retry(String logFileName, int attempt) {
+        if (attempt < MAX_ATTEMPTS && !this.closed) {
+            this.schedule(logFileName, attempt + 1);
+        }
+    }
+
+    /**
+     * 将gzip成员追加到压缩文件末尾，失败时截断到追加前的长度
+     */
+    private static void appendMember(Path member, Path archive) throws IOException {
+        try (FileChannel in = FileChannel.open(member, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(archive, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            final long start = out.size();
+            try {
+                final long size = in.size();
+                long position = 0;
+                out.position(start);
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+                out.force(false);
+            } catch (IOException e) {
+                out.truncate(start);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 压缩到文件大小不再变化为止
+     *
+     * @return 已压缩的字节数
+     */
+    private static long transfer(FileChannel in, OutputStream out) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+        long size;
+        while ((size = in.size()) > position) {
+            while (position < size) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, size - position));
+                final int read = in.read(buffer, position);
+                if (read <= 0) {
+                    return position;
+                }
+                out.write(buffer.array(), 0, read);
+                position += read;
+            }
+        }
+        return position;
+    }
+
+    private ScheduledExecutorService getExecutor() {
+        ScheduledExecutorService executor = this.executor;
+        if (null != executor) {
+            return executor;
+        }
+
+        synchronized (this) {
+            if (null == this.executor) {
+                this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "xxl-job-logger-archiver");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+            }
+            return this.executor;
+        }
+    }
+
+    /**
+     * 可设置压缩级别的{@link GZIPOutputStream}
+     */
+    private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+
+        private LevelGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            this.def.setLevel(level);
+        }
+    }
+}
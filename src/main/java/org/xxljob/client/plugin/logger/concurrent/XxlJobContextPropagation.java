@@ -0,0 +1,133 @@
+package org.xxljob.client.plugin.logger.concurrent;
+
+import com.xxl.job.core.context.XxlJobContext;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * <p>将任务线程的{@link XxlJobContext}和{@link org.slf4j.MDC}传播到其他线程，任务拆分到线程池中并行执行时，工作线程输出的日志同样写入该任务的日志文件</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>{@link #wrap(Runnable)}、{@link #wrap(Callable)}在创建时捕获上下文，执行期间恢复，结束后还原执行线程原有的上下文</li>
+ *         <li>{@link #wrap(Executor)}、{@link #wrap(ExecutorService)}在每次提交时捕获提交线程的上下文，可包装任意线程池，包括虚拟线程执行器</li>
+ *         <li>{@link #newForkJoinPool(int)}创建专属于当前任务的{@link ForkJoinPool}，工作线程启动时恢复上下文，
+ *         {@code fork}出的子任务、在该线程池中执行的并行流同样可用，任务结束后需调用{@link ForkJoinPool#shutdown()}</li>
+ *     </ul>
+ * 工作线程的日志由同一个{@link org.xxljob.client.plugin.logger.appender.XxlJobLogAppender}写出，同一线程的日志保持输出顺序；
+ * 任务调用{@link org.xxljob.client.plugin.logger.XxlJobLogger#complete()}之前需等待所有并行的工作完成
+ * </p>
+ * <pre>{@code
+ * ForkJoinPool pool = XxlJobContextPropagation.newForkJoinPool(8);
+ * try {
+ *     pool.submit(() -> items.parallelStream().forEach(this::process)).get();
+ * } finally {
+ *     pool.shutdown();
+ * }
+ * }</pre>
+ * <p>创建于 2026-10-18 23:10 23:10 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class XxlJobContextPropagation {
+
+    private XxlJobContextPropagation() {
+    }
+
+    /**
+     * 包装任务，捕获当前线程的上下文
+     *
+     * @param task 任务
+     * @return {@link Runnable}
+     */
+    public static Runnable wrap(Runnable task) {
+        final XxlJobContextSnapshot snapshot = XxlJobContextSnapshot.capture();
+        return () -> {
+            final XxlJobContextSnapshot previous = snapshot.apply();
+            try {
+                task.run();
+            } finally {
+                previous.restore();
+            }
+        };
+    }
+
+    /**
+     * 包装任务，捕获当前线程的上下文
+     *
+     * @param task 任务
+     * @param <V>  返回值类型
+     * @return {@link Callable}
+     */
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        final XxlJobContextSnapshot snapshot = XxlJobContextSnapshot.capture();
+        return () -> {
+            final XxlJobContextSnapshot previous = snapshot.apply();
+            try {
+                return task.call();
+            } finally {
+                previous.restore();
+            }
+        };
+    }
+
+    /**
+     * 包装{@link Executor}，每次提交时捕获提交线程的上下文
+     *
+     * @param executor {@link Executor}
+     * @return {@link Executor}
+     */
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+
+    /**
+     * 包装{@link ExecutorService}，每次提交时捕获提交线程的上下文，关闭等操作直接委托
+     *
+     * @param executorService {@link ExecutorService}
+     * @return {@link ExecutorService}
+     */
+    public static ExecutorService wrap(ExecutorService executorService) {
+        if (executorService instanceof XxlJobContextExecutorService) {
+            return executorService;
+        }
+        return new XxlJobContextExecutorService(executorService);
+    }
+
+    /**
+     * 创建专属于当前任务的{@link ForkJoinPool}，所有工作线程使用当前线程的上下文
+     *
+     * @param parallelism 并行度
+     * @return {@link ForkJoinPool}
+     */
+    public static ForkJoinPool newForkJoinPool(int parallelism) {
+        final XxlJobContextSnapshot snapshot = XxlJobContextSnapshot.capture();
+        return new ForkJoinPool(parallelism, pool -> new ContextWorkerThread(pool, snapshot), null, false);
+    }
+
+    /**
+     * 启动时恢复上下文的工作线程
+     */
+    private static final class ContextWorkerThread extends ForkJoinWorkerThread {
+
+        private final XxlJobContextSnapshot snapshot;
+
+        private ContextWorkerThread(ForkJoinPool pool, XxlJobContextSnapshot snapshot) {
+            super(pool);
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            this.snapshot.restore();
+        }
+    }
+}
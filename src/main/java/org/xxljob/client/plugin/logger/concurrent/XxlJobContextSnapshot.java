@@ -0,0 +1,59 @@
+package org.xxljob.client.plugin.logger.concurrent;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+/**
+ * <p>提交任务时捕获的{@link XxlJobContext}和{@link MDC}，在执行任务的线程中恢复，任务结束后还原该线程原有的上下文</p>
+ * <p>提交线程没有任务上下文时同样会在执行期间清除执行线程的上下文，避免线程池线程通过{@link InheritableThreadLocal}继承的过期上下文把日志写入其他任务的日志文件</p>
+ * <p>创建于 2026-10-18 23:00 23:00 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+final class XxlJobContextSnapshot {
+
+    private final XxlJobContext xxlJobContext;
+
+    private final Map<String, String> mdc;
+
+    private XxlJobContextSnapshot(XxlJobContext xxlJobContext, Map<String, String> mdc) {
+        this.xxlJobContext = xxlJobContext;
+        this.mdc = mdc;
+    }
+
+    /**
+     * 捕获当前线程的上下文
+     *
+     * @return {@link XxlJobContextSnapshot}
+     */
+    static XxlJobContextSnapshot capture() {
+        return new XxlJobContextSnapshot(XxlJobContext.getXxlJobContext(), MDC.getCopyOfContextMap());
+    }
+
+    /**
+     * 在当前线程恢复捕获的上下文
+     *
+     * @return 当前线程原有的上下文，用于{@link #restore()}
+     */
+    XxlJobContextSnapshot apply() {
+        final XxlJobContextSnapshot previous = capture();
+        this.restore();
+        return previous;
+    }
+
+    /**
+     * 将当前线程的上下文设置为该快照
+     */
+    void restore() {
+        XxlJobContext.setXxlJobContext(this.xxlJobContext);
+        if (null == this.mdc || this.mdc.isEmpty()) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(this.mdc);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.xxljob.client.plugin.logger.encoder;
+
+import org.xxljob.client.plugin.logger.layout.LogEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>日志行编码器，每个线程复用一组{@link StringBuilder}、{@link CharBuffer}、{@link ByteBuffer}和{@link CharsetEncoder}，
+ * 日志内容直接渲染到{@link #builder()}中，再一次性编码为UTF-8字节交给写出组件，不产生中间{@link String}</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>通过{@link #acquire()}获取，使用完毕必须调用{@link #release()}</li>
+ *         <li>渲染过程中再次输出日志（如参数的toString中输出日志）时，使用临时创建的编码器</li>
+ *         <li>因超大异常堆栈扩容的缓冲区在释放时缩回初始大小，避免长期占用内存</li>
+ *     </ul>
+ * </p>
+ * <p>创建于 2026-10-18 15:02 15:02 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class LineEncoder {
+
+    /**
+     * 行分隔符，与{@code XxlJobFileAppender#appendLog}保持一致
+     */
+    public static final String LINE_SEPARATOR = "\r\n";
+
+    /**
+     * 缓冲区初始大小
+     */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /**
+     * 释放时允许保留的最大缓冲区大小
+     */
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<LineEncoder> LOCAL = ThreadLocal.withInitial(LineEncoder::new);
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private final int maxBytesPerChar = (int) Math.ceil(this.encoder.maxBytesPerChar());
+
+    private StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+
+    private CharBuffer charBuffer = CharBuffer.allocate(INITIAL_CAPACITY);
+
+    private ByteBuffer byteBuffer = ByteBuffer.allocate(INITIAL_CAPACITY * this.maxBytesPerChar);
+
+    /**
+     * 复用的日志事件
+     */
+    private final LogEvent event = new LogEvent();
+
+    private boolean inUse;
+
+    private final boolean pooled;
+
+    private LineEncoder() {
+        this(true);
+    }
+
+    private LineEncoder(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * 获取当前线程的编码器，日志文本构造器已清空
+     *
+     * @return {@link LineEncoder}
+     */
+    public static LineEncoder acquire() {
+        final LineEncoder encoder = LOCAL.get();
+        if (encoder.inUse) {
+            return new LineEncoder(false);
+        }
+
+        encoder.inUse = true;
+        encoder.builder.setLength(0);
+        return encoder;
+    }
+
+    /**
+     * 日志文本构造器
+     *
+     * @return {@link StringBuilder}
+     */
+    public StringBuilder builder() {
+        return this.builder;
+    }
+
+    /**
+     * 当前线程复用的日志事件，{@link #release()}时清空
+     *
+     * @return {@link LogEvent}
+     */
+    public LogEvent event() {
+        return this.event;
+    }
+
+    /**
+     * 追加行分隔符后编码为UTF-8，返回的{@link ByteBuffer}在{@link #release()}之前有效
+     *
+     * @return {@link ByteBuffer}
+     */
+    public ByteBuffer encode() {
+        final StringBuilder builder = this.builder;
+        builder.append(LINE_SEPARATOR);
+
+        final int length = builder.length();
+        if (this.charBuffer.capacity() < length) {
+            this.charBuffer = CharBuffer.allocate(length);
+        }
+        final int maxBytes = length * this.maxBytesPerChar;
+        if (this.byteBuffer.capacity() < maxBytes) {
+            this.byteBuffer = ByteBuffer.allocate(maxBytes);
+        }
+
+        final CharBuffer chars = this.charBuffer;
+        builder.getChars(0, length, chars.array(), 0);
+        chars.clear().limit(length);
+
+        final ByteBuffer bytes = this.byteBuffer;
+        bytes.clear();
+        this.encoder.reset();
+        // 按最大字节数分配，一次编码即可完成
+        this.encoder.encode(chars, bytes, true);
+        this.encoder.flush(bytes);
+        bytes.flip();
+        return bytes;
+    }
+
+    /**
+     * 释放编码器，超出保留大小的缓冲区缩回初始大小
+     */
+    public void release() {
+        if (!this.pooled) {
+            return;
+        }
+
+        this.event.clear();
+        if (this.builder.capacity() > MAX_RETAINED_CAPACITY) {
+            this.builder = new StringBuilder(INITIAL_CAPACITY);
+        }
+        if (this.charBuffer.capacity() > MAX_RETAINED_CAPACITY) {
+            this.charBuffer = CharBuffer.allocate(INITIAL_CAPACITY);
+        }
+        if (this.byteBuffer.capacity() > MAX_RETAINED_CAPACITY * this.maxBytesPerChar) {
+            this.byteBuffer = ByteBuffer.allocate(INITIAL_CAPACITY * this.maxBytesPerChar);
+        }
+        this.inUse = false;
+    }
+}
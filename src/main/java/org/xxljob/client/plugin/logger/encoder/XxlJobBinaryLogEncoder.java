@@ -0,0 +1,456 @@
+package org.xxljob.client.plugin.logger.encoder;
+
+import org.xxljob.client.plugin.logger.appender.XxlJobLogAppender;
+import org.xxljob.client.plugin.logger.layout.LogEvent;
+import org.xxljob.client.plugin.logger.layout.MessageFormats;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>紧凑的二进制日志格式编码，日志模板、线程名称、调用方、日志级别等重复出现的字符串在每个日志文件中只写一次，
+ * 每条日志只写时间差、字符串编号和参数值</p>
+ * <p>
+ * 记录格式：
+ *     <ul>
+ *         <li>每条记录为{@code 0xFF 长度(varint) 内容 \r\n}，{@code 0xFF}不会出现在UTF-8文本中，可以与{@code xxl-job}追加的文本行混合在同一文件中</li>
+ *         <li>{@link #TYPE_HEADER}：格式版本、进程pid、日期格式，开始新的会话并清空字典，每个文件第一次写出以及日期格式、pid变化时写出</li>
+ *         <li>{@link #TYPE_DEFINE}：字典项，按出现顺序从0编号，在第一次使用前写出</li>
+ *         <li>{@link #TYPE_EVENT}：与上条日志的时间差(zigzag varint)、级别、traceId、上下文、线程、调用方、行号、模板、参数、异常堆栈</li>
+ *         <li>字符串引用为varint：0为不存在，奇数为内联字符串，长度为{@code n >>> 1}，偶数为字典编号{@code (n >>> 1) - 1}</li>
+ *         <li>参数按类型写出：整数为zigzag varint，{@link Double}为8字节，布尔值、null只写类型，其他参数按占位符替换的规则渲染为字符串</li>
+ *     </ul>
+ * </p>
+ * <p>
+ * 同一日志文件的编码和写出在文件字典的锁内完成，保证字典项先于引用它的记录写入文件；
+ * 写出组件必须按字节写出，{@link org.xxljob.client.plugin.logger.appender.XxlJobFileLogAppender}会按文本解码，不能使用；
+ * 日志行偏移索引和文件大小限制按文本行处理，不能与二进制格式同时使用，
+{@link org.xxljob.client.plugin.logger.XxlJobLogger#setBinaryEncoder(XxlJobBinaryLogEncoder)}遇到这些组合时抛出{@link IllegalStateException}
+ * </p>
+ * <p>读取时由{@link org.xxljob.client.plugin.logger.reader.XxlJobBinaryLogDecoder}还原为默认格式的文本</p>
+ * <p>创建于 2026-10-19 01:05 01:05 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class XxlJobBinaryLogEncoder {
+
+    /**
+     * 记录起始字节
+     */
+    public static final byte MARKER = (byte) 0xFF;
+
+    /**
+     * 格式版本
+     */
+    public static final int VERSION = 1;
+
+    public static final byte TYPE_HEADER = 0;
+
+    public static final byte TYPE_DEFINE = 1;
+
+    public static final byte TYPE_EVENT = 2;
+
+    public static final byte ARG_NULL = 0;
+
+    public static final byte ARG_LONG = 1;
+
+    public static final byte ARG_DOUBLE = 2;
+
+    public static final byte ARG_TRUE = 3;
+
+    public static final byte ARG_FALSE = 4;
+
+    public static final byte ARG_STRING = 5;
+
+    /**
+     * 默认每个文件最多的字典项
+     */
+    public static final int DEFAULT_MAX_DICTIONARY_SIZE = 4096;
+
+    /**
+     * 默认最多同时记录字典的文件数
+     */
+    public static final int DEFAULT_MAX_FILES = 256;
+
+    /**
+     * 超过该长度的字符串直接内联，不进入字典
+     */
+    private static final int MAX_INTERNED_LENGTH = 512;
+
+    /**
+     * 记录头预留的字节数：起始字节和最长5字节的长度
+     */
+    private static final int RECORD_HEADER_BYTES = 6;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxDictionarySize;
+
+    private final int maxFiles;
+
+    private final ConcurrentHashMap<String, FileDictionary> dictionaries = new ConcurrentHashMap<>();
+
+    /**
+     * 每个文件最多{@link #DEFAULT_MAX_DICTIONARY_SIZE}个字典项，最多记录{@link #DEFAULT_MAX_FILES}个文件的字典
+     */
+    public XxlJobBinaryLogEncoder() {
+        this(DEFAULT_MAX_DICTIONARY_SIZE, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * @param maxDictionarySize 每个文件最多的字典项，超出后新的字符串直接内联
+     * @param maxFiles          最多同时记录字典的文件数，超出时关闭任意一个文件的字典，该文件再次写出时开始新的会话
+     */
+    public XxlJobBinaryLogEncoder(int maxDictionarySize, int maxFiles) {
+        if (maxDictionarySize < 0 || maxFiles <= 0) {
+            throw new IllegalArgumentException("maxDictionarySize must not be negative and maxFiles must be positive");
+        }
+
+        this.maxDictionarySize = maxDictionarySize;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * 编码一条日志并交给写出组件写出
+     *
+     * @param appender   写出组件，必须按字节写出
+     * @param event      日志事件，使用时间、级别、pid、线程、调用方、Logger名称、日志信息、参数和任务日志文件
+     * @param dateFormat 读取时还原的日期格式
+     * @param trace      traceId，为null时不输出
+     * @param context    已渲染的上下文信息，为null时不输出
+     * @param throwable  已渲染的异常堆栈，为null时不输出
+     * @return 写出的字节数
+     */
+    public int append(XxlJobLogAppender appender, LogEvent event, String dateFormat, String trace, String context, String throwable) {
+        final String logFileName = event.getLogFileName();
+        while (true) {
+            final FileDictionary dictionary = this.dictionary(logFileName);
+            synchronized (dictionary) {
+                // 已被关闭的字典，其后的记录属于新的会话
+                if (dictionary.closed) {
+                    continue;
+                }
+
+                boolean written = false;
+                try {
+                    dictionary.encode(event, dateFormat, trace, context, throwable, this.maxDictionarySize);
+                    final int byteCount = dictionary.position;
+                    appender.append(logFileName, event.getLevel(), ByteBuffer.wrap(dictionary.buffer, 0, byteCount));
+                    written = true;
+                    return byteCount;
+                } finally {
+                    // 字典项可能未写入文件，下次写出时开始新的会话
+                    if (!written) {
+                        dictionary.started = false;
+                    }
+                    dictionary.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * 任务执行结束，释放该任务日志文件的字典，再次写出时开始新的会话
+     *
+     * @param logFileName 任务日志文件
+     */
+    public void complete(String logFileName) {
+        final FileDictionary dictionary = this.dictionaries.get(logFileName);
+        if (null != dictionary) {
+            this.close(logFileName, dictionary);
+        }
+    }
+
+    private FileDictionary dictionary(String logFileName) {
+        FileDictionary dictionary = this.dictionaries.get(logFileName);
+        if (null != dictionary) {
+            return dictionary;
+        }
+
+        if (this.dictionaries.size() >= this.maxFiles) {
+            final Iterator<Map.Entry<String, FileDictionary>> iterator = this.dictionaries.entrySet().iterator();
+            if (iterator.hasNext()) {
+                final Map.Entry<String, FileDictionary> eldest = iterator.next();
+                this.close(eldest.getKey(), eldest.getValue());
+            }
+        }
+        return this.dictionaries.computeIfAbsent(logFileName, key -> new FileDictionary());
+    }
+
+    /**
+     * 在字典的锁内关闭并移除，保证新会话的记录在旧会话的记录之后写出
+     */
+    private void close(String logFileName, FileDictionary dictionary) {
+        synchronized (dictionary) {
+            dictionary.closed = true;
+            this.dictionaries.remove(logFileName, dictionary);
+        }
+    }
+
+    /**
+     * 一个日志文件当前会话的字典和编码缓冲区
+     */
+    private static final class FileDictionary {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        private final StringBuilder scratch = new StringBuilder();
+
+        private byte[] buffer = new byte[INITIAL_CAPACITY];
+
+        private int position;
+
+        private boolean started;
+
+        private String dateFormat;
+
+        private long pid;
+
+        private long lastTimestamp;
+
+        private boolean closed;
+
+        private void encode(LogEvent event, String dateFormat, String trace, String context, String throwable, int maxDictionarySize) {
+            this.position = 0;
+            if (!this.started || this.pid != event.getPid() || !this.dateFormat.equals(dateFormat)) {
+                this.writeHeader(event.getPid(), dateFormat);
+            }
+
+            // 先写出新的字典项，再写出引用它们的记录
+            final StackTraceElement caller = event.getCaller();
+            final long level = this.intern(event.getLevel().toString(), maxDictionarySize);
+            final long traceRef = null == trace ? 0 : this.intern(trace, maxDictionarySize);
+            final long contextRef = null == context ? 0 : this.intern(context, maxDictionarySize);
+            final long thread = this.intern(event.getThreadName(), maxDictionarySize);
+            final CharSequence callerName;
+            if (null == caller) {
+                callerName = null == event.getLoggerName() ? "Unknown" : event.getLoggerName();
+            } else {
+                this.scratch.setLength(0);
+                this.scratch.append(caller.getClassName()).append('#').append(caller.getMethodName());
+                callerName = this.scratch;
+            }
+            final long callerRef = this.intern(callerName, maxDictionarySize);
+            final long template = null == event.getRawMessage() ? 0 : this.intern(event.getRawMessage(), maxDictionarySize);
+
+            final int start = this.beginRecord(TYPE_EVENT);
+            this.writeVarLong(zigzag(event.getTimestamp() - this.lastTimestamp));
+            this.lastTimestamp = event.getTimestamp();
+            this.writeRef(level, event.getLevel().toString());
+            this.writeRef(traceRef, trace);
+            this.writeRef(contextRef, context);
+            this.writeRef(thread, event.getThreadName());
+            this.writeRef(callerRef, callerName);
+            this.writeVarLong(null == caller ? 0 : zigzag(caller.getLineNumber()) + 1);
+            this.writeRef(template, event.getRawMessage());
+            this.writeArgs(event.getArgs());
+            this.writeRef(null == throwable ? 0 : 1, throwable);
+            this.endRecord(start);
+        }
+
+        private void writeHeader(long pid, String dateFormat) {
+            this.ids.clear();
+            this.started = true;
+            this.pid = pid;
+            this.dateFormat = dateFormat;
+            this.lastTimestamp = 0;
+
+            final int start = this.beginRecord(TYPE_HEADER);
+            this.writeVarLong(VERSION);
+            this.writeVarLong(zigzag(pid));
+            this.writeRef(1, dateFormat);
+            this.endRecord(start);
+        }
+
+        /**
+         * 返回字符串引用，新字符串写出字典项；过长或字典已满时返回内联标记1，由{@link #writeRef(long, CharSequence)}内联写出
+         */
+        private long intern(CharSequence value, int maxDictionarySize) {
+            if (value.length() > MAX_INTERNED_LENGTH) {
+                return 1;
+            }
+
+            final String key = value.toString();
+            final Integer id = this.ids.get(key);
+            if (null != id) {
+                return ((long) id + 1) << 1;
+            }
+            if (this.ids.size() >= maxDictionarySize) {
+                return 1;
+            }
+
+            final int newId = this.ids.size();
+            this.ids.put(key, newId);
+            final int start = this.beginRecord(TYPE_DEFINE);
+            this.writeUtf8(key);
+            this.endRecord(start);
+            return ((long) newId + 1) << 1;
+        }
+
+        /**
+         * 写出字符串引用，内联标记时写出{@code 长度 << 1 | 1}和UTF-8内容
+         */
+        private void writeRef(long ref, CharSequence value) {
+            if (ref != 1) {
+                this.writeVarLong(ref);
+                return;
+            }
+            this.writeInline(value);
+        }
+
+        private void writeInline(CharSequence value) {
+            // 先按最大长度预留varint，写出内容后再回填实际长度
+            this.ensureCapacity(5 + value.length() * 3);
+            final int lengthStart = this.position;
+            this.position += 5;
+            this.writeUtf8(value);
+            final int length = this.position - lengthStart - 5;
+            final long ref = ((long) length << 1) | 1;
+            final int refSize = varLongSize(ref);
+            System.arraycopy(this.buffer, lengthStart + 5, this.buffer, lengthStart + refSize, length);
+            this.position = lengthStart;
+            this.writeVarLong(ref);
+            this.position += length;
+        }
+
+        private void writeArgs(Object[] args) {
+            if (null == args) {
+                this.writeVarLong(0);
+                return;
+            }
+
+            this.writeVarLong(args.length + 1L);
+            for (Object arg : args) {
+                this.ensureCapacity(9);
+                if (null == arg) {
+                    this.buffer[this.position++] = ARG_NULL;
+                } else if (arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte) {
+                    this.buffer[this.position++] = ARG_LONG;
+                    this.writeVarLong(zigzag(((Number) arg).longValue()));
+                } else if (arg instanceof Double) {
+                    this.buffer[this.position++] = ARG_DOUBLE;
+                    final long bits = Double.doubleToRawLongBits((Double) arg);
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        this.buffer[this.position++] = (byte) (bits >>> shift);
+                    }
+                } else if (arg instanceof Boolean) {
+                    this.buffer[this.position++] = (Boolean) arg ? ARG_TRUE : ARG_FALSE;
+                } else {
+                    this.buffer[this.position++] = ARG_STRING;
+                    if (arg instanceof String) {
+                        this.writeInline((String) arg);
+                    } else {
+                        this.scratch.setLength(0);
+                        MessageFormats.appendParameter(arg, this.scratch);
+                        this.writeInline(this.scratch);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 开始一条记录，预留记录头，返回记录起始位置
+         */
+        private int beginRecord(byte type) {
+            this.ensureCapacity(RECORD_HEADER_BYTES + 1);
+            final int start = this.position;
+            this.buffer[start] = MARKER;
+            this.position = start + RECORD_HEADER_BYTES;
+            this.buffer[this.position++] = type;
+            return start;
+        }
+
+        /**
+         * 回填记录长度，内容前移到长度之后，追加{@code \r\n}
+         */
+        private void endRecord(int start) {
+            final int contentStart = start + RECORD_HEADER_BYTES;
+            final int length = this.position - contentStart;
+            this.position = start + 1;
+            this.writeVarLong(length);
+            System.arraycopy(this.buffer, contentStart, this.buffer, this.position, length);
+            this.position += length;
+
+            this.ensureCapacity(2);
+            this.buffer[this.position++] = '\r';
+            this.buffer[this.position++] = '\n';
+        }
+
+        private void writeVarLong(long value) {
+            this.ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                this.buffer[this.position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.buffer[this.position++] = (byte) value;
+        }
+
+        private void writeUtf8(CharSequence value) {
+            final int length = value.length();
+            this.ensureCapacity(length * 3);
+            final byte[] buffer = this.buffer;
+            int position = this.position;
+            for (int i = 0; i < length; i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // 不成对的代理字符，与String#getBytes一致替换为'?'
+                    buffer[position++] = '?';
+                } else {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            this.position = position;
+        }
+
+        private void ensureCapacity(int additional) {
+            final int required = this.position + additional;
+            if (required > this.buffer.length) {
+                final byte[] grown = new byte[Math.max(required, this.buffer.length << 1)];
+                System.arraycopy(this.buffer, 0, grown, 0, this.position);
+                this.buffer = grown;
+            }
+        }
+
+        /**
+         * 写出后缩回超出初始大小的缓冲区，避免长时间持有大数组
+         */
+        private void release() {
+            if (this.buffer.length > INITIAL_CAPACITY * 64) {
+                this.buffer = new byte[INITIAL_CAPACITY];
+            }
+            this.position = 0;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+        private static int varLongSize(long value) {
+            int size = 1;
+            while ((value & ~0x7FL) != 0) {
+                size++;
+                value >>>= 7;
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.xxljob.client.plugin.logger.handler;
+
+import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.handler.IJobHandler;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
+
+/**
+ * <p>包装任务处理器，{@link IJobHandler#execute()}结束后(包括抛出异常)调用{@link XxlJobLogger#complete()}</p>
+ * <p>
+ * 异步、多线程写出、内存映射写出、二进制格式和日志归档都依赖{@link XxlJobLogger#complete()}写出剩余日志、释放日志文件句柄，
+ * 未调用时日志可能在任务结束后仍未写出，调度中心查看日志时缺少最后的内容。
+ * xxl-job在处理函数返回后才输出{@code execute end}行，该行由{@code XxlJobFileAppender.appendLog}直接写入文件，位于本插件的日志之后
+ * </p>
+ * <pre>{@code
+ * // 手动注册的处理器
+ * XxlJobExecutor.registJobHandler("demoJobHandler", XxlJobLoggerJobHandler.wrap(new DemoJobHandler()));
+ * // @XxlJob注解的方法，执行器启动后包装
+ * XxlJobLoggerJobHandler.wrapRegistered("demoJobHandler", "shardingJobHandler");
+ * }</pre>
+ * <p>创建于 2026-10-19 10:20 10:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class XxlJobLoggerJobHandler extends IJobHandler {
+
+    private final IJobHandler delegate;
+
+    private XxlJobLoggerJobHandler(IJobHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * 包装任务处理器，已包装的处理器直接返回
+     *
+     * @param handler 任务处理器
+     * @return 结束时调用{@link XxlJobLogger#complete()}的处理器
+     */
+    public static IJobHandler wrap(IJobHandler handler) {
+        if (null == handler || handler instanceof XxlJobLoggerJobHandler) {
+            return handler;
+        }
+        return new XxlJobLoggerJobHandler(handler);
+    }
+
+    /**
+     * 包装执行器中已注册的任务处理器，用于{@code @XxlJob}注解的方法，需在执行器注册处理器之后、任务触发之前调用
+     *
+     * @param handlerNames 任务处理器名称
+     */
+    public static void wrapRegistered(String... handlerNames) {
+        for (String handlerName : handlerNames) {
+            final IJobHandler handler = XxlJobExecutor.loadJobHandler(handlerName);
+            if (null == handler) {
+                throw new IllegalArgumentException("job handler not registered: " + handlerName);
+            }
+            XxlJobExecutor.registJobHandler(handlerName, wrap(handler));
+        }
+    }
+
+    /**
+     * 被包装的任务处理器
+     */
+    public IJobHandler getDelegate() {
+        return this.delegate;
+    }
+
+    @Override
+    public void execute() throws Exception {
+        try {
+            this.delegate.execute();
+        } finally {
+            XxlJobLoggerFactory.getLogger().complete();
+        }
+    }
+
+    @Override
+    public void init() throws Exception {
+        this.delegate.init();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.delegate.destroy();
+    }
+}
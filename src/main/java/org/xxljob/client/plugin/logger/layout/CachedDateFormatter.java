@@ -0,0 +1,163 @@
+package org.xxljob.client.plugin.logger.layout;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * <p>带缓存的日志时间格式化，同一秒内只格式化一次，毫秒部分直接在输出中替换</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>基于线程安全的{@link DateTimeFormatter}，格式语法同{@link DateTimeFormatter#ofPattern(String)}</li>
+ *         <li>缓存的格式化结果为不可变对象，多线程无锁读取</li>
+ *         <li>毫秒位置在每秒第一次格式化时确定，小时、日期、月份名称等变长字段改变宽度后重新定位</li>
+ *         <li>无法定位毫秒位置的秒（如非数字毫秒）退化为按毫秒缓存</li>
+ *     </ul>
+ * </p>
+ * <p>创建于 2026-10-18 13:05 13:05 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class CachedDateFormatter {
+
+    private static final int MILLIS_DIGITS = 3;
+
+    private final String pattern;
+
+    private final DateTimeFormatter formatter;
+
+    /**
+     * 格式不包含毫秒
+     */
+    private static final int NO_MILLIS = -1;
+
+    /**
+     * 无法定位毫秒，按毫秒缓存
+     */
+    private static final int UNLOCATED = -2;
+
+    private volatile CachedText cache = new CachedText(Long.MIN_VALUE, NO_MILLIS, Long.MIN_VALUE, new char[0]);
+
+    /**
+     * 编译日期格式
+     *
+     * @param pattern 日期格式
+     * @throws IllegalArgumentException 日期格式不合法
+     */
+    public CachedDateFormatter(String pattern) {
+        this.pattern = pattern;
+        this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(ZoneId.systemDefault());
+    }
+
+    public String getPattern() {
+        return this.pattern;
+    }
+
+    /**
+     * 将时间格式化后直接追加到{@code builder}
+     *
+     * @param epochMillis 毫秒时间戳
+     * @param builder     日志文本构造器
+     */
+    public void format(long epochMillis, StringBuilder builder) {
+        final long second = Math.floorDiv(epochMillis, 1000L);
+        CachedText cached = this.cache;
+        if (cached.second != second || (cached.millisIndex == UNLOCATED && cached.epochMillis != epochMillis)) {
+            cached = cached.second == second ? this.formatUnlocated(second, epochMillis) : this.formatSecond(second, epochMillis);
+            this.cache = cached;
+        }
+
+        final int start = builder.length();
+        builder.append(cached.text);
+        final int millisIndex = cached.millisIndex;
+        if (millisIndex < 0) {
+            return;
+        }
+
+        // 同一秒内只替换毫秒部分
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        for (int i = millisIndex + MILLIS_DIGITS - 1; i >= millisIndex; i--) {
+            builder.setCharAt(start + i, (char) ('0' + millis % 10));
+            millis /= 10;
+        }
+    }
+
+    /**
+     * 格式化
+     *
+     * @param epochMillis 毫秒时间戳
+     * @return {@link String}
+     */
+    public String format(long epochMillis) {
+        final StringBuilder builder = new StringBuilder(this.pattern.length() + 8);
+        this.format(epochMillis, builder);
+        return builder.toString();
+    }
+
+    /**
+     * 格式化新的一秒，比较该秒内0毫秒和999毫秒的格式化结果，只有连续的三位数字不同时才能直接替换毫秒
+     */
+    private CachedText formatSecond(long second, long epochMillis) {
+        final String min = this.formatter.format(Instant.ofEpochMilli(second * 1000L));
+        final String max = this.formatter.format(Instant.ofEpochMilli(second * 1000L + 999));
+        if (min.equals(max)) {
+            return new CachedText(second, NO_MILLIS, epochMillis, min.toCharArray());
+        }
+        if (min.length() != max.length()) {
+            return this.formatUnlocated(second, epochMillis);
+        }
+
+        int first = -1, last = -1;
+        for (int i = 0; i < min.length(); i++) {
+            if (min.charAt(i) != max.charAt(i)) {
+                if (first == -1) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+
+        if (last - first + 1 != MILLIS_DIGITS || !min.regionMatches(first, "000", 0, MILLIS_DIGITS)
+                || !max.regionMatches(first, "999", 0, MILLIS_DIGITS)) {
+            return this.formatUnlocated(second, epochMillis);
+        }
+        return new CachedText(second, first, epochMillis, min.toCharArray());
+    }
+
+    /**
+     * 无法定位毫秒的秒，按毫秒完整格式化
+     */
+    private CachedText formatUnlocated(long second, long epochMillis) {
+        return new CachedText(second, UNLOCATED, epochMillis, this.formatter.format(Instant.ofEpochMilli(epochMillis)).toCharArray());
+    }
+
+    /**
+     * 不可变的缓存结果
+     */
+    private static final class CachedText {
+
+        private final long second;
+
+        /**
+         * 毫秒在{@link #text}中的起始位置，{@link #NO_MILLIS}或{@link #UNLOCATED}
+         */
+        private final int millisIndex;
+
+        /**
+         * 格式化时的毫秒时间戳，{@link #UNLOCATED}时只对该毫秒有效
+         */
+        private final long epochMillis;
+
+        private final char[] text;
+
+        private CachedText(long second, int millisIndex, long epochMillis, char[] text) {
+            this.second = second;
+            this.millisIndex = millisIndex;
+            this.epochMillis = epochMillis;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package org.xxljob.client.plugin.logger.layout;
+
+import org.slf4j.MDC;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>JSON Lines日志格式，每行日志输出一个JSON对象，便于日志采集后直接解析</p>
+ * <p>
+ * 输出字段：
+ *     <ul>
+ *         <li>{@code timestamp}：ISO-8601时间，带时区偏移</li>
+ *         <li>{@code level}、{@code pid}：日志级别、进程pid，pid非法时不输出</li>
+ *         <li>{@link #tracingKey}：{@link MDC}中的traceId，不存在时不输出</li>
+ *         <li>{@code context}：上下文Key及其值，{@link XxlJobContextField}中的Key直接读取任务上下文，值为空的Key不输出</li>
+ *         <li>{@code thread}、{@code logger}、{@code caller}：线程名称、调用方{@link org.slf4j.Logger}名称、{@code class#method:line}，未获取调用方时不输出caller</li>
+ *         <li>{@code message}、{@code template}、{@code args}：格式化后的日志信息、日志模板、参数，没有参数时不输出template和args；
+ *         整数、有限浮点数和布尔参数输出为JSON数值和布尔值，其他参数按占位符替换的规则输出为字符串</li>
+ *         <li>{@code exception}：结构化的异常，包含{@code class}、{@code message}、{@code frames}、{@code framesInCommon}、{@code suppressed}、{@code cause}，
+ *         循环引用的异常只输出{@code class}、{@code message}和{@code circular}</li>
+ *     </ul>
+ * </p>
+ * <p>
+ * 直接写入日志文本构造器，字符串在写入后原地转义，不创建中间{@link String}，不依赖JSON库和反射；
+ * 异常固定输出结构化堆栈，不使用{@link ThrowableRenderer}
+ * </p>
+ * <p>创建于 2026-10-19 00:10 00:10 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class JsonLayout implements Layout {
+
+    /**
+     * 默认日期格式，ISO-8601带时区偏移
+     */
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final StackTraceElement[] EMPTY_TRACE = new StackTraceElement[0];
+
+    private final CachedDateFormatter dateFormatter;
+
+    private final String tracingKey;
+
+    private final String[] contextKeys;
+
+    /**
+     * 与{@link #contextKeys}一一对应，不是内置字段时为null
+     */
+    private final XxlJobContextField[] contextFields;
+
+    /**
+     * 输出{@code traceId}，不输出上下文Key
+     */
+    public JsonLayout() {
+        this("traceId", Collections.emptyList());
+    }
+
+    /**
+     * @param tracingKey  traceId key，为null时不输出
+     * @param contextKeys 上下文Key，按迭代顺序输出
+     */
+    public JsonLayout(String tracingKey, Collection<String> contextKeys) {
+        this(tracingKey, contextKeys, DEFAULT_DATE_FORMAT);
+    }
+
+    /**
+     * @param tracingKey  traceId key，为null时不输出
+     * @param contextKeys 上下文Key，按迭代顺序输出
+     * @param dateFormat  日期格式，语法同{@link java.time.format.DateTimeFormatter}
+     * @throws IllegalArgumentException 日期格式不合法
+     */
+    public JsonLayout(String tracingKey, Collection<String> contextKeys, String dateFormat) {
+        this.dateFormatter = new CachedDateFormatter(dateFormat);
+        this.tracingKey = null == tracingKey || tracingKey.isEmpty() ? null : tracingKey;
+
+        final List<String> keys = new ArrayList<>();
+        if (null != contextKeys) {
+            for (String key : contextKeys) {
+                if (null != key && !key.isEmpty() && !key.equals(this.tracingKey) && !keys.contains(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        this.contextKeys = keys.toArray(new String[0]);
+        this.contextFields = new XxlJobContextField[this.contextKeys.length];
+        for (int i = 0; i < this.contextKeys.length; i++) {
+            this.contextFields[i] = XxlJobContextField.of(this.contextKeys[i]);
+        }
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder builder) {
+        builder.append("{\"timestamp\":\"");
+        this.dateFormatter.format(event.getTimestamp(), builder);
+        builder.append("\",\"level\":\"").append(event.getLevel()).append('"');
+        if (event.getPid() != -1) {
+            builder.append(",\"pid\":").append(event.getPid());
+        }
+
+        if (null != this.tracingKey) {
+            final String traceValue = event.getMdcValue(this.tracingKey);
+            if (null != traceValue && !traceValue.isEmpty()) {
+                appendField(this.tracingKey, builder);
+                appendString(traceValue, builder);
+            }
+        }
+        this.appendContext(event, builder);
+
+        appendField("thread", builder);
+        appendString(event.getThreadName(), builder);
+
+        final StackTraceElement caller = event.getCaller();
+        appendField("logger", builder);
+        appendString(null != event.getLoggerName() ? event.getLoggerName() : null == caller ? "Unknown" : caller.getClassName(), builder);
+        if (null != caller) {
+            appendField("caller", builder);
+            final int start = builder.length();
+            builder.append('"').append(caller.getClassName()).append('#').append(caller.getMethodName()).append(':').append(caller.getLineNumber());
+            escape(builder, start + 1);
+            builder.append('"');
+        }
+
+        final CharSequence message = event.getRawMessage();
+        final Object[] args = event.getArgs();
+        if (null != message) {
+            appendField("message", builder);
+            final int start = builder.length();
+            builder.append('"');
+            MessageFormats.formatTo(message, args, builder);
+            escape(builder, start + 1);
+            builder.append('"');
+
+            if (null != args && args.length > 0) {
+                appendField("template", builder);
+                appendString(message.toString(), builder);
+                appendField("args", builder);
+                builder.append('[');
+                for (int i = 0; i < args.length; i++) {
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    appendValue(args[i], builder);
+                }
+                builder.append(']');
+            }
+        }
+
+        final Throwable throwable = event.getThrowable();
+        if (null != throwable) {
+            appendField("exception", builder);
+            appendThrowable(throwable, EMPTY_TRACE, Collections.newSetFromMap(new IdentityHashMap<>()), builder);
+        }
+        builder.append('}');
+    }
+
+    private void appendContext(LogEvent event, StringBuilder builder) {
+        final String[] keys = this.contextKeys;
+        if (keys.length == 0) {
+            return;
+        }
+
+        boolean isAppend = false;
+        for (int i = 0; i < keys.length; i++) {
+            final int start = builder.length();
+            builder.append(isAppend ? ",\"" : ",\"context\":{\"").append(keys[i]);
+            escape(builder, builder.length() - keys[i].length());
+            builder.append("\":\"");
+
+            final int valueStart = builder.length();
+            final XxlJobContextField field = this.contextFields[i];
+            if (null != field) {
+                if (!field.appendTo(event.getJobId(), event.getLogFileName(), builder)) {
+                    builder.setLength(start);
+                    continue;
+                }
+            } else {
+                final String value = event.getMdcValue(keys[i]);
+                if (null == value || value.isEmpty()) {
+                    builder.setLength(start);
+                    continue;
+                }
+                builder.append(value);
+                escape(builder, valueStart);
+            }
+            builder.append('"');
+            isAppend = true;
+        }
+
+        if (isAppend) {
+            builder.append('}');
+        }
+    }
+
+    /**
+     * 追加结构化异常，与外层异常相同的栈底帧只输出数量
+     */
+    private static void appendThrowable(Throwable throwable, StackTraceElement[] enclosing, Set<Throwable> rendered, StringBuilder builder) {
+        builder.append("{\"class\":");
+        appendString(throwable.getClass().getName(), builder);
+
+        final int messageStart = builder.length();
+        try {
+            final String message = throwable.getMessage();
+            if (null != message) {
+                appendField("message", builder);
+                appendString(message, builder);
+            }
+        } catch (Throwable e) {
+            builder.setLength(messageStart);
+        }
+
+        if (!rendered.add(throwable)) {
+            builder.append(",\"circular\":true}");
+            return;
+        }
+
+        final StackTraceElement[] trace = throwable.getStackTrace();
+        int last = trace.length - 1;
+        int enclosingLast = enclosing.length - 1;
+        while (last >= 0 && enclosingLast >= 0 && trace[last].equals(enclosing[enclosingLast])) {
+            last--;
+            enclosingLast--;
+        }
+
+        appendField("frames", builder);
+        builder.append('[');
+        for (int i = 0; i <= last; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            appendFrame(trace[i], builder);
+        }
+        builder.append(']');
+        if (last < trace.length - 1) {
+            builder.append(",\"framesInCommon\":").append(trace.length - 1 - last);
+        }
+
+        final Throwable[] suppressed = throwable.getSuppressed();
+        if (suppressed.length > 0) {
+            appendField("suppressed", builder);
+            builder.append('[');
+            for (int i = 0; i < suppressed.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendThrowable(suppressed[i], trace, rendered, builder);
+            }
+            builder.append(']');
+        }
+
+        final Throwable cause = throwable.getCause();
+        if (null != cause) {
+            appendField("cause", builder);
+            appendThrowable(cause, trace, rendered, builder);
+        }
+        builder.append('}');
+    }
+
+    /**
+     * 追加栈帧，格式同{@link StackTraceElement#toString()}，不包含模块信息
+     */
+    private static void appendFrame(StackTraceElement element, StringBuilder builder) {
+        final int start = builder.length();
+        builder.append('"').append(element.getClassName()).append('.').append(element.getMethodName()).append('(');
+        if (element.isNativeMethod()) {
+            builder.append("Native Method");
+        } else if (null == element.getFileName()) {
+            builder.append("Unknown Source");
+        } else {
+            builder.append(element.getFileName());
+            if (element.getLineNumber() >= 0) {
+                builder.append(':').append(element.getLineNumber());
+            }
+        }
+        builder.append(')');
+        escape(builder, start + 1);
+        builder.append('"');
+    }
+
+    /**
+     * 追加参数值，整数、有限浮点数和布尔值输出为JSON原始值，其他输出为字符串
+     */
+    private static void appendValue(Object value, StringBuilder builder) {
+        if (null == value) {
+            builder.append("null");
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            builder.append(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            final double number = ((Number) value).doubleValue();
+            if (Double.isFinite(number)) {
+                builder.append(value);
+            } else {
+                builder.append('"').append(value).append('"');
+            }
+        } else if (value instanceof BigInteger || value instanceof BigDecimal || value instanceof Boolean) {
+            builder.append(value);
+        } else {
+            final int start = builder.length();
+            builder.append('"');
+            MessageFormats.appendParameter(value, builder);
+            escape(builder, start + 1);
+            builder.append('"');
+        }
+    }
+
+    /**
+     * 追加字段名，字段名为常量或已去重的Key
+     */
+    private static void appendField(String name, StringBuilder builder) {
+        builder.append(",\"").append(name);
+        escape(builder, builder.length() - name.length());
+        builder.append("\":");
+    }
+
+    private static void appendString(String value, StringBuilder builder) {
+        builder.append('"');
+        final int start = builder.length();
+        builder.append(value);
+        escape(builder, start);
+        builder.append('"');
+    }
+
+    /**
+     * 原地转义{@code builder}中从{@code start}开始的字符：先统计转义后增加的长度，扩容后从尾部向前搬移，不需要额外的缓冲区
+     *
+     * @param builder 日志文本构造器
+     * @param start   起始位置
+     */
+    static void escape(StringBuilder builder, int start) {
+        final int end = builder.length();
+        int extra = 0;
+        for (int i = start; i < end; i++) {
+            final char c = builder.charAt(i);
+            if (c == '"' || c == '\\') {
+                extra++;
+            } else if (c < 0x20) {
+                extra += isShortEscape(c) ? 1 : 5;
+            }
+        }
+        if (extra == 0) {
+            return;
+        }
+
+        builder.setLength(end + extra);
+        int write = end + extra;
+        for (int read = end - 1; read >= start; read--) {
+            final char c = builder.charAt(read);
+            if (c == '"' || c == '\\') {
+                builder.setCharAt(--write, c);
+                builder.setCharAt(--write, '\\');
+            } else if (c >= 0x20) {
+                builder.setCharAt(--write, c);
+            } else if (isShortEscape(c)) {
+                builder.setCharAt(--write, shortEscape(c));
+                builder.setCharAt(--write, '\\');
+            } else {
+                builder.setCharAt(--write, HEX_DIGITS[c & 0xF]);
+                builder.setCharAt(--write, HEX_DIGITS[(c >> 4) & 0xF]);
+                builder.setCharAt(--write, '0');
+                builder.setCharAt(--write, '0');
+                builder.setCharAt(--write, 'u');
+                builder.setCharAt(--write, '\\');
+            }
+        }
+    }
+
+    private static boolean isShortEscape(char c) {
+        return c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\f';
+    }
+
+    private static char shortEscape(char c) {
+        switch (c) {
+            case '\n':
+                return 'n';
+            case '\r':
+                return 'r';
+            case '\t':
+                return 't';
+            case '\b':
+                return 'b';
+            default:
+                return 'f';
+        }
+    }
+}
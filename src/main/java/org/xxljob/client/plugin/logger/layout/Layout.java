@@ -0,0 +1,30 @@
+package org.xxljob.client.plugin.logger.layout;
+
+/**
+ * <p>{@code xxl-job}日志行格式，将{@link LogEvent}渲染到日志文本构造器</p>
+ * <p>实现类必须是线程安全的</p>
+ * <p>创建于 2026-10-18 16:05 16:05 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public interface Layout {
+
+    /**
+     * 渲染一行日志，不包含行分隔符
+     *
+     * @param event   日志事件
+     * @param builder 日志文本构造器
+     */
+    void format(LogEvent event, StringBuilder builder);
+
+    /**
+     * 是否需要调用方信息，不需要时不创建调用方的{@link StackTraceElement}
+     *
+     * @return boolean
+     */
+    default boolean isCallerRequired() {
+        return true;
+    }
+}
@@ -0,0 +1,224 @@
+package org.xxljob.client.plugin.logger.layout;
+
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+
+import java.util.Map;
+
+/**
+ * <p>一行日志的渲染数据，由渲染线程复用，不能在{@link Layout#format(LogEvent, StringBuilder)}之外持有</p>
+ * <p>创建于 2026-10-18 16:08 16:08 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class LogEvent {
+
+    private long timestamp;
+
+    private Level level;
+
+    private long pid = -1;
+
+    private Thread thread;
+
+    private StackTraceElement caller;
+
+    private String loggerName;
+
+    private CharSequence message;
+
+    private Object[] args;
+
+    private Throwable throwable;
+
+    private Map<String, String> mdc;
+
+    private String threadName;
+
+    private long jobId;
+
+    private String logFileName;
+
+    private ThrowableRenderer throwableRenderer;
+
+    /**
+     * 填充日志事件
+     *
+     * @param timestamp  毫秒时间戳
+     * @param level      日志级别
+     * @param pid        进程pid，-1为非法值
+     * @param thread     输出日志的线程
+     * @param caller     调用方，未获取时为null
+     * @param loggerName 调用方{@link org.slf4j.Logger}名称
+     * @param message    日志信息，为日志框架复用的{@link StringBuilder}时只在格式化期间有效
+     * @param args       参数
+     * @param throwable  异常
+     * @return {@link LogEvent}
+     */
+    public LogEvent set(long timestamp, Level level, long pid, Thread thread, StackTraceElement caller,
+                        String loggerName, CharSequence message, Object[] args, Throwable throwable) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.pid = pid;
+        this.thread = thread;
+        this.caller = caller;
+        this.loggerName = loggerName;
+        this.message = message;
+        this.args = args;
+        this.throwable = throwable;
+        return this;
+    }
+
+    /**
+     * 设置日志事件携带的MDC，如日志框架appender传入的事件，为null时读取当前线程的{@link MDC}
+     *
+     * @param mdc MDC
+     * @return {@link LogEvent}
+     */
+    public LogEvent mdc(Map<String, String> mdc) {
+        this.mdc = mdc;
+        return this;
+    }
+
+    /**
+     * 设置输出日志的线程名称，用于日志事件不在输出线程中渲染的场景，为null时使用{@link #getThread()}的名称
+     *
+     * @param threadName 线程名称
+     * @return {@link LogEvent}
+     */
+    public LogEvent threadName(String threadName) {
+        this.threadName = threadName;
+        return this;
+    }
+
+    /**
+     * 设置任务id
+     *
+     * @param jobId 任务id
+     * @return {@link LogEvent}
+     */
+    public LogEvent jobId(long jobId) {
+        this.jobId = jobId;
+        return this;
+    }
+
+    /**
+     * 设置任务日志文件
+     *
+     * @param logFileName 任务日志文件
+     * @return {@link LogEvent}
+     */
+    public LogEvent logFileName(String logFileName) {
+        this.logFileName = logFileName;
+        return this;
+    }
+
+    /**
+     * 设置异常堆栈渲染，为null时使用{@link Throwable#printStackTrace()}
+     *
+     * @param throwableRenderer 异常堆栈渲染
+     * @return {@link LogEvent}
+     */
+    public LogEvent throwableRenderer(ThrowableRenderer throwableRenderer) {
+        this.throwableRenderer = throwableRenderer;
+        return this;
+    }
+
+    /**
+     * 释放引用，避免复用期间持有参数对象
+     */
+    public void clear() {
+        this.set(0, null, -1, null, null, null, null, null, null);
+        this.mdc = null;
+        this.threadName = null;
+        this.jobId = 0;
+        this.logFileName = null;
+        this.throwableRenderer = null;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public Level getLevel() {
+        return this.level;
+    }
+
+    public long getPid() {
+        return this.pid;
+    }
+
+    public Thread getThread() {
+        return this.thread;
+    }
+
+    /**
+     * 输出日志的线程名称
+     *
+     * @return String
+     */
+    public String getThreadName() {
+        if (null != this.threadName) {
+            return this.threadName;
+        }
+        return null == this.thread ? "" : this.thread.getName();
+    }
+
+    public StackTraceElement getCaller() {
+        return this.caller;
+    }
+
+    public String getLoggerName() {
+        return this.loggerName;
+    }
+
+    /**
+     * 日志信息
+     *
+     * @return 不是{@link String}时转换为新的{@link String}，不需要时使用{@link #getRawMessage()}
+     */
+    public String getMessage() {
+        return null == this.message ? null : this.message.toString();
+    }
+
+    /**
+     * 日志信息，有参数时为占位符模板，日志框架传入的可能是复用的{@link StringBuilder}，只在格式化期间有效
+     *
+     * @return CharSequence
+     */
+    public CharSequence getRawMessage() {
+        return this.message;
+    }
+
+    public Object[] getArgs() {
+        return this.args;
+    }
+
+    public Throwable getThrowable() {
+        return this.throwable;
+    }
+
+    public long getJobId() {
+        return this.jobId;
+    }
+
+    public String getLogFileName() {
+        return this.logFileName;
+    }
+
+    public ThrowableRenderer getThrowableRenderer() {
+        return this.throwableRenderer;
+    }
+
+    /**
+     * 读取MDC中的值，事件未携带MDC时读取当前线程的{@link MDC}
+     *
+     * @param key key
+     * @return String
+     */
+    public String getMdcValue(String key) {
+        return null == this.mdc ? MDC.get(key) : this.mdc.get(key);
+    }
+}
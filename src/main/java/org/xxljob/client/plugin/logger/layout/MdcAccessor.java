@@ -0,0 +1,70 @@
+package org.xxljob.client.plugin.logger.layout;
+
+import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <p>一次性读取当前线程的MDC，一行日志需要读取多个MDC值时只访问一次线程本地变量</p>
+ * <p>支持提供{@code Map getPropertyMap()}的{@link MDCAdapter}，如logback，返回的是MDC当前的只读视图，不会复制；
+ * 其他实现返回null，由调用方逐个调用{@link MDC#get(String)}</p>
+ * <p>创建于 2026-10-18 22:50 22:50 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class MdcAccessor {
+
+    /**
+     * 绑定到当前{@link MDCAdapter}的{@code getPropertyMap}，不支持时为null
+     */
+    private static final MethodHandle PROPERTY_MAP = lookupPropertyMap(MDC.getMDCAdapter());
+
+    private MdcAccessor() {
+    }
+
+    /**
+     * 当前线程的MDC
+     *
+     * @return 只读的MDC，MDC为空时返回空Map，不支持时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, String> current() {
+        if (null == PROPERTY_MAP) {
+            return null;
+        }
+
+        try {
+            final Map<String, String> map = (Map<String, String>) PROPERTY_MAP.invoke();
+            return null == map ? Collections.emptyMap() : map;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * 查找{@link MDCAdapter}的{@code getPropertyMap}
+     *
+     * @param adapter {@link MDCAdapter}
+     * @return 绑定到{@code adapter}的{@link MethodHandle}，不支持时返回null
+     */
+    static MethodHandle lookupPropertyMap(MDCAdapter adapter) {
+        if (null == adapter) {
+            return null;
+        }
+
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(adapter.getClass(), "getPropertyMap", MethodType.methodType(Map.class))
+                    .bindTo(adapter);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.xxljob.client.plugin.logger.layout;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * <p>{@code {}}占位符格式化，规则同{@link org.slf4j.helpers.MessageFormatter}，但直接写入日志文本构造器，不创建中间{@link String}</p>
+ * <p>创建于 2026-10-18 15:20 15:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class MessageFormats {
+
+    private static final char DELIMITER_START = '{';
+
+    private static final String DELIMITER = "{}";
+
+    private static final char ESCAPE_CHAR = '\\';
+
+    private MessageFormats() {
+    }
+
+    /**
+     * 格式化{@code {}}占位符，并追加到{@code builder}，没有参数时直接追加，不转换为{@link String}
+     *
+     * @param pattern 日志信息
+     * @param args    参数
+     * @param builder 日志文本构造器
+     */
+    public static void formatTo(CharSequence pattern, Object[] args, StringBuilder builder) {
+        if (pattern instanceof String || null == pattern) {
+            formatTo((String) pattern, args, builder);
+        } else if (null == args || args.length == 0) {
+            builder.append(pattern);
+        } else {
+            formatTo(pattern.toString(), args, builder);
+        }
+    }
+
+    /**
+     * 格式化{@code {}}占位符，并追加到{@code builder}
+     *
+     * @param pattern 日志信息
+     * @param args    参数
+     * @param builder 日志文本构造器
+     */
+    public static void formatTo(String pattern, Object[] args, StringBuilder builder) {
+        if (null == pattern) {
+            return;
+        }
+
+        if (null == args || args.length == 0) {
+            builder.append(pattern);
+            return;
+        }
+
+        int start = 0;
+        for (int index = 0; index < args.length; index++) {
+            final int delimiter = pattern.indexOf(DELIMITER, start);
+            if (delimiter == -1) {
+                break;
+            }
+
+            if (isEscaped(pattern, delimiter)) {
+                if (!isEscaped(pattern, delimiter - 1)) {
+                    // \{} 输出{}，当前参数不消耗
+                    index--;
+                    builder.append(pattern, start, delimiter - 1).append(DELIMITER_START);
+                    start = delimiter + 1;
+                    continue;
+                }
+
+                // \\{} 输出\和参数
+                builder.append(pattern, start, delimiter - 1);
+                appendParameter(args[index], builder, null);
+                start = delimiter + 2;
+                continue;
+            }
+
+            builder.append(pattern, start, delimiter);
+            appendParameter(args[index], builder, null);
+            start = delimiter + 2;
+        }
+
+        builder.append(pattern, start, pattern.length());
+    }
+
+    private static boolean isEscaped(String pattern, int delimiter) {
+        return delimiter >= 1 && pattern.charAt(delimiter - 1) == ESCAPE_CHAR;
+    }
+
+    /**
+     * 追加单个参数，与替换占位符时的输出一致，数组按元素展开
+     *
+     * @param parameter 参数
+     * @param builder   日志文本构造器
+     */
+    public static void appendParameter(Object parameter, StringBuilder builder) {
+        appendParameter(parameter, builder, null);
+    }
+
+    /**
+     * 追加参数，数组按元素展开
+     */
+    private static void appendParameter(Object parameter, StringBuilder builder, Map<Object[], Object> seen) {
+        if (null == parameter) {
+            builder.append("null");
+            return;
+        }
+
+        if (!parameter.getClass().isArray()) {
+            appendObject(parameter, builder);
+            return;
+        }
+
+        if (parameter instanceof boolean[]) {
+            builder.append(Arrays.toString((boolean[]) parameter));
+        } else if (parameter instanceof byte[]) {
+            builder.append(Arrays.toString((byte[]) parameter));
+        } else if (parameter instanceof char[]) {
+            builder.append(Arrays.toString((char[]) parameter));
+        } else if (parameter instanceof short[]) {
+            builder.append(Arrays.toString((short[]) parameter));
+        } else if (parameter instanceof int[]) {
+            builder.append(Arrays.toString((int[]) parameter));
+        } else if (parameter instanceof long[]) {
+            builder.append(Arrays.toString((long[]) parameter));
+        } else if (parameter instanceof float[]) {
+            builder.append(Arrays.toString((float[]) parameter));
+        } else if (parameter instanceof double[]) {
+            builder.append(Arrays.toString((double[]) parameter));
+        } else {
+            appendObjectArray((Object[]) parameter, builder, null == seen ? new IdentityHashMap<>() : seen);
+        }
+    }
+
+    private static void appendObject(Object parameter, StringBuilder builder) {
+        final int length = builder.length();
+        try {
+            builder.append(parameter.toString());
+        } catch (Throwable e) {
+            builder.setLength(length);
+            builder.append("[FAILED toString()]");
+        }
+    }
+
+    private static void appendObjectArray(Object[] array, StringBuilder builder, Map<Object[], Object> seen) {
+        builder.append('[');
+        if (seen.containsKey(array)) {
+            builder.append("...]");
+            return;
+        }
+
+        seen.put(array, null);
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            appendParameter(array[i], builder, seen);
+        }
+        seen.remove(array);
+        builder.append(']');
+    }
+}
@@ -0,0 +1,400 @@
+package org.xxljob.client.plugin.logger.layout;
+
+import org.slf4j.MDC;
+import org.xxljob.client.plugin.logger.encoder.LineEncoder;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>logback风格的日志格式，格式字符串只编译一次，得到按顺序渲染的片段数组</p>
+ * <p>
+ * 支持的转换词：
+ *     <ul>
+ *         <li>{@code %d{pattern}}、{@code %date{pattern}}：日期时间，格式同{@link java.time.format.DateTimeFormatter}</li>
+ *         <li>{@code %p}、{@code %le}、{@code %level}：日志级别</li>
+ *         <li>{@code %pid}：进程pid</li>
+ *         <li>{@code %X{key}}、{@code %mdc{key:-默认值}}：{@link MDC}中的值，{@link XxlJobContextField}中的key直接读取任务上下文</li>
+ *         <li>{@code %t}、{@code %thread}：线程名称</li>
+ *         <li>{@code %c}、{@code %lo}、{@code %logger}：调用方{@link org.slf4j.Logger}名称</li>
+ *         <li>{@code %caller}：{@code class#method:line}，以及{@code %C}/{@code %class}、{@code %M}/{@code %method}、{@code %L}/{@code %line}、{@code %F}/{@code %file}</li>
+ *         <li>{@code %m}、{@code %msg}、{@code %message}：格式化后的日志信息</li>
+ *         <li>{@code %ex}、{@code %exception}、{@code %throwable}：异常堆栈，未声明时追加在行尾，设置了{@link ThrowableRenderer}时由其渲染</li>
+ *         <li>{@code %n}：兼容logback格式，不输出内容，每行日志的行分隔符总是由写出时追加</li>
+ *         <li>{@code %%}：字符{@code %}</li>
+ *     </ul>
+ * 转换词前可以声明宽度，如{@code %-5level}、{@code %5thread}、{@code %.30logger}，超出最大宽度时保留右侧内容
+ * </p>
+ * <p>
+ * 不包含调用方相关转换词时，{@link #isCallerRequired()}返回false，不再创建调用方的{@link StackTraceElement}；
+ * 通过SLF4J桥接输出时不会遍历线程栈，直接调用{@link org.xxljob.client.plugin.logger.XxlJobLogger}时仍需遍历线程栈找到调用方类以判断日志级别
+ * </p>
+ * <p>创建于 2026-10-18 16:20 16:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class PatternLayout implements Layout {
+
+    /**
+     * 默认日期格式
+     */
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    private final String pattern;
+
+    private final Segment[] segments;
+
+    private final boolean callerRequired;
+
+    private PatternLayout(String pattern, Segment[] segments, boolean callerRequired) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.callerRequired = callerRequired;
+    }
+
+    /**
+     * 编译日志格式
+     *
+     * @param pattern 日志格式
+     * @return {@link PatternLayout}
+     * @throws IllegalArgumentException 日志格式不合法
+     */
+    public static PatternLayout compile(String pattern) {
+        if (null == pattern || pattern.isEmpty()) {
+            throw new IllegalArgumentException("pattern must not be empty");
+        }
+        return new Parser(pattern).parse();
+    }
+
+    public String getPattern() {
+        return this.pattern;
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder builder) {
+        for (Segment segment : this.segments) {
+            segment.render(event, builder);
+        }
+    }
+
+    @Override
+    public boolean isCallerRequired() {
+        return this.callerRequired;
+    }
+
+    @Override
+    public String toString() {
+        return this.pattern;
+    }
+
+    /**
+     * 追加日志事件的异常堆栈
+     */
+    private static void appendThrowable(LogEvent event, StringBuilder builder) {
+        final ThrowableRenderer renderer = event.getThrowableRenderer();
+        if (null == renderer) {
+            appendThrowable(event.getThrowable(), builder);
+        } else {
+            renderer.render(event.getThrowable(), event.getLogFileName(), builder);
+        }
+    }
+
+    /**
+     * 追加异常堆栈，去掉末尾的换行符
+     */
+    static void appendThrowable(Throwable throwable, StringBuilder builder) {
+        try (PrintWriter pw = new PrintWriter(new StringBuilderWriter(builder))) {
+            throwable.printStackTrace(pw);
+        }
+
+        int length = builder.length();
+        while (length > 0 && (builder.charAt(length - 1) == '\n' || builder.charAt(length - 1) == '\r')) {
+            length--;
+        }
+        builder.setLength(length);
+    }
+
+    /**
+     * 编译后的格式片段
+     */
+    @FunctionalInterface
+    private interface Segment {
+
+        void render(LogEvent event, StringBuilder builder);
+    }
+
+    /**
+     * 带宽度限制的片段
+     */
+    private static final class PaddedSegment implements Segment {
+
+        private final Segment delegate;
+
+        private final boolean leftAlign;
+
+        private final int minWidth;
+
+        private final int maxWidth;
+
+        private PaddedSegment(Segment delegate, boolean leftAlign, int minWidth, int maxWidth) {
+            this.delegate = delegate;
+            this.leftAlign = leftAlign;
+            this.minWidth = minWidth;
+            this.maxWidth = maxWidth;
+        }
+
+        @Override
+        public void render(LogEvent event, StringBuilder builder) {
+            final int start = builder.length();
+            this.delegate.render(event, builder);
+            final int length = builder.length() - start;
+
+            if (this.maxWidth >= 0 && length > this.maxWidth) {
+                builder.delete(start, start + length - this.maxWidth);
+                return;
+            }
+
+            for (int i = length; i < this.minWidth; i++) {
+                if (this.leftAlign) {
+                    builder.append(' ');
+                } else {
+                    builder.insert(start, ' ');
+                }
+            }
+        }
+    }
+
+    /**
+     * 格式解析器
+     */
+    private static final class Parser {
+
+        private final String pattern;
+
+        private final List<Segment> segments = new ArrayList<>();
+
+        private final StringBuilder literal = new StringBuilder();
+
+        private boolean callerRequired;
+
+        private boolean throwableDeclared;
+
+        private int index;
+
+        private Parser(String pattern) {
+            this.pattern = pattern;
+        }
+
+        private PatternLayout parse() {
+            final String pattern = this.pattern;
+            final int length = pattern.length();
+            while (this.index < length) {
+                final char c = pattern.charAt(this.index);
+                if (c != '%') {
+                    this.literal.append(c);
+                    this.index++;
+                    continue;
+                }
+
+                if (this.index + 1 < length && pattern.charAt(this.index + 1) == '%') {
+                    this.literal.append('%');
+                    this.index += 2;
+                    continue;
+                }
+
+                this.index++;
+                this.flushLiteral();
+                this.parseConversion();
+            }
+            this.flushLiteral();
+
+            // 未声明异常时追加在行尾
+            if (!this.throwableDeclared) {
+                this.segments.add((event, builder) -> {
+                    if (null != event.getThrowable()) {
+                        builder.append(LineEncoder.LINE_SEPARATOR);
+                        appendThrowable(event, builder);
+                    }
+                });
+            }
+
+            return new PatternLayout(pattern, this.segments.toArray(new Segment[0]), this.callerRequired);
+        }
+
+        private void flushLiteral() {
+            if (this.literal.length() == 0) {
+                return;
+            }
+
+            final String text = this.literal.toString();
+            this.literal.setLength(0);
+            this.segments.add((event, builder) -> builder.append(text));
+        }
+
+        private void parseConversion() {
+            final String pattern = this.pattern;
+            final int length = pattern.length();
+
+            boolean leftAlign = false;
+            if (this.index < length && pattern.charAt(this.index) == '-') {
+                leftAlign = true;
+                this.index++;
+            }
+
+            final int minWidth = this.parseNumber(0);
+            int maxWidth = -1;
+            if (this.index < length && pattern.charAt(this.index) == '.') {
+                this.index++;
+                maxWidth = this.parseNumber(-1);
+                if (maxWidth < 0) {
+                    throw new IllegalArgumentException("Missing max width at index " + this.index + " of pattern: " + pattern);
+                }
+            }
+
+            final int wordStart = this.index;
+            while (this.index < length && Character.isLetter(pattern.charAt(this.index))) {
+                this.index++;
+            }
+            final String word = pattern.substring(wordStart, this.index);
+            if (word.isEmpty()) {
+                throw new IllegalArgumentException("Missing conversion word at index " + wordStart + " of pattern: " + pattern);
+            }
+
+            String option = null;
+            if (this.index < length && pattern.charAt(this.index) == '{') {
+                final int end = pattern.indexOf('}', this.index);
+                if (end == -1) {
+                    throw new IllegalArgumentException("Unclosed option at index " + this.index + " of pattern: " + pattern);
+                }
+                option = pattern.substring(this.index + 1, end);
+                this.index = end + 1;
+            }
+
+            Segment segment = this.createSegment(word, option);
+            if (minWidth > 0 || maxWidth >= 0) {
+                segment = new PaddedSegment(segment, leftAlign, minWidth, maxWidth);
+            }
+            this.segments.add(segment);
+        }
+
+        private int parseNumber(int defaultValue) {
+            final int start = this.index;
+            while (this.index < this.pattern.length() && Character.isDigit(this.pattern.charAt(this.index))) {
+                this.index++;
+            }
+            return start == this.index ? defaultValue : Integer.parseInt(this.pattern.substring(start, this.index));
+        }
+
+        private Segment createSegment(String word, String option) {
+            switch (word) {
+                case "d":
+                case "date": {
+                    final CachedDateFormatter formatter = new CachedDateFormatter(null == option || option.isEmpty() ? DEFAULT_DATE_FORMAT : option);
+                    return (event, builder) -> formatter.format(event.getTimestamp(), builder);
+                }
+                case "p":
+                case "le":
+                case "level":
+                    return (event, builder) -> builder.append(event.getLevel());
+                case "pid":
+                    return (event, builder) -> {
+                        if (event.getPid() != -1) {
+                            builder.append(event.getPid());
+                        }
+                    };
+                case "X":
+                case "mdc":
+                    return this.createMdcSegment(option);
+                case "t":
+                case "thread":
+                    return (event, builder) -> builder.append(event.getThreadName());
+                case "c":
+                case "lo":
+                case "logger":
+                    return (event, builder) -> builder.append(loggerName(event));
+                case "caller":
+                    this.callerRequired = true;
+                    return (event, builder) -> {
+                        final StackTraceElement caller = event.getCaller();
+                        if (null == caller) {
+                            builder.append(loggerName(event));
+                            return;
+                        }
+                        builder.append(caller.getClassName()).append('#').append(caller.getMethodName()).append(':').append(caller.getLineNumber());
+                    };
+                case "C":
+                case "class":
+                    this.callerRequired = true;
+                    return (event, builder) -> builder.append(null == event.getCaller() ? loggerName(event) : event.getCaller().getClassName());
+                case "M":
+                case "method":
+                    this.callerRequired = true;
+                    return (event, builder) -> builder.append(null == event.getCaller() ? "?" : event.getCaller().getMethodName());
+                case "L":
+                case "line":
+                    this.callerRequired = true;
+                    return (event, builder) -> {
+                        if (null == event.getCaller()) {
+                            builder.append('?');
+                        } else {
+                            builder.append(event.getCaller().getLineNumber());
+                        }
+                    };
+                case "F":
+                case "file":
+                    this.callerRequired = true;
+                    return (event, builder) -> builder.append(null == event.getCaller() ? "?" : event.getCaller().getFileName());
+                case "m":
+                case "msg":
+                case "message":
+                    return (event, builder) -> MessageFormats.formatTo(event.getRawMessage(), event.getArgs(), builder);
+                case "ex":
+                case "exception":
+                case "throwable":
+                    this.throwableDeclared = true;
+                    return (event, builder) -> {
+                        if (null != event.getThrowable()) {
+                            appendThrowable(event, builder);
+                        }
+                    };
+                case "n":
+                    return (event, builder) -> {
+                    };
+                default:
+                    throw new IllegalArgumentException("Unknown conversion word '" + word + "' in pattern: " + this.pattern);
+            }
+        }
+
+        private Segment createMdcSegment(String option) {
+            if (null == option || option.isEmpty()) {
+                throw new IllegalArgumentException("MDC key is required in pattern: " + this.pattern);
+            }
+
+            final int separator = option.indexOf(":-");
+            final String key = separator == -1 ? option : option.substring(0, separator);
+            final String defaultValue = separator == -1 ? "" : option.substring(separator + 2);
+            final XxlJobContextField field = XxlJobContextField.of(key);
+            if (null != field) {
+                return (event, builder) -> {
+                    if (!field.appendTo(event.getJobId(), event.getLogFileName(), builder)) {
+                        builder.append(defaultValue);
+                    }
+                };
+            }
+            return (event, builder) -> {
+                final String value = event.getMdcValue(key);
+                builder.append(null == value || value.isEmpty() ? defaultValue : value);
+            };
+        }
+
+        private static String loggerName(LogEvent event) {
+            if (null != event.getLoggerName()) {
+                return event.getLoggerName();
+            }
+            return null == event.getCaller() ? "Unknown" : event.getCaller().getClassName();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.xxljob.client.plugin.logger.layout;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>异常堆栈渲染，替代{@link Throwable#printStackTrace()}，减少重复异常输出的字节数和渲染耗时</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>每个异常最多输出{@link #maxDepth}个栈帧，超出部分以{@code ... N frames truncated}说明</li>
+ *         <li>cause、suppressed与外层异常相同的栈底帧折叠为{@code ... N more}，同{@link Throwable#printStackTrace()}</li>
+ *         <li>类名以{@link #setElidedPackages(String...)}中的前缀开头的连续栈帧折叠为{@code ... N framework frames elided}</li>
+ *         <li>异常类型、栈帧(含cause)完全相同的异常在同一日志文件中再次输出时，只输出一行{@code 异常 [same as #id]}，
+ *         第一次输出时在首行末尾标记{@code [#id]}；最多记录{@link #cacheSize}个异常，超出时移除任意一个</li>
+ *     </ul>
+ * 线程安全，可在多个{@link Layout}间共享
+ * </p>
+ * <p>创建于 2026-10-18 22:30 22:30 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class ThrowableRenderer {
+
+    /**
+     * 默认最多记录的异常数
+     */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    /**
+     * 与{@link Throwable#printStackTrace()}一致的换行符
+     */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final StackTraceElement[] EMPTY_TRACE = new StackTraceElement[0];
+
+    private static final String[] EMPTY_PACKAGES = new String[0];
+
+    /**
+     * 参与去重的最大cause层数，超出的部分只渲染不比较
+     */
+    private static final int MAX_CHAIN = 32;
+
+    private final int maxDepth;
+
+    private final int cacheSize;
+
+    private final ConcurrentHashMap<Long, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private volatile String[] elidedPackages = EMPTY_PACKAGES;
+
+    /**
+     * 不限制栈帧数，记录{@link #DEFAULT_CACHE_SIZE}个异常
+     */
+    public ThrowableRenderer() {
+        this(Integer.MAX_VALUE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param maxDepth  每个异常最多输出的栈帧数
+     * @param cacheSize 最多记录的异常数，0为不去重
+     */
+    public ThrowableRenderer(int maxDepth, int cacheSize) {
+        if (maxDepth <= 0 || cacheSize < 0) {
+            throw new IllegalArgumentException("maxDepth must be positive and cacheSize must not be negative");
+        }
+
+        this.maxDepth = maxDepth;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * 设置折叠的框架包名前缀，如{@code java.lang.reflect.}、{@code org.springframework.aop.}
+     *
+     * @param packagePrefixes 包名前缀
+     */
+    public void setElidedPackages(String... packagePrefixes) {
+        this.elidedPackages = null == packagePrefixes ? EMPTY_PACKAGES : packagePrefixes.clone();
+    }
+
+    /**
+     * 渲染异常堆栈，末尾不含换行符
+     *
+     * @param throwable   异常
+     * @param logFileName 任务日志文件，重复异常只在同一文件内引用
+     * @param builder     日志文本构造器
+     */
+    public void render(Throwable throwable, String logFileName, StringBuilder builder) {
+        final StackTraceElement[][] traces = traces(throwable);
+        long id = 0;
+        if (this.cacheSize > 0 && traces[0].length > 0) {
+            final long hash = hash(throwable, traces);
+            final Fingerprint cached = this.fingerprints.get(hash);
+            if (null != cached && cached.matches(throwable, traces, logFileName)) {
+                builder.append(throwable).append(" [same as #").append(cached.id).append(']');
+                return;
+            }
+
+            id = this.ids.incrementAndGet();
+            this.track(hash, new Fingerprint(id, logFileName, throwable, traces));
+        }
+
+        final Set<Throwable> rendered = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.render(throwable, traces, 0, EMPTY_TRACE, "", "", id, rendered, builder);
+    }
+
+    private void render(Throwable throwable, StackTraceElement[][] traces, int chainIndex, StackTraceElement[] enclosing,
+                        String caption, String prefix, long id, Set<Throwable> rendered, StringBuilder builder) {
+        if (chainIndex > 0 || !caption.isEmpty()) {
+            builder.append(LINE_SEPARATOR);
+        }
+        if (!rendered.add(throwable)) {
+            builder.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(throwable).append(']');
+            return;
+        }
+
+        builder.append(prefix).append(caption).append(throwable);
+        if (id > 0) {
+            builder.append(" [#").append(id).append(']');
+        }
+
+        final StackTraceElement[] trace = chainIndex >= 0 && chainIndex < traces.length ? traces[chainIndex] : throwable.getStackTrace();
+
+        // 与外层异常相同的栈底帧
+        int last = trace.length - 1;
+        int enclosingLast = enclosing.length - 1;
+        while (last >= 0 && enclosingLast >= 0 && trace[last].equals(enclosing[enclosingLast])) {
+            last--;
+            enclosingLast--;
+        }
+        final int common = trace.length - 1 - last;
+
+        final String[] elidedPackages = this.elidedPackages;
+        int printed = 0;
+        int elided = 0;
+        for (int i = 0; i <= last; i++) {
+            if (isElided(trace[i], elidedPackages)) {
+                elided++;
+                continue;
+            }
+
+            elided = appendElided(elided, prefix, builder);
+            if (printed == this.maxDepth) {
+                int truncated = 0;
+                for (int j = i; j <= last; j++) {
+                    if (!isElided(trace[j], elidedPackages)) {
+                        truncated++;
+                    }
+                }
+                builder.append(LINE_SEPARATOR).append(prefix).append("\t... ").append(truncated).append(" frames truncated");
+                break;
+            }
+
+            builder.append(LINE_SEPARATOR).append(prefix).append("\tat ").append(trace[i]);
+            printed++;
+        }
+        appendElided(elided, prefix, builder);
+        if (common > 0) {
+            builder.append(LINE_SEPARATOR).append(prefix).append("\t... ").append(common).append(" more");
+        }
+
+        for (Throwable suppressed : throwable.getSuppressed()) {
+            this.render(suppressed, traces, -1, trace, "Suppressed: ", prefix + "\t", 0, rendered, builder);
+        }
+
+        final Throwable cause = throwable.getCause();
+        if (null != cause) {
+            this.render(cause, traces, chainIndex >= 0 ? chainIndex + 1 : -1, trace, "Caused by: ", prefix, 0, rendered, builder);
+        }
+    }
+
+    private static int appendElided(int elided, String prefix, StringBuilder builder) {
+        if (elided > 0) {
+            builder.append(LINE_SEPARATOR).append(prefix).append("\t... ").append(elided).append(" framework frames elided");
+        }
+        return 0;
+    }
+
+    private static boolean isElided(StackTraceElement element, String[] elidedPackages) {
+        final String className = element.getClassName();
+        for (String elidedPackage : elidedPackages) {
+            if (className.startsWith(elidedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void track(long hash, Fingerprint fingerprint) {
+        if (this.fingerprints.size() >= this.cacheSize) {
+            final Iterator<Long> iterator = this.fingerprints.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        this.fingerprints.put(hash, fingerprint);
+    }
+
+    /**
+     * 异常及cause的栈帧，遇到循环引用或超过{@link #MAX_CHAIN}层时结束
+     */
+    private static StackTraceElement[][] traces(Throwable throwable) {
+        StackTraceElement[][] traces = new StackTraceElement[4][];
+        final Throwable[] chain = new Throwable[MAX_CHAIN];
+        int length = 0;
+        for (Throwable current = throwable; null != current && length < MAX_CHAIN; current = current.getCause()) {
+            for (int i = 0; i < length; i++) {
+                if (chain[i] == current) {
+                    return Arrays.copyOf(traces, length);
+                }
+            }
+
+            if (length == traces.length) {
+                traces = Arrays.copyOf(traces, length << 1);
+            }
+            chain[length] = current;
+            traces[length++] = current.getStackTrace();
+        }
+        return Arrays.copyOf(traces, length);
+    }
+
+    private static long hash(Throwable throwable, StackTraceElement[][] traces) {
+        long hash = 1;
+        Throwable current = throwable;
+        for (StackTraceElement[] trace : traces) {
+            hash = 31 * hash + current.getClass().getName().hashCode();
+            for (StackTraceElement element : trace) {
+                hash = 31 * hash + element.hashCode();
+            }
+            current = current.getCause();
+        }
+        return hash;
+    }
+
+    /**
+     * 已输出的异常，只保存类名和栈帧，不持有异常对象
+     */
+    private static final class Fingerprint {
+
+        private final long id;
+
+        private final String logFileName;
+
+        private final String[] classNames;
+
+        private final StackTraceElement[][] traces;
+
+        private Fingerprint(long id, String logFileName, Throwable throwable, StackTraceElement[][] traces) {
+            this.id = id;
+            this.logFileName = logFileName;
+            this.classNames = classNames(throwable, traces.length);
+            this.traces = traces;
+        }
+
+        private boolean matches(Throwable throwable, StackTraceElement[][] traces, String logFileName) {
+            return Objects.equals(this.logFileName, logFileName)
+                    && Arrays.equals(this.classNames, classNames(throwable, traces.length))
+                    && Arrays.deepEquals(this.traces, traces);
+        }
+
+        private static String[] classNames(Throwable throwable, int length) {
+            final String[] classNames = new String[length];
+            Throwable current = throwable;
+            for (int i = 0; i < length; i++) {
+                classNames[i] = current.getClass().getName();
+                current = current.getCause();
+            }
+            return classNames;
+        }
+    }
+}
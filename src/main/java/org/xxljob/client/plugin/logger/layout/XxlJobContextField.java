@@ -0,0 +1,99 @@
+package org.xxljob.client.plugin.logger.layout;
+
+import com.xxl.job.core.context.XxlJobContext;
+
+/**
+ * <p>直接从{@link XxlJobContext}读取的上下文字段，作为上下文Key或{@code %X{key}}使用时不经过{@link org.slf4j.MDC}</p>
+ * <p>分片信息只在当前线程的{@link XxlJobContext}属于同一日志文件时输出，日志id取自日志文件名</p>
+ * <p>创建于 2026-10-18 22:45 22:45 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public enum XxlJobContextField {
+
+    /**
+     * 任务id
+     */
+    JOB_ID("xxl.jobId"),
+
+    /**
+     * 分片序号
+     */
+    SHARD_INDEX("xxl.shardIndex"),
+
+    /**
+     * 分片总数
+     */
+    SHARD_TOTAL("xxl.shardTotal"),
+
+    /**
+     * 日志id
+     */
+    LOG_ID("xxl.logId");
+
+    private static final String LOG_FILE_SUFFIX = ".log";
+
+    private final String key;
+
+    XxlJobContextField(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * 按上下文Key查找
+     *
+     * @param key 上下文Key
+     * @return {@link XxlJobContextField}，不是内置字段时返回null
+     */
+    public static XxlJobContextField of(String key) {
+        for (XxlJobContextField field : values()) {
+            if (field.key.equals(key)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 追加字段值
+     *
+     * @param jobId       任务id
+     * @param logFileName 任务日志文件
+     * @param builder     日志文本构造器
+     * @return 没有值时返回false，不追加任何内容
+     */
+    public boolean appendTo(long jobId, String logFileName, StringBuilder builder) {
+        switch (this) {
+            case JOB_ID:
+                builder.append(jobId);
+                return true;
+            case SHARD_INDEX:
+            case SHARD_TOTAL:
+                final XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+                if (null == xxlJobContext || null == logFileName || !logFileName.equals(xxlJobContext.getJobLogFileName())) {
+                    return false;
+                }
+                builder.append(this == SHARD_INDEX ? xxlJobContext.getShardIndex() : xxlJobContext.getShardTotal());
+                return true;
+            case LOG_ID:
+                if (null == logFileName) {
+                    return false;
+                }
+                final int start = Math.max(logFileName.lastIndexOf('/'), logFileName.lastIndexOf('\\')) + 1;
+                final int end = logFileName.endsWith(LOG_FILE_SUFFIX) ? logFileName.length() - LOG_FILE_SUFFIX.length() : logFileName.length();
+                if (start >= end) {
+                    return false;
+                }
+                builder.append(logFileName, start, end);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package org.xxljob.client.plugin.logger.level;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>按任务id或任务处理器名称覆盖日志级别，不重启即可只对一个任务开启DEBUG日志，或压低某个任务的日志</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>覆盖级别替代调用方{@link org.slf4j.Logger}的级别：不低于覆盖级别的日志输出，低于的日志在获取调用方、格式化之前直接丢弃</li>
+ *         <li>所有覆盖规则在修改时编译为以任务id为key的开放寻址表，判断时只有一次volatile读和一次数组探测，不产生对象</li>
+ *         <li>任务id的规则优先于处理器名称的规则，编程设置的规则优先于文件中的规则</li>
+ *         <li>{@code XxlJobContext}不包含处理器名称，处理器名称的规则需通过{@link #bindHandler(long, String)}关联任务id后生效</li>
+ *         <li>{@link #watch(Path)}加载properties文件并通过{@link WatchService}监听修改，文件删除时清空该文件中的规则；
+ *         可监听多个文件，共用一个监听线程，多个文件中的同一规则以首次加载较晚的文件为准</li>
+ *         <li>日志框架appender传入的日志已由日志框架按级别过滤，覆盖级别只能压低，不能开启</li>
+ *     </ul>
+ * </p>
+ * <p>
+ * 文件格式：
+ * <pre>
+ * job.12=DEBUG
+ * handler.demoJobHandler=TRACE
+ * handler.noisyJobHandler=OFF
+ * </pre>
+ * </p>
+ * <p>创建于 2026-10-19 02:20 02:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class XxlJobLogLevelOverrides {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(XxlJobLogLevelOverrides.class);
+
+    /**
+     * 没有覆盖级别
+     */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    /**
+     * 关闭所有级别
+     */
+    public static final int OFF = Integer.MAX_VALUE;
+
+    private static final String JOB_PREFIX = "job.";
+
+    private static final String HANDLER_PREFIX = "handler.";
+
+    private final Map<Long, Integer> jobLevels = new HashMap<>();
+
+    private final Map<String, Integer> handlerLevels = new HashMap<>();
+
+    private final Map<Long, String> handlers = new HashMap<>();
+
+    /**
+     * 每个文件中的规则，按加载顺序合并
+     */
+    private final Map<Path, FileRules> fileRules = new LinkedHashMap<>();
+
+    private volatile LevelTable table = LevelTable.EMPTY;
+
+    /**
+     * 监听的文件，由监听线程按事件的目录和文件名分发
+     */
+    private final Set<Path> targets = ConcurrentHashMap.newKeySet();
+
+    private WatchService watchService;
+
+    /**
+     * 任务的覆盖级别，用于日志热点路径
+     *
+     * @param jobId 任务id
+     * @return {@link Level#toInt()}，{@link #OFF}为关闭，{@link #NONE}为没有覆盖级别
+     */
+    public int levelOf(long jobId) {
+        return this.table.get(jobId);
+    }
+
+    /**
+     * 设置任务的覆盖级别
+     *
+     * @param jobId 任务id
+     * @param level 日志级别，为null时移除
+     */
+    public synchronized void setJobLevel(long jobId, Level level) {
+        if (null == level) {
+            this.jobLevels.remove(jobId);
+        } else {
+            this.jobLevels.put(jobId, level.toInt());
+        }
+        this.compile();
+    }
+
+    /**
+     * 关闭任务的所有日志
+     *
+     * @param jobId 任务id
+     */
+    public synchronized void setJobOff(long jobId) {
+        this.jobLevels.put(jobId, OFF);
+        this.compile();
+    }
+
+    /**
+     * 设置处理器的覆盖级别，需通过{@link #bindHandler(long, String)}关联任务id
+     *
+     * @param handlerName 任务处理器名称，如{@code @XxlJob}的value
+     * @param level       日志级别，为null时移除
+     */
+    public synchronized void setHandlerLevel(String handlerName, Level level) {
+        if (null == level) {
+            this.handlerLevels.remove(handlerName);
+        } else {
+            this.handlerLevels.put(handlerName, level.toInt());
+        }
+        this.compile();
+    }
+
+    /**
+     * 关联任务id与处理器名称，如在处理器开始执行时以{@code XxlJobHelper.getJobId()}调用
+     *
+     * @param jobId       任务id
+     * @param handlerName 任务处理器名称，为null时解除关联
+     */
+    public synchronized void bindHandler(long jobId, String handlerName) {
+        final String previous = null == handlerName ? this.handlers.remove(jobId) : this.handlers.put(jobId, handlerName);
+        if (!Objects.equals(previous, handlerName)) {
+            this.compile();
+        }
+    }
+
+    /**
+     * 清空编程设置的规则和处理器关联，文件中的规则保留
+     */
+    public synchronized void clear() {
+        this.jobLevels.clear();
+        this.handlerLevels.clear();
+        this.handlers.clear();
+        this.compile();
+    }
+
+    /**
+     * 加载properties文件中的规则，替换之前从该文件加载的规则；文件不存在时清空
+     *
+     * @param file properties文件
+     * @throws IOException 读取失败，之前的规则保持不变
+     */
+    public void load(Path file) throws IOException {
+        final Path target = file.toAbsolutePath().normalize();
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(target, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (NoSuchFileException e) {
+            // 文件被删除，清空文件中的规则
+        }
+
+        final Map<Long, Integer> jobLevels = new HashMap<>();
+        final Map<String, Integer> handlerLevels = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            final String value = properties.getProperty(key).trim();
+            final int level = parseLevel(value);
+            if (level == NONE) {
+                LOGGER.warn("ignore log level override {}={} in {}: unknown level", key, value, target);
+                continue;
+            }
+
+            if (key.startsWith(JOB_PREFIX)) {
+                try {
+                    jobLevels.put(Long.parseLong(key.substring(JOB_PREFIX.length()).trim()), level);
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("ignore log level override {} in {}: invalid job id", key, target);
+                }
+            } else if (key.startsWith(HANDLER_PREFIX) && key.length() > HANDLER_PREFIX.length()) {
+                handlerLevels.put(key.substring(HANDLER_PREFIX.length()).trim(), level);
+            } else {
+                LOGGER.warn("ignore log level override {} in {}: key must start with job. or handler.", key, target);
+            }
+        }
+
+        synchronized (this) {
+            if (jobLevels.isEmpty() && handlerLevels.isEmpty()) {
+                this.fileRules.remove(target);
+            } else {
+                this.fileRules.put(target, new FileRules(jobLevels, handlerLevels));
+            }
+            this.compile();
+        }
+    }
+
+    /**
+     * 加载properties文件，并在后台线程监听文件的创建、修改和删除，变化后重新加载
+     *
+     * @param file properties文件，所在目录必须存在
+     * @throws IOException 目录不存在或无法监听
+     */
+    public void watch(Path file) throws IOException {
+        final Path target = file.toAbsolutePath().normalize();
+        synchronized (this) {
+            if (!this.targets.add(target)) {
+                return;
+            }
+
+            try {
+                if (null == this.watchService) {
+                    final WatchService watchService = target.getFileSystem().newWatchService();
+                    final Thread thread = new Thread(() -> this.watchLoop(watchService), "xxl-job-logger-level-watcher");
+                    thread.setDaemon(true);
+                    thread.start();
+                    this.watchService = watchService;
+                }
+                // 同一目录重复注册返回同一个WatchKey
+                target.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            } catch (IOException | RuntimeException e) {
+                this.targets.remove(target);
+                throw e;
+            }
+        }
+        this.load(target);
+    }
+
+    /**
+     * 停止监听文件，已加载的规则保留
+     */
+    public void close() {
+        final WatchService watchService;
+        synchronized (this) {
+            watchService = this.watchService;
+            this.watchService = null;
+            this.targets.clear();
+        }
+
+        if (null != watchService) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * 所有文件共用的监听线程，按事件所在目录和文件名找到监听的文件后重新加载
+     */
+    private void watchLoop(WatchService watchService) {
+        final Set<Path> changed = new LinkedHashSet<>();
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                final Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // 事件溢出时无法确定文件名，重新加载该目录下的所有文件
+                        for (Path target : this.targets) {
+                            if (directory.equals(target.getParent())) {
+                                changed.add(target);
+                            }
+                        }
+                    } else {
+                        final Path target = directory.resolve((Path) event.context());
+                        if (this.targets.contains(target)) {
+                            changed.add(target);
+                        }
+                    }
+                }
+                key.reset();
+
+                for (Path target : changed) {
+                    try {
+                        this.load(target);
+                    } catch (IOException e) {
+                        LOGGER.warn("reload log level overrides {} error", target, e);
+                    }
+                }
+                changed.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close
+        }
+    }
+
+    /**
+     * 合并所有规则，重新生成以任务id为key的表
+     */
+    private void compile() {
+        final Map<Long, Integer> fileJobLevels = new HashMap<>();
+        final Map<String, Integer> fileHandlerLevels = new HashMap<>();
+        for (FileRules rules : this.fileRules.values()) {
+            fileJobLevels.putAll(rules.jobLevels);
+            fileHandlerLevels.putAll(rules.handlerLevels);
+        }
+
+        final Map<Long, Integer> levels = new HashMap<>(fileJobLevels);
+        // 处理器规则只对已关联的任务生效，任务id的规则优先
+        for (Map.Entry<Long, String> binding : this.handlers.entrySet()) {
+            Integer level = this.handlerLevels.get(binding.getValue());
+            if (null == level) {
+                level = fileHandlerLevels.get(binding.getValue());
+            }
+            if (null != level && !this.jobLevels.containsKey(binding.getKey()) && !fileJobLevels.containsKey(binding.getKey())) {
+                levels.put(binding.getKey(), level);
+            }
+        }
+        levels.putAll(this.jobLevels);
+        this.table = LevelTable.of(levels);
+    }
+
+    /**
+     * 解析日志级别，不区分大小写，支持{@code OFF}
+     *
+     * @return 无法识别时返回{@link #NONE}
+     */
+    private static int parseLevel(String value) {
+        final String name = value.toUpperCase(Locale.ROOT);
+        if ("OFF".equals(name)) {
+            return OFF;
+        }
+        for (Level level : Level.values()) {
+            if (level.name().equals(name)) {
+                return level.toInt();
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * 一个文件中的规则
+     */
+    private static final class FileRules {
+
+        private final Map<Long, Integer> jobLevels;
+
+        private final Map<String, Integer> handlerLevels;
+
+        private FileRules(Map<Long, Integer> jobLevels, Map<String, Integer> handlerLevels) {
+            this.jobLevels = jobLevels;
+            this.handlerLevels = handlerLevels;
+        }
+    }
+
+    /**
+     * 不可变的任务id到级别的开放寻址表，修改时整体替换
+     */
+    private static final class LevelTable {
+
+        private static final LevelTable EMPTY = new LevelTable(new long[0], new int[0]);
+
+        private final long[] keys;
+
+        /**
+         * 与{@link #keys}一一对应，空位为{@link #NONE}
+         */
+        private final int[] levels;
+
+        private final int mask;
+
+        private LevelTable(long[] keys, int[] levels) {
+            this.keys = keys;
+            this.levels = levels;
+            this.mask = keys.length - 1;
+        }
+
+        private static LevelTable of(Map<Long, Integer> levels) {
+            if (levels.isEmpty()) {
+                return EMPTY;
+            }
+
+            // 负载因子不超过0.5
+            final int capacity = Integer.highestOneBit(Math.max(2, levels.size()) * 2 - 1) << 1;
+            final long[] keys = new long[capacity];
+            final int[] values = new int[capacity];
+            Arrays.fill(values, NONE);
+            final int mask = capacity - 1;
+            for (Map.Entry<Long, Integer> entry : levels.entrySet()) {
+                int index = hash(entry.getKey()) & mask;
+                while (values[index] != NONE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = entry.getKey();
+                values[index] = entry.getValue();
+            }
+            return new LevelTable(keys, values);
+        }
+
+        private int get(long jobId) {
+            if (this.keys.length == 0) {
+                return NONE;
+            }
+
+            int index = hash(jobId) & this.mask;
+            int level;
+            while ((level = this.levels[index]) != NONE) {
+                if (this.keys[index] == jobId) {
+                    return level;
+                }
+                index = (index + 1) & this.mask;
+            }
+            return NONE;
+        }
+
+        private static int hash(long key) {
+            final long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.xxljob.client.plugin.logger.limit;
+
+import org.slf4j.event.Level;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>按任务日志文件、日志级别分别限流，避免死循环输出日志的任务写满磁盘、拖慢同一执行器上的其他任务</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>每个任务日志文件的每个级别一个令牌桶，桶内只有一个理论到达时间(GCRA)，获取令牌只需一次CAS，无锁</li>
+ *         <li>超出限制的日志被丢弃并计数，每隔{@link #summaryIntervalNanos}输出一行汇总，任务结束时输出剩余的汇总</li>
+ *         <li>未设置限制的级别不创建令牌桶，不产生额外开销</li>
+ *         <li>最多跟踪{@link #MAX_TRACKED_FILES}个日志文件，超出时移除任意一个</li>
+ *     </ul>
+ * 限制需在交给{@link org.xxljob.client.plugin.logger.XxlJobLogger#setRateLimiter(XxlJobLogRateLimiter)}之前设置
+ * </p>
+ * <p>创建于 2026-10-18 19:45 19:45 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class XxlJobLogRateLimiter {
+
+    /**
+     * 最多跟踪的日志文件数
+     */
+    public static final int MAX_TRACKED_FILES = 1024;
+
+    /**
+     * 默认汇总间隔
+     */
+    public static final long DEFAULT_SUMMARY_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private static final Level[] LEVELS = Level.values();
+
+    /**
+     * 每个级别产生一个令牌的间隔，0为不限制
+     */
+    private final long[] intervalNanos = new long[LEVELS.length];
+
+    /**
+     * 每个级别允许的突发容量对应的时间
+     */
+    private final long[] toleranceNanos = new long[LEVELS.length];
+
+    private final ConcurrentHashMap<String, Bucket[]> buckets = new ConcurrentHashMap<>();
+
+    private volatile long summaryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SUMMARY_INTERVAL_MILLIS);
+
+    /**
+     * 不限制任何级别，通过{@link #setLimit(Level, long, int)}设置
+     */
+    public XxlJobLogRateLimiter() {
+    }
+
+    /**
+     * 所有级别使用相同的限制，每个级别单独计算
+     *
+     * @param linesPerSecond 每秒允许的行数
+     * @param burst          允许突发的行数
+     */
+    public XxlJobLogRateLimiter(long linesPerSecond, int burst) {
+        for (Level level : LEVELS) {
+            this.setLimit(level, linesPerSecond, burst);
+        }
+    }
+
+    /**
+     * 设置单个级别的限制
+     *
+     * @param level          日志级别
+     * @param linesPerSecond 每秒允许的行数，小于等于0为不限制
+     * @param burst          允许突发的行数，至少为1
+     */
+    public void setLimit(Level level, long linesPerSecond, int burst) {
+        final int index = level.ordinal();
+        if (linesPerSecond <= 0) {
+            this.intervalNanos[index] = 0;
+            this.toleranceNanos[index] = 0;
+            return;
+        }
+
+        final long interval = Math.max(1, TimeUnit.SECONDS.toNanos(1) / linesPerSecond);
+        this.intervalNanos[index] = interval;
+        this.toleranceNanos[index] = interval * (Math.max(1, burst) - 1);
+    }
+
+    /**
+     * 设置汇总行的输出间隔
+     *
+     * @param interval 间隔
+     * @param unit     时间单位
+     */
+    public void setSummaryInterval(long interval, TimeUnit unit) {
+        this.summaryIntervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * 获取日志文件在该级别的令牌桶
+     *
+     * @param logFileName 任务日志文件
+     * @param level       日志级别
+     * @return {@link Bucket}，该级别不限制时返回null
+     */
+    public Bucket getBucket(String logFileName, Level level) {
+        final int index = level.ordinal();
+        if (this.intervalNanos[index] == 0) {
+            return null;
+        }
+
+        Bucket[] levelBuckets = this.buckets.get(logFileName);
+        if (null == levelBuckets) {
+            levelBuckets = this.track(logFileName);
+        }
+
+        Bucket bucket = levelBuckets[index];
+        if (null == bucket) {
+            // 并发创建时只保留一个
+            synchronized (levelBuckets) {
+                bucket = levelBuckets[index];
+                if (null == bucket) {
+                    bucket = new Bucket(this, level);
+                    levelBuckets[index] = bucket;
+                }
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * 任务结束，移除日志文件的令牌桶
+     *
+     * @param logFileName 任务日志文件
+     * @return 该日志文件各级别的令牌桶，下标为{@link Level#ordinal()}，未跟踪时返回null
+     */
+    public Bucket[] remove(String logFileName) {
+        return this.buckets.remove(logFileName);
+    }
+
+    private Bucket[] track(String logFileName) {
+        if (this.buckets.size() >= MAX_TRACKED_FILES) {
+            final Iterator<String> iterator = this.buckets.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return this.buckets.computeIfAbsent(logFileName, key -> new Bucket[LEVELS.length]);
+    }
+
+    /**
+     * 单个日志文件单个级别的令牌桶
+     */
+    public static final class Bucket {
+
+        private final XxlJobLogRateLimiter limiter;
+
+        private final Level level;
+
+        /**
+         * 理论到达时间，早于当前时间减去突发容量时表示令牌已满
+         */
+        private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private final AtomicLong lastSummary = new AtomicLong(System.nanoTime());
+
+        private Bucket(XxlJobLogRateLimiter limiter, Level level) {
+            this.limiter = limiter;
+            this.level = level;
+        }
+
+        public Level getLevel() {
+            return this.level;
+        }
+
+        /**
+         * 获取一个令牌，失败时计入被丢弃的行数
+         *
+         * @return boolean
+         */
+        public boolean tryAcquire() {
+            final int index = this.level.ordinal();
+            final long interval = this.limiter.intervalNanos[index];
+            final long tolerance = this.limiter.toleranceNanos[index];
+            final long now = System.nanoTime();
+            for (; ; ) {
+                final long arrival = this.theoreticalArrival.get();
+                if (arrival - now > tolerance) {
+                    this.suppressed.incrementAndGet();
+                    return false;
+                }
+
+                final long next = Math.max(arrival, now) + interval;
+                if (this.theoreticalArrival.compareAndSet(arrival, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 到达汇总间隔时取出被丢弃的行数，只有一个线程能取到
+         *
+         * @return 被丢弃的行数，无需汇总时返回0
+         */
+        public long pollSuppressed() {
+            if (this.suppressed.get() == 0) {
+                return 0;
+            }
+
+            final long now = System.nanoTime();
+            final long last = this.lastSummary.get();
+            if (now - last < this.limiter.summaryIntervalNanos || !this.lastSummary.compareAndSet(last, now)) {
+                return 0;
+            }
+            return this.suppressed.getAndSet(0);
+        }
+
+        /**
+         * 取出全部被丢弃的行数，用于任务结束时输出
+         *
+         * @return long
+         */
+        public long drainSuppressed() {
+            return this.suppressed.getAndSet(0);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.xxljob.client.plugin.logger.log4j2;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.apache.logging.log4j.core.util.ContextDataProvider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>log4j2的上下文数据扩展，在输出日志的线程中将当前任务id和日志文件写入日志事件，
+ * 使{@link XxlJobLog4j2Appender}在AsyncLogger等非任务线程中也能找到任务日志文件</p>
+ * <p>同一次任务执行复用同一个上下文数据，不会每行日志创建新的{@link Map}</p>
+ * <p>通过{@code META-INF/services/org.apache.logging.log4j.core.util.ContextDataProvider}注册</p>
+ * <p>创建于 2026-10-18 19:12 19:12 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class XxlJobContextDataProvider implements ContextDataProvider {
+
+    /**
+     * 任务id
+     */
+    public static final String JOB_ID_KEY = "xxlJobId";
+
+    /**
+     * 任务日志文件
+     */
+    public static final String LOG_FILE_NAME_KEY = "xxlJobLogFileName";
+
+    /**
+     * 当前线程最近一次任务执行的上下文数据
+     */
+    private static final ThreadLocal<CachedContextData> CACHED = new ThreadLocal<>();
+
+    @Override
+    public Map<String, String> supplyContextData() {
+        final XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+        if (null == xxlJobContext || null == xxlJobContext.getJobLogFileName()) {
+            return Collections.emptyMap();
+        }
+
+        CachedContextData cached = CACHED.get();
+        if (null == cached || cached.xxlJobContext != xxlJobContext) {
+            cached = new CachedContextData(xxlJobContext);
+            CACHED.set(cached);
+        }
+        return cached.data;
+    }
+
+    /**
+     * 单次任务执行的上下文数据
+     */
+    private static final class CachedContextData {
+
+        private final XxlJobContext xxlJobContext;
+
+        private final Map<String, String> data;
+
+        private CachedContextData(XxlJobContext xxlJobContext) {
+            final Map<String, String> data = new HashMap<>(4);
+            data.put(JOB_ID_KEY, String.valueOf(xxlJobContext.getJobId()));
+            data.put(LOG_FILE_NAME_KEY, xxlJobContext.getJobLogFileName());
+
+            this.xxlJobContext = xxlJobContext;
+            this.data = Collections.unmodifiableMap(data);
+        }
+    }
+}
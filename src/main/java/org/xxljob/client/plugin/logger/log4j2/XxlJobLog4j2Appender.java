@@ -0,0 +1,230 @@
+package org.xxljob.client.plugin.logger.log4j2;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>log4j2的{@code appender}扩展，将任务线程中输出的日志同时写入当前xxlJob任务的日志文件，业务代码无需改动</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>任务id和日志文件由{@link XxlJobContextDataProvider}在输出日志的线程中写入日志事件，AsyncLogger、AsyncAppender下同样可用</li>
+ *         <li>log4j2会复用日志事件，这里只在{@link #append(LogEvent)}内读取所需的字段并立即渲染，不持有事件，也不调用{@link LogEvent#toImmutable()}</li>
+ *         <li>实现{@link StringBuilderFormattable}的日志信息格式化到线程复用的{@link StringBuilder}，不调用{@link Message#getFormattedMessage()}</li>
+ *         <li>上下文数据通过线程复用的只读视图按需读取，不会复制为新的{@link Map}</li>
+ *         <li>日志级别由log4j2配置决定，日志格式、写出方式同{@link XxlJobLoggerFactory#getLogger()}</li>
+ *     </ul>
+ * </p>
+ * <pre>{@code
+ * <Configuration packages="org.xxljob.client.plugin.logger.log4j2">
+ *     <Appenders>
+ *         <XxlJob name="XXL_JOB"/>
+ *     </Appenders>
+ *     <Loggers>
+ *         <Root level="INFO">
+ *             <AppenderRef ref="XXL_JOB"/>
+ *         </Root>
+ *     </Loggers>
+ * </Configuration>
+ * }</pre>
+ * <p>创建于 2026-10-18 19:20 19:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@Plugin(name = "XxlJob", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public class XxlJobLog4j2Appender extends AbstractAppender {
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final XxlJobLogger xxlJobLogger;
+
+    protected XxlJobLog4j2Appender(String name, Filter filter, boolean ignoreExceptions) {
+        super(name, filter, null, ignoreExceptions, Property.EMPTY_ARRAY);
+        this.xxlJobLogger = XxlJobLoggerFactory.getLogger();
+    }
+
+    @PluginFactory
+    public static XxlJobLog4j2Appender createAppender(@PluginAttribute("name") String name,
+                                                     @PluginElement("Filter") Filter filter,
+                                                     @PluginAttribute(value = "ignoreExceptions", defaultBoolean = true) boolean ignoreExceptions) {
+        return new XxlJobLog4j2Appender(null == name ? "XxlJob" : name, filter, ignoreExceptions);
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        final ReadOnlyStringMap contextData = event.getContextData();
+        String logFileName = null == contextData ? null : contextData.getValue(XxlJobContextDataProvider.LOG_FILE_NAME_KEY);
+        long jobId;
+        if (null != logFileName) {
+            jobId = parseJobId(contextData.getValue(XxlJobContextDataProvider.JOB_ID_KEY));
+        } else {
+            // 未注册上下文数据扩展时，仅支持同步输出
+            final XxlJobContext xxlJobContext = XxlJobContext.getXxlJobContext();
+            if (null == xxlJobContext) {
+                return;
+            }
+            logFileName = xxlJobContext.getJobLogFileName();
+            jobId = xxlJobContext.getJobId();
+        }
+
+        if (null == logFileName || logFileName.isEmpty()) {
+            return;
+        }
+
+        final Level level = toLevel(event.getLevel());
+        final StackTraceElement caller = event.isIncludeLocation() && this.xxlJobLogger.isCallerRequired(level) ? event.getSource() : null;
+
+        // 写出过程中再次进入时（如写出组件输出了log4j2日志）不复用，避免覆盖外层的内容
+        final Scratch scratch = SCRATCH.get();
+        final boolean reuse = !scratch.inUse;
+        final Scratch current = reuse ? scratch : new Scratch();
+        current.inUse = true;
+        try {
+            this.xxlJobLogger.append(jobId, logFileName, event.getThreadName(), event.getLoggerName(), level,
+                    event.getTimeMillis(), caller, current.format(event.getMessage()),
+                    null == contextData ? null : current.view.wrap(contextData), event.getThrown());
+        } finally {
+            current.release();
+        }
+    }
+
+    private static long parseJobId(String jobId) {
+        try {
+            return null == jobId ? 0 : Long.parseLong(jobId);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * log4j2日志级别转换为slf4j日志级别
+     */
+    private static Level toLevel(org.apache.logging.log4j.Level level) {
+        if (null == level) {
+            return Level.INFO;
+        }
+
+        final int intLevel = level.intLevel();
+        if (intLevel <= org.apache.logging.log4j.Level.ERROR.intLevel()) {
+            return Level.ERROR;
+        }
+        if (intLevel <= org.apache.logging.log4j.Level.WARN.intLevel()) {
+            return Level.WARN;
+        }
+        if (intLevel <= org.apache.logging.log4j.Level.INFO.intLevel()) {
+            return Level.INFO;
+        }
+        if (intLevel <= org.apache.logging.log4j.Level.DEBUG.intLevel()) {
+            return Level.DEBUG;
+        }
+        return Level.TRACE;
+    }
+
+    /**
+     * 每个线程复用的日志信息构造器和上下文数据视图
+     */
+    private static final class Scratch {
+
+        /**
+         * 复用的日志信息构造器超过该长度时释放，避免长期占用内存
+         */
+        private static final int MAX_RETAINED_LENGTH = 16 * 1024;
+
+        private StringBuilder message = new StringBuilder(256);
+
+        private final ContextDataView view = new ContextDataView();
+
+        private boolean inUse;
+
+        /**
+         * 格式化日志信息
+         *
+         * @return 实现{@link StringBuilderFormattable}时返回复用的构造器
+         */
+        private CharSequence format(Message message) {
+            if (null == message) {
+                return null;
+            }
+            if (message instanceof StringBuilderFormattable) {
+                ((StringBuilderFormattable) message).formatTo(this.message);
+                return this.message;
+            }
+            return message.getFormattedMessage();
+        }
+
+        private void release() {
+            this.inUse = false;
+            this.view.contextData = null;
+            if (this.message.capacity() > MAX_RETAINED_LENGTH) {
+                this.message = new StringBuilder(256);
+            } else {
+                this.message.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * 上下文数据的只读视图，只在渲染期间使用，按key读取，不复制
+     */
+    private static final class ContextDataView extends AbstractMap<String, String> {
+
+        private ReadOnlyStringMap contextData;
+
+        private ContextDataView wrap(ReadOnlyStringMap contextData) {
+            this.contextData = contextData;
+            return this;
+        }
+
+        @Override
+        public String get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+
+            final Object value = this.contextData.getValue((String) key);
+            return null == value ? null : value.toString();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && this.contextData.containsKey((String) key);
+        }
+
+        @Override
+        public int size() {
+            return this.contextData.size();
+        }
+
+        /**
+         * 日志写出时不会遍历，仅为满足{@link Map}的约定，遍历时生成快照
+         */
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            final Set<Entry<String, String>> entries = new LinkedHashSet<>();
+            this.contextData.forEach((key, value) -> entries.add(new SimpleImmutableEntry<>(key, null == value ? null : value.toString())));
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.xxljob.client.plugin.logger.logback;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
+
+/**
+ * <p>logback的{@code appender}扩展，将任务线程中输出的日志同时写入当前xxlJob任务的日志文件，业务代码无需改动</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>直接使用{@link ILoggingEvent}中已格式化的日志信息、调用方和MDC，不再重复格式化和遍历线程栈</li>
+ *         <li>日志级别由logback配置决定，日志格式、写出方式同{@link XxlJobLoggerFactory#getLogger()}</li>
+ *         <li>依赖任务线程中的{@link com.xxl.job.core.context.XxlJobContext}，不能放在logback的{@code AsyncAppender}之后</li>
+ *         <li>同一Logger不应再使用{@link org.xxljob.client.plugin.logger.slf4j.XxlJobSlf4jLogger}等桥接，否则会重复写入</li>
+ *     </ul>
+ * </p>
+ * <pre>{@code
+ * <appender name="XXL_JOB" class="org.xxljob.client.plugin.logger.logback.XxlJobLogbackAppender"/>
+ * <root level="INFO">
+ *     <appender-ref ref="XXL_JOB"/>
+ * </root>
+ * }</pre>
+ * <p>创建于 2026-10-18 18:48 18:48 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class XxlJobLogbackAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    /**
+     * 是否使用调用方信息，logback未获取时会遍历线程栈获取
+     */
+    private boolean includeCallerData = true;
+
+    private XxlJobLogger xxlJobLogger;
+
+    public boolean isIncludeCallerData() {
+        return this.includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    @Override
+    public void start() {
+        this.xxlJobLogger = XxlJobLoggerFactory.getLogger();
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        final XxlJobLogger xxlJobLogger = this.xxlJobLogger;
+        if (null == xxlJobLogger || null == event) {
+            return;
+        }
+
+        final Level level = toLevel(event.getLevel());
+        final StackTraceElement caller = this.includeCallerData && xxlJobLogger.isCallerRequired(level) ? getCaller(event) : null;
+
+        String message = event.getFormattedMessage();
+        Throwable throwable = null;
+        final IThrowableProxy throwableProxy = event.getThrowableProxy();
+        if (throwableProxy instanceof ThrowableProxy) {
+            throwable = ((ThrowableProxy) throwableProxy).getThrowable();
+        } else if (null != throwableProxy) {
+            // 反序列化的事件没有原始异常，追加logback渲染的异常堆栈
+            message = (null == message ? "" : message + " :") + ThrowableProxyUtil.asString(throwableProxy).trim();
+        }
+
+        xxlJobLogger.append(event.getLoggerName(), level, event.getTimeStamp(), caller, message, event.getMDCPropertyMap(), throwable);
+    }
+
+    /**
+     * 获取调用方，logback已获取时直接复用
+     */
+    private static StackTraceElement getCaller(ILoggingEvent event) {
+        final StackTraceElement[] callerData = event.getCallerData();
+        return null == callerData || callerData.length == 0 ? null : callerData[0];
+    }
+
+    /**
+     * logback日志级别转换为slf4j日志级别
+     */
+    private static Level toLevel(ch.qos.logback.classic.Level level) {
+        if (null == level) {
+            return Level.INFO;
+        }
+
+        switch (level.toInt()) {
+            case ch.qos.logback.classic.Level.ERROR_INT:
+                return Level.ERROR;
+            case ch.qos.logback.classic.Level.WARN_INT:
+                return Level.WARN;
+            case ch.qos.logback.classic.Level.DEBUG_INT:
+                return Level.DEBUG;
+            case ch.qos.logback.classic.Level.TRACE_INT:
+                return Level.TRACE;
+            default:
+                return Level.INFO;
+        }
+    }
+}
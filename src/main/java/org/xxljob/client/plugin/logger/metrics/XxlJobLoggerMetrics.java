@@ -0,0 +1,368 @@
+package org.xxljob.client.plugin.logger.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>日志插件的运行指标，首次使用时注册到平台{@link MBeanServer}，名称为{@value #OBJECT_NAME}</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>按级别统计写出的行数和字节数</li>
+ *         <li>被丢弃的日志行数，如异步写出时队列已满</li>
+ *         <li>被限流丢弃的日志行数</li>
+ *         <li>获取调用方的次数和耗时</li>
+ *         <li>写出延迟直方图，按2的幂分桶</li>
+ *         <li>按任务id统计的行数和字节数，最多保留{@link #MAX_TRACKED_JOBS}个任务</li>
+ *     </ul>
+ * 计数均使用{@link LongAdder}，多个任务线程同时写日志时不会竞争同一个缓存行
+ * </p>
+ * <p>创建于 2026-10-18 18:15 18:15 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class XxlJobLoggerMetrics implements XxlJobLoggerMetricsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(XxlJobLoggerMetrics.class);
+
+    /**
+     * JMX注册名称
+     */
+    public static final String OBJECT_NAME = "org.xxljob.client.plugin.logger:type=XxlJobLoggerMetrics";
+
+    /**
+     * 最多统计的任务数，超出时移除任意一个已统计的任务
+     */
+    public static final int MAX_TRACKED_JOBS = 1024;
+
+    /**
+     * 写出延迟直方图的桶数，最后一个桶统计所有更大的值
+     */
+    private static final int LATENCY_BUCKETS = 40;
+
+    private static final Level[] LEVELS = Level.values();
+
+    private static final XxlJobLoggerMetrics INSTANCE = new XxlJobLoggerMetrics();
+
+    static {
+        INSTANCE.register();
+    }
+
+    private final LongAdder[] lines = newAdders(LEVELS.length);
+
+    private final LongAdder[] bytes = newAdders(LEVELS.length);
+
+    private final LongAdder droppedEvents = new LongAdder();
+
+    private final LongAdder suppressedLines = new LongAdder();
+
+    private final LongAdder callerLookups = new LongAdder();
+
+    private final LongAdder callerLookupNanos = new LongAdder();
+
+    private final LongAdder[] writeLatency = newAdders(LATENCY_BUCKETS);
+
+    private final AtomicLong writeLatencyMax = new AtomicLong();
+
+    private final ConcurrentHashMap<Long, JobTotals> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程最近写出的任务的统计，同一任务连续写出时不再以装箱的任务id查找{@link #jobs}
+     */
+    private final ThreadLocal<JobTotals> currentJob = new ThreadLocal<>();
+
+    private volatile boolean enabled = true;
+
+    private XxlJobLoggerMetrics() {
+    }
+
+    public static XxlJobLoggerMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 是否统计，关闭后记录方法直接返回
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 记录写出的一行日志
+     *
+     * @param jobId        任务id
+     * @param level        日志级别
+     * @param byteCount    编码后的字节数
+     * @param latencyNanos 写出耗时，单位纳秒
+     */
+    public void recordWrite(long jobId, Level level, int byteCount, long latencyNanos) {
+        if (!this.enabled) {
+            return;
+        }
+
+        final int index = null == level ? Level.INFO.ordinal() : level.ordinal();
+        this.lines[index].increment();
+        this.bytes[index].add(byteCount);
+        this.recordLatency(latencyNanos);
+
+        JobTotals totals = this.currentJob.get();
+        if (null == totals || totals.jobId != jobId || totals.removed) {
+            totals = this.jobs.get(jobId);
+            if (null == totals) {
+                totals = this.trackJob(jobId);
+            }
+            this.currentJob.set(totals);
+        }
+        totals.lines.increment();
+        totals.bytes.add(byteCount);
+    }
+
+    /**
+     * 记录获取调用方的耗时
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    public void recordCallerLookup(long nanos) {
+        if (!this.enabled) {
+            return;
+        }
+
+        this.callerLookups.increment();
+        this.callerLookupNanos.add(nanos);
+    }
+
+    /**
+     * 记录被丢弃的日志行
+     *
+     * @param count 行数
+     */
+    public void recordDropped(long count) {
+        if (this.enabled) {
+            this.droppedEvents.add(count);
+        }
+    }
+
+    /**
+     * 记录被限流丢弃的日志行
+     *
+     * @param count 行数
+     */
+    public void recordSuppressed(long count) {
+        if (this.enabled) {
+            this.suppressedLines.add(count);
+        }
+    }
+
+    /**
+     * 获取当前指标的快照
+     *
+     * @return {@link XxlJobLoggerMetricsSnapshot}
+     */
+    public XxlJobLoggerMetricsSnapshot snapshot() {
+        final long[] histogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            histogram[i] = this.writeLatency[i].sum();
+        }
+
+        final Map<String, Long> linesByJob = new LinkedHashMap<>();
+        final Map<String, Long> bytesByJob = new LinkedHashMap<>();
+        for (Map.Entry<Long, JobTotals> entry : this.jobs.entrySet()) {
+            linesByJob.put(String.valueOf(entry.getKey()), entry.getValue().lines.sum());
+            bytesByJob.put(String.valueOf(entry.getKey()), entry.getValue().bytes.sum());
+        }
+
+        return new XxlJobLoggerMetricsSnapshot(byLevel(this.lines), byLevel(this.bytes), this.droppedEvents.sum(),
+                this.suppressedLines.sum(), this.callerLookups.sum(), this.callerLookupNanos.sum(), histogram, this.writeLatencyMax.get(),
+                linesByJob, bytesByJob);
+    }
+
+    @Override
+    public long getLines() {
+        return sum(this.lines);
+    }
+
+    @Override
+    public long getBytes() {
+        return sum(this.bytes);
+    }
+
+    @Override
+    public Map<String, Long> getLinesByLevel() {
+        return byLevel(this.lines);
+    }
+
+    @Override
+    public Map<String, Long> getBytesByLevel() {
+        return byLevel(this.bytes);
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return this.droppedEvents.sum();
+    }
+
+    @Override
+    public long getSuppressedLines() {
+        return this.suppressedLines.sum();
+    }
+
+    @Override
+    public long getCallerLookups() {
+        return this.callerLookups.sum();
+    }
+
+    @Override
+    public long getCallerLookupNanos() {
+        return this.callerLookupNanos.sum();
+    }
+
+    @Override
+    public long getWriteLatencyP50Nanos() {
+        return this.snapshot().getWriteLatencyNanos(0.5);
+    }
+
+    @Override
+    public long getWriteLatencyP99Nanos() {
+        return this.snapshot().getWriteLatencyNanos(0.99);
+    }
+
+    @Override
+    public long getWriteLatencyMaxNanos() {
+        return this.writeLatencyMax.get();
+    }
+
+    @Override
+    public Map<String, Long> getLinesByJob() {
+        return this.snapshot().getLinesByJob();
+    }
+
+    @Override
+    public Map<String, Long> getBytesByJob() {
+        return this.snapshot().getBytesByJob();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < LEVELS.length; i++) {
+            this.lines[i].reset();
+            this.bytes[i].reset();
+        }
+        for (LongAdder adder : this.writeLatency) {
+            adder.reset();
+        }
+        this.writeLatencyMax.set(0);
+        this.droppedEvents.reset();
+        this.suppressedLines.reset();
+        this.callerLookups.reset();
+        this.callerLookupNanos.reset();
+        for (JobTotals totals : this.jobs.values()) {
+            totals.removed = true;
+        }
+        this.jobs.clear();
+    }
+
+    private void recordLatency(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+
+        final int bucket = nanos == 0 ? 0 : Math.min(LATENCY_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(nanos));
+        this.writeLatency[bucket].increment();
+
+        long max = this.writeLatencyMax.get();
+        while (nanos > max && !this.writeLatencyMax.compareAndSet(max, nanos)) {
+            max = this.writeLatencyMax.get();
+        }
+    }
+
+    private JobTotals trackJob(long jobId) {
+        if (this.jobs.size() >= MAX_TRACKED_JOBS) {
+            final Iterator<JobTotals> iterator = this.jobs.values().iterator();
+            if (iterator.hasNext()) {
+                iterator.next().removed = true;
+                iterator.remove();
+            }
+        }
+        return this.jobs.computeIfAbsent(jobId, JobTotals::new);
+    }
+
+    /**
+     * 注册到平台{@link MBeanServer}，已注册或环境不支持时忽略
+     */
+    private void register() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ignored) {
+            // 其他类加载器已注册
+        } catch (JMException | RuntimeException | LinkageError e) {
+            LOGGER.warn("register logger metrics mbean error", e);
+        }
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        final LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static Map<String, Long> byLevel(LongAdder[] adders) {
+        final Map<String, Long> values = new LinkedHashMap<>();
+        for (Level level : LEVELS) {
+            values.put(level.name().toLowerCase(Locale.ROOT), adders[level.ordinal()].sum());
+        }
+        return values;
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long sum = 0;
+        for (LongAdder adder : adders) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * 单个任务的统计
+     */
+    private static final class JobTotals {
+
+        private final long jobId;
+
+        private final LongAdder lines = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        /**
+         * 已被淘汰或清空，线程缓存的统计需重新查找
+         */
+        private volatile boolean removed;
+
+        private JobTotals(long jobId) {
+            this.jobId = jobId;
+        }
+    }
+}
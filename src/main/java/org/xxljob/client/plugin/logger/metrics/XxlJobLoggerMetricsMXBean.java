@@ -0,0 +1,84 @@
+package org.xxljob.client.plugin.logger.metrics;
+
+import java.util.Map;
+
+/**
+ * <p>{@link XxlJobLoggerMetrics}的JMX接口，注册名称为{@value XxlJobLoggerMetrics#OBJECT_NAME}</p>
+ * <p>创建于 2026-10-18 18:02 18:02 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public interface XxlJobLoggerMetricsMXBean {
+
+    /**
+     * 写出的日志行数
+     */
+    long getLines();
+
+    /**
+     * 写出的日志字节数
+     */
+    long getBytes();
+
+    /**
+     * 按级别统计的日志行数
+     */
+    Map<String, Long> getLinesByLevel();
+
+    /**
+     * 按级别统计的日志字节数
+     */
+    Map<String, Long> getBytesByLevel();
+
+    /**
+     * 被丢弃的日志行数
+     */
+    long getDroppedEvents();
+
+    /**
+     * 被限流丢弃的日志行数
+     */
+    long getSuppressedLines();
+
+    /**
+     * 获取调用方的次数
+     */
+    long getCallerLookups();
+
+    /**
+     * 获取调用方的总耗时，单位纳秒
+     */
+    long getCallerLookupNanos();
+
+    /**
+     * 写出延迟的50分位，单位纳秒
+     */
+    long getWriteLatencyP50Nanos();
+
+    /**
+     * 写出延迟的99分位，单位纳秒
+     */
+    long getWriteLatencyP99Nanos();
+
+    /**
+     * 写出延迟的最大值，单位纳秒
+     */
+    long getWriteLatencyMaxNanos();
+
+    /**
+     * 按任务id统计的日志行数
+     */
+    Map<String, Long> getLinesByJob();
+
+    /**
+     * 按任务id统计的日志字节数
+     */
+    Map<String, Long> getBytesByJob();
+
+    /**
+     * 清空统计
+     */
+    void reset();
+}
@@ -0,0 +1,135 @@
+package org.xxljob.client.plugin.logger.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <p>{@link XxlJobLoggerMetrics}在某一时刻的不可变快照</p>
+ * <p>创建于 2026-10-18 18:10 18:10 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class XxlJobLoggerMetricsSnapshot {
+
+    private final Map<String, Long> linesByLevel;
+
+    private final Map<String, Long> bytesByLevel;
+
+    private final long droppedEvents;
+
+    private final long suppressedLines;
+
+    private final long callerLookups;
+
+    private final long callerLookupNanos;
+
+    /**
+     * 写出延迟直方图，下标i的桶统计{@code [2^i, 2^(i+1))}纳秒
+     */
+    private final long[] writeLatencyHistogram;
+
+    private final long writeLatencyMaxNanos;
+
+    private final Map<String, Long> linesByJob;
+
+    private final Map<String, Long> bytesByJob;
+
+    XxlJobLoggerMetricsSnapshot(Map<String, Long> linesByLevel, Map<String, Long> bytesByLevel, long droppedEvents,
+                                long suppressedLines, long callerLookups, long callerLookupNanos, long[] writeLatencyHistogram,
+                                long writeLatencyMaxNanos, Map<String, Long> linesByJob, Map<String, Long> bytesByJob) {
+        this.linesByLevel = Collections.unmodifiableMap(linesByLevel);
+        this.bytesByLevel = Collections.unmodifiableMap(bytesByLevel);
+        this.droppedEvents = droppedEvents;
+        this.suppressedLines = suppressedLines;
+        this.callerLookups = callerLookups;
+        this.callerLookupNanos = callerLookupNanos;
+        this.writeLatencyHistogram = writeLatencyHistogram;
+        this.writeLatencyMaxNanos = writeLatencyMaxNanos;
+        this.linesByJob = Collections.unmodifiableMap(linesByJob);
+        this.bytesByJob = Collections.unmodifiableMap(bytesByJob);
+    }
+
+    public long getLines() {
+        return sum(this.linesByLevel);
+    }
+
+    public long getBytes() {
+        return sum(this.bytesByLevel);
+    }
+
+    public Map<String, Long> getLinesByLevel() {
+        return this.linesByLevel;
+    }
+
+    public Map<String, Long> getBytesByLevel() {
+        return this.bytesByLevel;
+    }
+
+    public long getDroppedEvents() {
+        return this.droppedEvents;
+    }
+
+    public long getSuppressedLines() {
+        return this.suppressedLines;
+    }
+
+    public long getCallerLookups() {
+        return this.callerLookups;
+    }
+
+    public long getCallerLookupNanos() {
+        return this.callerLookupNanos;
+    }
+
+    public long[] getWriteLatencyHistogram() {
+        return this.writeLatencyHistogram.clone();
+    }
+
+    public long getWriteLatencyMaxNanos() {
+        return this.writeLatencyMaxNanos;
+    }
+
+    public Map<String, Long> getLinesByJob() {
+        return this.linesByJob;
+    }
+
+    public Map<String, Long> getBytesByJob() {
+        return this.bytesByJob;
+    }
+
+    /**
+     * 写出延迟的分位数，返回所在桶的上界，单位纳秒
+     *
+     * @param quantile 分位，取值{@code (0, 1]}
+     * @return long
+     */
+    public long getWriteLatencyNanos(double quantile) {
+        long total = 0;
+        for (long count : this.writeLatencyHistogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < this.writeLatencyHistogram.length; i++) {
+            seen += this.writeLatencyHistogram[i];
+            if (seen >= rank) {
+                return Math.min((1L << (i + 1)) - 1, this.writeLatencyMaxNanos);
+            }
+        }
+        return this.writeLatencyMaxNanos;
+    }
+
+    private static long sum(Map<String, Long> values) {
+        long sum = 0;
+        for (Long value : values.values()) {
+            sum += value;
+        }
+        return sum;
+    }
+}
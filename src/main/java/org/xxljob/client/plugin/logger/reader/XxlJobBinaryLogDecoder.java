@@ -0,0 +1,242 @@
+package org.xxljob.client.plugin.logger.reader;
+
+import org.xxljob.client.plugin.logger.encoder.XxlJobBinaryLogEncoder;
+import org.xxljob.client.plugin.logger.layout.CachedDateFormatter;
+import org.xxljob.client.plugin.logger.layout.MessageFormats;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>{@link XxlJobBinaryLogEncoder}记录的解码，按默认日志格式还原为文本：
+ * {@code 日期 级别 pid --- [traceId] {上下文} [线程] 调用方 : 日志信息 :异常堆栈}</p>
+ * <p>
+ * 解码有状态，字典和时间基准随记录依次累积，同一文件必须从头按顺序解码；
+ * 引用了未定义字典项的记录以{@code ?}代替，无法解析的记录输出一行说明，不影响之后的文本行
+ * </p>
+ * <p>非线程安全，每次读取日志时创建</p>
+ * <p>创建于 2026-10-19 01:40 01:40 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class XxlJobBinaryLogDecoder {
+
+    private static final String UNDEFINED = "?";
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final List<Object> args = new ArrayList<>();
+
+    private CachedDateFormatter dateFormatter = new CachedDateFormatter("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private long pid = -1;
+
+    private long lastTimestamp;
+
+    private byte[] record;
+
+    private int position;
+
+    private int end;
+
+    /**
+     * 解码一条记录的内容（不含起始字节、长度和行尾的{@code \r\n}），日志记录追加还原后的文本，不含行分隔符
+     *
+     * @param record  记录内容
+     * @param offset  起始位置
+     * @param length  长度
+     * @param content 文本构造器
+     * @return 是否追加了日志文本，文件头和字典项返回false
+     */
+    public boolean decode(byte[] record, int offset, int length, StringBuilder content) {
+        this.record = record;
+        this.position = offset;
+        this.end = offset + length;
+        final int start = content.length();
+        try {
+            switch (this.readByte()) {
+                case XxlJobBinaryLogEncoder.TYPE_HEADER:
+                    this.readHeader();
+                    return false;
+                case XxlJobBinaryLogEncoder.TYPE_DEFINE:
+                    this.dictionary.add(new String(record, this.position, this.end - this.position, StandardCharsets.UTF_8));
+                    return false;
+                case XxlJobBinaryLogEncoder.TYPE_EVENT:
+                    this.readEvent(content);
+                    return true;
+                default:
+                    content.append("[unknown binary log record]");
+                    return true;
+            }
+        } catch (RuntimeException e) {
+            content.setLength(start);
+            content.append("[unreadable binary log record]");
+            return true;
+        } finally {
+            this.record = null;
+        }
+    }
+
+    private void readHeader() {
+        final long version = this.readVarLong();
+        if (version != XxlJobBinaryLogEncoder.VERSION) {
+            throw new IllegalStateException("Unsupported binary log version: " + version);
+        }
+
+        this.pid = unzigzag(this.readVarLong());
+        final String dateFormat = this.readString();
+        if (!dateFormat.equals(this.dateFormatter.getPattern())) {
+            this.dateFormatter = new CachedDateFormatter(dateFormat);
+        }
+        this.dictionary.clear();
+        this.lastTimestamp = 0;
+    }
+
+    private void readEvent(StringBuilder content) {
+        final long timestamp = this.lastTimestamp + unzigzag(this.readVarLong());
+        this.lastTimestamp = timestamp;
+        final String level = this.readString();
+        final String trace = this.readString();
+        final String context = this.readString();
+        final String thread = this.readString();
+        final String caller = this.readString();
+        final long line = this.readVarLong();
+        final String template = this.readString();
+        final Object[] args = this.readArgs();
+        final String throwable = this.readString();
+
+        this.dateFormatter.format(timestamp, content);
+        content.append(' ');
+        pad(level, content);
+        content.append(' ');
+        if (this.pid != -1) {
+            content.append(this.pid).append(" --- ");
+        }
+        if (null != trace) {
+            content.append('[').append(trace).append(']').append(' ');
+        }
+        if (null != context) {
+            content.append(context);
+        }
+        content.append('[');
+        pad(thread, content);
+        content.append(']').append(' ');
+
+        content.append(caller);
+        if (line != 0) {
+            content.append(':').append(unzigzag(line - 1));
+        }
+        content.append(" : ");
+
+        if (null != template) {
+            MessageFormats.formatTo(template, args, content);
+            if (null != throwable) {
+                content.append(" :");
+            }
+        }
+        if (null != throwable) {
+            content.append(throwable);
+        }
+    }
+
+    private Object[] readArgs() {
+        final long count = this.readVarLong();
+        if (count == 0) {
+            return null;
+        }
+
+        this.args.clear();
+        for (long i = 1; i < count; i++) {
+            final byte type = this.readByte();
+            switch (type) {
+                case XxlJobBinaryLogEncoder.ARG_NULL:
+                    this.args.add(null);
+                    break;
+                case XxlJobBinaryLogEncoder.ARG_LONG:
+                    this.args.add(unzigzag(this.readVarLong()));
+                    break;
+                case XxlJobBinaryLogEncoder.ARG_DOUBLE: {
+                    long bits = 0;
+                    for (int j = 0; j < 8; j++) {
+                        bits = (bits << 8) | (this.readByte() & 0xFF);
+                    }
+                    this.args.add(Double.longBitsToDouble(bits));
+                    break;
+                }
+                case XxlJobBinaryLogEncoder.ARG_TRUE:
+                    this.args.add(Boolean.TRUE);
+                    break;
+                case XxlJobBinaryLogEncoder.ARG_FALSE:
+                    this.args.add(Boolean.FALSE);
+                    break;
+                case XxlJobBinaryLogEncoder.ARG_STRING:
+                    this.args.add(this.readString());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown argument type: " + type);
+            }
+        }
+        return this.args.toArray();
+    }
+
+    /**
+     * 读取字符串引用
+     *
+     * @return 不存在时返回null
+     */
+    private String readString() {
+        final long ref = this.readVarLong();
+        if (ref == 0) {
+            return null;
+        }
+
+        if ((ref & 1) == 1) {
+            final int length = (int) (ref >>> 1);
+            if (length < 0 || length > this.end - this.position) {
+                throw new IllegalStateException("Inline string exceeds record");
+            }
+            final String value = new String(this.record, this.position, length, StandardCharsets.UTF_8);
+            this.position += length;
+            return value;
+        }
+
+        final long id = (ref >>> 1) - 1;
+        return id < this.dictionary.size() ? this.dictionary.get((int) id) : UNDEFINED;
+    }
+
+    private byte readByte() {
+        if (this.position >= this.end) {
+            throw new IllegalStateException("Truncated binary log record");
+        }
+        return this.record[this.position++];
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = this.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    /**
+     * 左侧补空格到5个字符，同{@code String.format("%5s", value)}
+     */
+    private static void pad(String value, StringBuilder content) {
+        for (int i = value.length(); i < 5; i++) {
+            content.append(' ');
+        }
+        content.append(value);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
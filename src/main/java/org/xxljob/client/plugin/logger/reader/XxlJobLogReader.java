@@ -0,0 +1,359 @@
+package org.xxljob.client.plugin.logger.reader;
+
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobLogLineIndex;
+import org.xxljob.client.plugin.logger.appender.XxlJobMappedFileLogAppender;
+import org.xxljob.client.plugin.logger.archive.XxlJobLogArchiver;
+import org.xxljob.client.plugin.logger.encoder.XxlJobBinaryLogEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * <p>读取任务日志，替代{@link XxlJobFileAppender#readLog(String, int)}，同时支持{@link XxlJobLogArchiver}归档后的日志</p>
+ * <p>
+ * 返回结果与{@link XxlJobFileAppender#readLog(String, int)}一致：行号从1开始，返回{@code fromLineNum}及之后的行，
+ * 归档中的{@code 日志文件.archiving}、归档后又追加的日志依次接在压缩内容之后
+ * </p>
+ * <p>与{@link java.io.LineNumberReader}一致，行以{@code \n}、{@code \r}或{@code \r\n}结尾</p>
+ * <p>存在{@link XxlJobLogLineIndex}行偏移索引时，按索引直接定位到{@code fromLineNum}附近，使用{@link FileChannel}按位置读取，
+ * 读取耗时只与返回的行数有关，与日志文件大小无关；读取到二进制记录时不使用索引，从头读取</p>
+ * <p>{@link XxlJobMappedFileLogAppender}写出期间映射区域中未使用的部分是0字节，行首的0字节全部跳过，之后xxl-job追加的内容同样返回；
+ * 行中间读取到0字节说明该行正在写出，读取到此结束，不完整的行留到下次读取</p>
+ * <p>{@link XxlJobBinaryLogEncoder}写出的二进制记录由{@link XxlJobBinaryLogDecoder}还原为文本，与文本行按原顺序返回</p>
+ * <p>读取期间持有{@link XxlJobLogArchiver#getReadLock(String)}，不会读取到归档中不完整的内容</p>
+ * <p>在执行器中覆盖{@code ExecutorBizImpl#log}，使用{@link #readLog(String, int)}读取即可</p>
+ * <p>创建于 2026-10-18 20:40 20:40 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public final class XxlJobLogReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 二进制记录的最大长度，超出视为文件损坏
+     */
+    private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+
+    /**
+     * 读取状态：文本行、二进制记录长度、二进制记录内容、二进制记录末尾
+     */
+    private static final int TEXT = 0;
+
+    private static final int RECORD_LENGTH = 1;
+
+    private static final int RECORD = 2;
+
+    private static final int RECORD_END = 3;
+
+    private XxlJobLogReader() {
+    }
+
+    /**
+     * 读取任务日志
+     *
+     * @param logFileName 任务日志文件
+     * @param fromLineNum 开始行号，从1开始
+     * @return {@link LogResult}
+     */
+    public static LogResult readLog(String logFileName, int fromLineNum) {
+        if (null == logFileName || logFileName.trim().isEmpty()) {
+            return new LogResult(fromLineNum, 0, "readLog fail, logFile not found", true);
+        }
+
+        final Lock lock = XxlJobLogArchiver.getReadLock(logFileName);
+        lock.lock();
+        try {
+            return read(logFileName, fromLineNum);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static LogResult read(String logFileName, int fromLineNum) {
+        final Path archive = Paths.get(XxlJobLogArchiver.getArchiveFileName(logFileName));
+        final Path pending = Paths.get(XxlJobLogArchiver.getArchivingFileName(logFileName));
+        if (!Files.exists(archive) && !Files.exists(pending)) {
+            final LogResult indexed = readIndexed(logFileName, fromLineNum);
+            return null == indexed ? readPlain(logFileName, fromLineNum) : indexed;
+        }
+
+        final Path source = Paths.get(logFileName);
+        final StringBuilder content = new StringBuilder();
+        int lineNum = 0;
+        try {
+            if (Files.exists(archive)) {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(archive), BUFFER_SIZE)) {
+                    lineNum = readLines(Channels.newChannel(in), lineNum, fromLineNum, content, false, false);
+                }
+            }
+
+            for (Path path : new Path[]{pending, source}) {
+                if (Files.exists(path)) {
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        lineNum = readLines(channel, 0, lineNum, fromLineNum, content, false);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 与xxl-job一致，返回已读取的内容
+        }
+
+        return new LogResult(fromLineNum, lineNum, content.toString(), false);
+    }
+
+    /**
+     * 从头读取未归档、无索引的日志文件
+     */
+    private static LogResult readPlain(String logFileName, int fromLineNum) {
+        final Path source = Paths.get(logFileName);
+        if (!Files.exists(source)) {
+            return new LogResult(fromLineNum, 0, "readLog fail, logFile not exists", true);
+        }
+
+        // 映射写出中的文件存在尚未使用的0字节区域
+        final boolean mapped = Files.exists(Paths.get(XxlJobMappedFileLogAppender.getMappedFileName(logFileName)));
+        final StringBuilder content = new StringBuilder();
+        int lineNum = 0;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            lineNum = readLines(channel, 0, 0, fromLineNum, content, mapped);
+        } catch (IOException e) {
+            // 与xxl-job一致，返回已读取的内容
+        }
+        return new LogResult(fromLineNum, lineNum, content.toString(), false);
+    }
+
+    /**
+     * 按行偏移索引读取
+     *
+     * @return 索引不存在或不可用时返回null
+     */
+    private static LogResult readIndexed(String logFileName, int fromLineNum) {
+        final Path index = Paths.get(XxlJobLogLineIndex.getIndexFileName(logFileName));
+        final Path source = Paths.get(logFileName);
+        if (!Files.exists(index) || !Files.exists(source)) {
+            return null;
+        }
+
+        try (FileChannel indexChannel = FileChannel.open(index, StandardOpenOption.READ);
+             FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            final int interval = XxlJobLogLineIndex.readInterval(indexChannel);
+            final long entries = XxlJobLogLineIndex.entryCount(indexChannel);
+            if (interval <= 0 || entries == 0) {
+                return null;
+            }
+
+            final long entry = Math.min(entries - 1, Math.max(0, fromLineNum - 1L) / interval);
+            final long offset = XxlJobLogLineIndex.readEntry(indexChannel, entry);
+            if (offset < 0 || offset > channel.size()) {
+                return null;
+            }
+
+            final StringBuilder content = new StringBuilder();
+            channel.position(offset);
+            final int lineNum = readLines(channel, (int) (entry * interval), fromLineNum, content, true, false);
+            // 二进制记录解码后的行数与索引不一致
+            return lineNum < 0 ? null : new LogResult(fromLineNum, lineNum, content.toString(), false);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 从{@code offset}开始按位置读取，见{@link #readLines(ReadableByteChannel, int, int, StringBuilder, boolean, boolean)}
+     *
+     * @param mapped 是否为映射写出中的文件
+     * @return 读取后的行号
+     */
+    private static int readLines(FileChannel channel, long offset, int lineNum, int fromLineNum, StringBuilder content,
+                                 boolean mapped) throws IOException {
+        channel.position(offset);
+        return readLines(channel, lineNum, fromLineNum, content, false, mapped);
+    }
+
+    /**
+     * 以{@code \n}、{@code \r}或{@code \r\n}分行，追加{@code fromLineNum}及之后的行，0字节与{@code XxlJobFileAppender.readLog}一致按原样读取；
+     * 映射写出中的文件跳过行首的0字节，在行中间读取到0字节时结束；
+     * 行首为{@link XxlJobBinaryLogEncoder#MARKER}时按长度读取二进制记录，解码后的每一行同样计入行号
+     *
+     * @param textOnly 只允许文本行，读取到二进制记录时返回-1
+     * @param mapped   是否为映射写出中的文件
+     * @return 读取后的行号
+     */
+    private static int readLines(ReadableByteChannel channel, int lineNum, int fromLineNum, StringBuilder content, boolean textOnly,
+                                 boolean mapped) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] line = new byte[256];
+        int length = 0;
+        boolean lineStart = true;
+        boolean afterCarriageReturn = false;
+
+        XxlJobBinaryLogDecoder decoder = null;
+        StringBuilder decoded = null;
+        int state = TEXT;
+        int recordLength = 0;
+        int recordShift = 0;
+
+        while (channel.read(buffer) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                if (state == RECORD) {
+                    // 二进制记录内容按长度整体复制
+                    final int count = Math.min(recordLength - length, buffer.remaining());
+                    buffer.get(line, length, count);
+                    length += count;
+                    if (length < recordLength) {
+                        continue;
+                    }
+
+                    if (null == decoder) {
+                        decoder = new XxlJobBinaryLogDecoder();
+                        decoded = new StringBuilder();
+                    }
+                    decoded.setLength(0);
+                    if (decoder.decode(line, 0, length, decoded)) {
+                        lineNum = appendDecoded(decoded, lineNum, fromLineNum, content);
+                    }
+                    length = 0;
+                    state = RECORD_END;
+                    continue;
+                }
+
+                final byte b = buffer.get();
+                if (state == RECORD_LENGTH) {
+                    recordLength |= (b & 0x7F) << recordShift;
+                    recordShift += 7;
+                    if ((b & 0x80) != 0) {
+                        if (recordShift > 28) {
+                            // 长度不合法，跳过该行
+                            state = RECORD_END;
+                        }
+                        continue;
+                    }
+                    if (recordLength <= 0 || recordLength > MAX_RECORD_LENGTH) {
+                        state = RECORD_END;
+                        continue;
+                    }
+                    if (recordLength > line.length) {
+                        line = Arrays.copyOf(line, recordLength);
+                    }
+                    length = 0;
+                    state = RECORD;
+                    continue;
+                }
+                if (state == RECORD_END) {
+                    // 跳过记录末尾的\r\n
+                    if (b == '\n') {
+                        state = TEXT;
+                        lineStart = true;
+                    }
+                    continue;
+                }
+
+                if (afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    if (b == '\n') {
+                        // \r\n的后半部分
+                        continue;
+                    }
+                }
+
+                if (lineStart) {
+                    if (b == 0 && mapped) {
+                        // 映射写出尚未使用的区域
+                        continue;
+                    }
+                    if (b == XxlJobBinaryLogEncoder.MARKER) {
+                        if (textOnly) {
+                            return -1;
+                        }
+                        recordLength = 0;
+                        recordShift = 0;
+                        state = RECORD_LENGTH;
+                        continue;
+                    }
+                }
+
+                if (b == 0 && mapped) {
+                    // 映射写出中的行
+                    return lineNum;
+                }
+                if (b != '\n' && b != '\r') {
+                    lineStart = false;
+                    // 跳过之前的行时无需保留内容
+                    if (lineNum + 1 >= fromLineNum) {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, length << 1);
+                        }
+                        line[length++] = b;
+                    }
+                    continue;
+                }
+
+                lineNum++;
+                if (lineNum >= fromLineNum) {
+                    appendLine(line, length, content);
+                }
+                length = 0;
+                lineStart = true;
+                afterCarriageReturn = b == '\r';
+            }
+            buffer.clear();
+        }
+
+        // 最后一行没有换行符，写出中的二进制记录留到下次读取
+        if (state == TEXT && length > 0) {
+            lineNum++;
+            appendLine(line, length, content);
+        }
+        return lineNum;
+    }
+
+    /**
+     * 追加二进制记录解码后的文本，每个{@code \n}、{@code \r}或{@code \r\n}分隔的片段计为一行，与文本格式写出后读取的行数一致
+     *
+     * @return 追加后的行号
+     */
+    private static int appendDecoded(StringBuilder decoded, int lineNum, int fromLineNum, StringBuilder content) {
+        int start = 0;
+        final int length = decoded.length();
+        while (true) {
+            int end = start;
+            while (end < length && decoded.charAt(end) != '\n' && decoded.charAt(end) != '\r') {
+                end++;
+            }
+
+            lineNum++;
+            if (lineNum >= fromLineNum) {
+                content.append(decoded, start, end).append('\n');
+            }
+            if (end == length) {
+                return lineNum;
+            }
+            start = end + 1;
+            if (decoded.charAt(end) == '\r' && start < length && decoded.charAt(start) == '\n') {
+                start++;
+            }
+        }
+    }
+
+    private static void appendLine(byte[] line, int length, StringBuilder content) {
+        content.append(new String(line, 0, length, StandardCharsets.UTF_8)).append('\n');
+    }
+}
@@ -2,11 +2,13 @@ package org.xxljob.client.plugin.logger.slf4j;
 
 import org.slf4j.Logger;
 import org.slf4j.Marker;
+import org.slf4j.event.Level;
 import org.xxljob.client.plugin.logger.XxlJobLogger;
 import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
 
 /**
  * <p>将{@link org.xxljob.client.plugin.logger.XxlJobLogger}桥接到{@link Logger}</p>
+ * <p>{@code isXxxEnabled}同时考虑当前任务的覆盖级别，见{@link org.xxljob.client.plugin.logger.level.XxlJobLogLevelOverrides}</p>
  * <p>创建于 2024-12-29 19:39 19:39 </p>
  *
  * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
@@ -36,7 +38,7 @@ public class XxlJobSlf4jLogger implements Logger {
 
     @Override
     public boolean isTraceEnabled() {
-        return this.slf4jLogger.isTraceEnabled();
+        return this.slf4jLogger.isTraceEnabled() || this.xxlJobLogger.isOverrideEnabled(Level.TRACE);
     }
 
     @Override
@@ -71,7 +73,7 @@ public class XxlJobSlf4jLogger implements Logger {
 
     @Override
     public boolean isTraceEnabled(Marker marker) {
-        return this.slf4jLogger.isTraceEnabled(marker);
+        return this.slf4jLogger.isTraceEnabled(marker) || this.xxlJobLogger.isOverrideEnabled(Level.TRACE);
     }
 
     @Override
@@ -106,12 +108,12 @@ public class XxlJobSlf4jLogger implements Logger {
 
     @Override
     public boolean isDebugEnabled() {
-        return this.slf4jLogger.isDebugEnabled();
+        return this.slf4jLogger.isDebugEnabled() || this.xxlJobLogger.isOverrideEnabled(Level.DEBUG);
     }
 
     @Override
     public boolean isDebugEnabled(Marker marker) {
-        return this.slf4jLogger.isDebugEnabled(marker);
+        return this.slf4jLogger.isDebugEnabled(marker) || this.xxlJobLogger.isOverrideEnabled(Level.DEBUG);
     }
 
     @Override
@@ -176,12 +178,12 @@ public class XxlJobSlf4jLogger implements Logger {
 
     @Override
     public boolean isInfoEnabled() {
-        return this.slf4jLogger.isInfoEnabled();
+        return this.slf4jLogger.isInfoEnabled() || this.xxlJobLogger.isOverrideEnabled(Level.INFO);
     }
 
     @Override
     public boolean isInfoEnabled(Marker marker) {
-        return this.slf4jLogger.isInfoEnabled(marker);
+        return this.slf4jLogger.isInfoEnabled(marker) || this.xxlJobLogger.isOverrideEnabled(Level.INFO);
     }
 
 
@@ -247,17 +249,17 @@ public class XxlJobSlf4jLogger implements Logger {
 
     @Override
     public boolean isWarnEnabled() {
-        return this.slf4jLogger.isWarnEnabled();
+        return this.slf4jLogger.isWarnEnabled() || this.xxlJobLogger.isOverrideEnabled(Level.WARN);
     }
 
     @Override
     public boolean isWarnEnabled(Marker marker) {
-        return this.slf4jLogger.isWarnEnabled(marker);
+        return this.slf4jLogger.isWarnEnabled(marker) || this.xxlJobLogger.isOverrideEnabled(Level.WARN);
     }
 
     @Override
     public boolean isErrorEnabled() {
-        return this.slf4jLogger.isErrorEnabled();
+        return this.slf4jLogger.isErrorEnabled() || this.xxlJobLogger.isOverrideEnabled(Level.ERROR);
     }
 
 
@@ -323,7 +325,7 @@ public class XxlJobSlf4jLogger implements Logger {
 
     @Override
     public boolean isErrorEnabled(Marker marker) {
-        return this.slf4jLogger.isErrorEnabled(marker);
+        return this.slf4jLogger.isErrorEnabled(marker) || this.xxlJobLogger.isOverrideEnabled(Level.ERROR);
     }
 
     @Override
@@ -5,13 +5,16 @@ import org.slf4j.event.Level;
 import org.xxljob.client.plugin.logger.XxlJobLogger;
 import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>{@link Logger}的动态代理实现，该类通过{@link Proxy}的方式，将日志的目的地分为两处，一处去往原始的日志输出，
@@ -25,8 +28,24 @@ import java.util.Optional;
 @SuppressWarnings("unused")
 public class XxlJobSlf4jProxyLogger implements InvocationHandler {
 
+    /**
+     * 函数名与日志级别的对应关系
+     */
+    private static final Map<String, Level> LEVELS = new HashMap<>();
+
+    static {
+        for (Level level : Level.values()) {
+            LEVELS.put(level.toString().toLowerCase(Locale.ROOT), level);
+        }
+    }
+
     private final Logger slf4jLogger;
 
+    /**
+     * 按{@link Method}缓存的调用描述
+     */
+    private final Map<Method, Dispatch> dispatches = new ConcurrentHashMap<>();
+
     private XxlJobSlf4jProxyLogger(Logger logger) {
         this.slf4jLogger = logger;
     }
@@ -47,88 +66,145 @@ public class XxlJobSlf4jProxyLogger implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        final String methodName = method.getName();
-        final String upperCaseMethodName = methodName.toUpperCase();
-        final Optional<Level> sameMethodNameLevel = Arrays.stream(Level.values())
-                .filter(level -> level.toString().equals(upperCaseMethodName))
-                .findFirst();
-
-        // 非level相关的方法调用
-        if (!sameMethodNameLevel.isPresent()) {
+        Dispatch dispatch = this.dispatches.get(method);
+        if (null == dispatch) {
+            dispatch = this.dispatches.computeIfAbsent(method, this::createDispatch);
+        }
+
+        // level相关的方法调用，同时输出到xxlJob
+        if (null != dispatch.level) {
+            final String formatMessage = (String) args[dispatch.messageIndex];
+            final Throwable ex = dispatch.throwableIndex == -1 ? null : (Throwable) args[dispatch.throwableIndex];
+            final XxlJobLogger logger = XxlJobLoggerFactory.getLogger();
+            logger.log(dispatch.fqcn, this.slf4jLogger, dispatch.level, formatMessage, ex, this.filterParameters(args, dispatch));
+        }
+
+        if (null == dispatch.target) {
             return method.invoke(this.slf4jLogger, args);
         }
 
-        final Level level = sameMethodNameLevel.get();
-        final XxlJobLogger logger = XxlJobLoggerFactory.getLogger();
+        return dispatch.target.invoke(args);
+    }
+
+    /**
+     * 解析{@link Logger}函数签名，仅在每个函数第一次调用时执行
+     *
+     * @param method {@link Logger}函数
+     * @return {@link Dispatch }
+     */
+    private Dispatch createDispatch(Method method) {
+        MethodHandle target;
+        try {
+            target = MethodHandles.publicLookup()
+                    .unreflect(method)
+                    .bindTo(this.slf4jLogger)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            target = null;
+        }
 
-        // 获取当前函数所在的类
-        final Class<?> fqcn = method.getDeclaringClass();
-        final Logger slf4jLogger = (Logger) proxy;
+        final Level level = LEVELS.get(method.getName());
+        if (null == level) {
+            return new Dispatch(null, method.getDeclaringClass(), target, -1, -1, -1, -1, false);
+        }
 
-        Throwable ex = null;
-        String formatMessage = null;
-        int formatMessageParameterIndex = -1, argumentParameterIndex = -1, exceptionParameterIndex = -1;
+        int messageIndex = -1, throwableIndex = -1, varargsIndex = -1;
         final Class<?>[] parameterTypes = method.getParameterTypes();
         for (int i = 0, parameterTypesLength = parameterTypes.length; i < parameterTypesLength; i++) {
             final Class<?> parameterType = parameterTypes[i];
 
-            // 第一个参数是message
-            if (formatMessageParameterIndex == -1 && parameterType == String.class) {
-                formatMessageParameterIndex = i;
-                formatMessage = (String) args[i];
-                continue;
-            }
-
-            if (formatMessageParameterIndex == -1) {
-                // 首先得到的就是message
-                continue;
-            }
-
-            if (argumentParameterIndex == -1) {
-                argumentParameterIndex = i;
+            // 第一个String参数是message
+            if (messageIndex == -1) {
+                if (parameterType == String.class) {
+                    messageIndex = i;
+                }
                 continue;
             }
 
             if (parameterType == Throwable.class) {
-                exceptionParameterIndex = i;
-                ex = (Throwable) args[i];
+                throwableIndex = i;
+            } else if (parameterType == Object[].class) {
+                varargsIndex = i;
             }
         }
 
-        final Object[] parameters = this.filterParameters(args, formatMessageParameterIndex, exceptionParameterIndex);
-        logger.log(fqcn, slf4jLogger, level, formatMessage, ex, parameters);
-        return method.invoke(this.slf4jLogger, args);
-    }
+        // 非日志输出的同名函数
+        if (messageIndex == -1) {
+            return new Dispatch(null, method.getDeclaringClass(), target, -1, -1, -1, -1, false);
+        }
 
+        final int argumentFrom = messageIndex + 1;
+        final int argumentTo = throwableIndex == -1 ? parameterTypes.length : throwableIndex;
+        final boolean varargs = varargsIndex == argumentFrom && argumentTo == argumentFrom + 1;
+        return new Dispatch(level, method.getDeclaringClass(), target, messageIndex, argumentFrom, argumentTo, throwableIndex, varargs);
+    }
 
     /**
-     * 从{@code args}中过滤得到调用{@link Logger}相关函数的可变长参数
+     * 从{@code args}中过滤得到调用{@link Logger}相关函数的可变长参数，可变长参数直接复用原数组
      *
-     * @param args          参数
-     * @param fromIndex     参数预计开始位置
-     * @param exceptToIndex 参数预计结束位置（异常开始的位置）
+     * @param args     参数
+     * @param dispatch 函数签名
      * @return {@code Object[] }
      */
-    private Object[] filterParameters(Object[] args, int fromIndex, int exceptToIndex) {
-        if (null == args) {
-            return null;
+    private Object[] filterParameters(Object[] args, Dispatch dispatch) {
+        if (dispatch.varargs) {
+            return (Object[]) args[dispatch.argumentFrom];
         }
 
-        final int length = args.length;
-        if (fromIndex > length - 1) {
+        final int length = dispatch.argumentTo - dispatch.argumentFrom;
+        if (length <= 0) {
             return null;
         }
 
-        final int toIndex = (exceptToIndex == -1 ? length : exceptToIndex);
-        final List<Object> parameters = new ArrayList<>();
-        for (int i = fromIndex; i < toIndex; i++) {
-            if (i >= length - 1) {
-                return parameters.toArray();
-            }
-            final Object arg = args[i];
-            parameters.add(arg);
-        }
+        final Object[] parameters = new Object[length];
+        System.arraycopy(args, dispatch.argumentFrom, parameters, 0, length);
+        return parameters;
+    }
 
-        return parameters.toArray();
+    /**
+     * 单个{@link Logger}函数的调用描述，首次调用时创建后缓存
+     */
+    private static final class Dispatch {
+
+        /**
+         * 日志级别，null表示非日志输出函数
+         */
+        private final Level level;
+
+        /**
+         * 当前函数所在的类
+         */
+        private final Class<?> fqcn;
+
+        /**
+         * 已绑定实际{@link Logger}的调用句柄，类型为{@code (Object[])Object}，null时退化为反射调用
+         */
+        private final MethodHandle target;
+
+        private final int messageIndex;
+
+        private final int argumentFrom;
+
+        private final int argumentTo;
+
+        private final int throwableIndex;
+
+        /**
+         * 参数是否为可变长参数数组
+         */
+        private final boolean varargs;
+
+        private Dispatch(Level level, Class<?> fqcn, MethodHandle target, int messageIndex,
+                         int argumentFrom, int argumentTo, int throwableIndex, boolean varargs) {
+            this.level = level;
+            this.fqcn = fqcn;
+            this.target = target;
+            this.messageIndex = messageIndex;
+            this.argumentFrom = argumentFrom;
+            this.argumentTo = argumentTo;
+            this.throwableIndex = throwableIndex;
+            this.varargs = varargs;
+        }
     }
 }
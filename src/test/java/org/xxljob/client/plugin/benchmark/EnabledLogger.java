@@ -0,0 +1,56 @@
+package org.xxljob.client.plugin.benchmark;
+
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.LegacyAbstractLogger;
+
+/**
+ * <p>所有级别均开启、但不输出任何内容的{@link org.slf4j.Logger}，基准测试中只衡量{@code xxl-job}日志的开销</p>
+ * <p>创建于 2026-10-18 17:10 17:10 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class EnabledLogger extends LegacyAbstractLogger {
+
+    private static final long serialVersionUID = 2915247314127659385L;
+
+    public EnabledLogger(String name) {
+        this.name = name;
+    }
+
+    @Override
+    protected String getFullyQualifiedCallerName() {
+        return null;
+    }
+
+    @Override
+    protected void handleNormalizedLoggingCall(Level level, Marker marker, String messagePattern, Object[] arguments, Throwable throwable) {
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+}
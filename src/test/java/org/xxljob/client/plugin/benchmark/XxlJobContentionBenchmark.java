@@ -0,0 +1,156 @@
+package org.xxljob.client.plugin.benchmark;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.xxljob.client.plugin.logger.CallerPolicy;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
+import org.xxljob.client.plugin.logger.appender.XxlJobAsyncLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobCachedFileLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobStripedLogAppender;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * <p>多线程写同一个任务日志文件的竞争基准测试，对比{@link XxlJobCachedFileLogAppender}、{@link XxlJobAsyncLogAppender}和{@link XxlJobStripedLogAppender}的吞吐量随线程数的变化</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>{@link #appender}：写出组件</li>
+ *         <li>所有线程使用同一个{@link XxlJobContext}日志文件，不获取调用方，只衡量写出路径的竞争</li>
+ *         <li>每轮迭代结束后调用{@link XxlJobLogger#complete()}，异步写出的耗时计入结果</li>
+ *     </ul>
+ * </p>
+ * <p>运行{@link #main(String[])}，依次以1、2、4、8、16、32个线程运行，结果写入{@code target/jmh-contention-*.json}</p>
+ * <p>创建于 2026-10-18 23:40 23:40 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XxlJobContentionBenchmark {
+
+    /**
+     * 默认依次运行的线程数
+     */
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    private static final String MESSAGE = "contention message {} {}";
+
+    @Param({"cached", "async", "striped"})
+    public String appender;
+
+    private Path logDirectory;
+
+    private String logFileName;
+
+    private XxlJobLogger xxlJobLogger;
+
+    private final Object arg2 = "arg2";
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        this.logDirectory = Files.createTempDirectory("xxl-job-logger-contention");
+        this.logFileName = this.logDirectory.resolve("1.log").toString();
+
+        final Logger enabledLogger = new EnabledLogger(XxlJobContentionBenchmark.class.getName());
+        XxlJobLoggerFactory.setLogger(new XxlJobLogger() {
+            @Override
+            protected Logger getLogger(StackTraceElement caller) {
+                return enabledLogger;
+            }
+        });
+        this.xxlJobLogger = XxlJobLoggerFactory.getLogger();
+        this.xxlJobLogger.setCallerPolicy(CallerPolicy.NEVER);
+        this.xxlJobLogger.setAppender(this.createAppender());
+    }
+
+    @TearDown(Level.Iteration)
+    public void completeIteration() {
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, this.logFileName, 0, 1));
+        this.xxlJobLogger.complete();
+        XxlJobContext.setXxlJobContext(null);
+        new File(this.logFileName).delete();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        this.xxlJobLogger.setAppender(new XxlJobCachedFileLogAppender());
+        try (Stream<Path> paths = Files.walk(this.logDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private XxlJobLogAppender createAppender() {
+        switch (this.appender) {
+            case "async":
+                return new XxlJobAsyncLogAppender();
+            case "striped":
+                return new XxlJobStripedLogAppender();
+            default:
+                return new XxlJobCachedFileLogAppender();
+        }
+    }
+
+    /**
+     * 每个基准测试线程独立设置{@link XxlJobContext}，指向同一个日志文件
+     */
+    @State(Scope.Thread)
+    public static class JobThread {
+
+        private long count;
+
+        @Setup(Level.Trial)
+        public void setup(XxlJobContentionBenchmark benchmark) {
+            XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, benchmark.logFileName, 0, 1));
+        }
+    }
+
+    @Benchmark
+    public void sharedFile(JobThread jobThread) {
+        this.xxlJobLogger.info(MESSAGE, jobThread.count++, this.arg2);
+    }
+
+    public static void main(String[] args) throws Exception {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        for (int threads : THREADS) {
+            new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(XxlJobContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-contention-" + threads + "t.json")
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.xxljob.client.plugin.benchmark;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
+import org.xxljob.client.plugin.logger.slf4j.XxlJobSlf4jLogger;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>验证没有{@code XxlJobContext}，或存在{@code XxlJobContext}但日志级别未开启时，固定参数个数的日志函数不产生任何对象</p>
+ * <p>运行{@link #main(String[])}，除直接调用外所有基准的{@code gc.alloc.rate.norm}须为{@code 0 B/op}，否则抛出{@link AssertionError}</p>
+ * <p>
+ * 直接调用{@link XxlJobLogger}时需遍历线程栈找到调用方类才能判断级别，遍历本身会产生对象；
+ * 此时带一个参数的调用不能比不带参数的调用分配更多，即级别未开启时不创建参数数组
+ * </p>
+ * <p>创建于 2026-10-18 14:20 14:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XxlJobLoggerAllocationBenchmark {
+
+    /**
+     * 直接调用带参数与不带参数的分配差值上限，单位字节
+     */
+    private static final int DIRECT_TOLERANCE_BYTES = 16;
+
+    private XxlJobLogger xxlJobLogger;
+
+    /**
+     * 所有级别都未开启的装饰器
+     */
+    private Logger disabledLogger;
+
+    private Object arg1;
+
+    private Object arg2;
+
+    @Setup
+    public void setup() {
+        this.xxlJobLogger = XxlJobLoggerFactory.getLogger();
+        this.disabledLogger = new XxlJobSlf4jLogger(NOPLogger.NOP_LOGGER);
+        this.arg1 = 1;
+        this.arg2 = "arg2";
+    }
+
+    /**
+     * 当前基准线程存在任务上下文，日志级别未开启时不会写出，日志文件不会创建
+     */
+    @State(Scope.Thread)
+    public static class ActiveContext {
+
+        @Setup(Level.Trial)
+        public void setup() {
+            final String logFileName = new File(System.getProperty("java.io.tmpdir"), "xxl-job-allocation-benchmark.log").getPath();
+            XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            XxlJobContext.setXxlJobContext(null);
+        }
+    }
+
+    @Benchmark
+    public void noContext0Arg() {
+        this.xxlJobLogger.info("no context");
+    }
+
+    @Benchmark
+    public void noContext1Arg() {
+        this.xxlJobLogger.info("no context {}", this.arg1);
+    }
+
+    @Benchmark
+    public void noContext2Args() {
+        this.xxlJobLogger.info("no context {} {}", this.arg1, this.arg2);
+    }
+
+    @Benchmark
+    public void decoratorDisabled1Arg(ActiveContext context) {
+        this.disabledLogger.debug("disabled {}", this.arg1);
+    }
+
+    @Benchmark
+    public void decoratorDisabled2Args(ActiveContext context) {
+        this.disabledLogger.debug("disabled {} {}", this.arg1, this.arg2);
+    }
+
+    @Benchmark
+    public void loggerDisabled1Arg(ActiveContext context) {
+        this.xxlJobLogger.debug(XxlJobLoggerAllocationBenchmark.class.getName(), NOPLogger.NOP_LOGGER, "disabled {}", this.arg1);
+    }
+
+    @Benchmark
+    public void loggerDisabled2Args(ActiveContext context) {
+        this.xxlJobLogger.debug(XxlJobLoggerAllocationBenchmark.class.getName(), NOPLogger.NOP_LOGGER, "disabled {} {}", this.arg1, this.arg2);
+    }
+
+    /**
+     * 直接调用，调用方为基准类，默认配置下{@code trace}级别未开启
+     */
+    @Benchmark
+    public void directDisabled0Arg(ActiveContext context) {
+        this.xxlJobLogger.trace("disabled");
+    }
+
+    @Benchmark
+    public void directDisabled1Arg(ActiveContext context) {
+        this.xxlJobLogger.trace("disabled {}", this.arg1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final StringBuilder failures = new StringBuilder();
+        double direct0Arg = Double.NaN, direct1Arg = Double.NaN;
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(XxlJobLoggerAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run()) {
+            final String benchmark = result.getParams().getBenchmark();
+            final double allocated = allocationPerOp(result);
+            if (benchmark.endsWith(".directDisabled0Arg")) {
+                direct0Arg = allocated;
+            } else if (benchmark.endsWith(".directDisabled1Arg")) {
+                direct1Arg = allocated;
+            } else if (Double.isNaN(allocated) || Math.round(allocated) != 0) {
+                // 按JMH输出的精度取整，排除采样误差
+                failures.append(benchmark).append(": ").append(allocated).append(" B/op\n");
+            }
+        }
+
+        // 参数数组至少16字节，差值小于该值视为采样误差
+        if (Double.isNaN(direct0Arg) || Double.isNaN(direct1Arg) || direct1Arg - direct0Arg >= DIRECT_TOLERANCE_BYTES) {
+            failures.append("directDisabled1Arg: ").append(direct1Arg).append(" B/op, directDisabled0Arg: ").append(direct0Arg).append(" B/op\n");
+        }
+
+        if (failures.length() > 0) {
+            throw new AssertionError("gc.alloc.rate.norm should be 0 B/op, or no more than the direct call without arguments\n" + failures);
+        }
+    }
+
+    /**
+     * 每次调用分配的字节数，JMH 1.36之前的名称带{@code ·}前缀
+     */
+    private static double allocationPerOp(RunResult result) {
+        for (Map.Entry<String, Result> entry : result.getAggregatedResult().getSecondaryResults().entrySet()) {
+            if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+                return entry.getValue().getScore();
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,258 @@
+package org.xxljob.client.plugin.benchmark;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
+import org.xxljob.client.plugin.logger.appender.XxlJobCachedFileLogAppender;
+import org.xxljob.client.plugin.logger.slf4j.XxlJobSlf4jLogger;
+import org.xxljob.client.plugin.logger.slf4j.XxlJobSlf4jProxyLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * <p>日志热点路径基准测试，分别衡量{@link XxlJobLogger}直接调用、{@link XxlJobSlf4jLogger}装饰器和{@link XxlJobSlf4jProxyLogger}代理</p>
+ * <p>
+ * 其中：
+ *     <ul>
+ *         <li>{@link #contextActive}：是否存在{@link XxlJobContext}，不存在时不输出xxlJob日志</li>
+ *         <li>{@link #argCount}：占位符参数个数</li>
+ *         <li>{@link #withException}：是否携带异常</li>
+ *         <li>{@link #layout}：{@code text}为默认日志格式，{@code json}为JSON Lines日志格式</li>
+ *         <li>日志写入临时目录，每轮迭代结束后清空，运行结束后删除</li>
+ *     </ul>
+ * </p>
+ * <p>运行{@link #main(String[])}，依次以1、4、8个线程运行并输出吞吐量、延迟分布和{@code -prof gc}的内存分配，
+ * 结果同时写入{@code target/jmh-result-*.json}，用于与基线对比；参数与JMH命令行一致，如{@code -p argCount=1}</p>
+ * <p>创建于 2026-10-18 17:20 17:20 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XxlJobLoggerBenchmark {
+
+    /**
+     * 默认依次运行的线程数
+     */
+    private static final int[] THREADS = {1, 4, 8};
+
+    private static final String MESSAGE_0 = "benchmark message";
+
+    private static final String MESSAGE_1 = "benchmark message {}";
+
+    private static final String MESSAGE_2 = "benchmark message {} {}";
+
+    private static final String MESSAGE_3 = "benchmark message {} {} {}";
+
+    @Param({"true", "false"})
+    public boolean contextActive;
+
+    @Param({"0", "1", "2", "3"})
+    public int argCount;
+
+    @Param({"false", "true"})
+    public boolean withException;
+
+    @Param({"text", "json"})
+    public String layout;
+
+    private Path logDirectory;
+
+    private String logFileName;
+
+    private XxlJobLogger xxlJobLogger;
+
+    private Logger decorateLogger;
+
+    private Logger proxyLogger;
+
+    private final Object arg1 = 1;
+
+    private final Object arg2 = "arg2";
+
+    private final Object arg3 = 3L;
+
+    private final Throwable exception = new IllegalStateException("benchmark exception");
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        this.logDirectory = Files.createTempDirectory("xxl-job-logger-benchmark");
+        this.logFileName = this.logDirectory.resolve("1.log").toString();
+
+        final Logger enabledLogger = new EnabledLogger(XxlJobLoggerBenchmark.class.getName());
+        // 直接调用时调用方Logger同样全部开启，保证与桥接方式输出相同的内容
+        XxlJobLoggerFactory.setLogger(new XxlJobLogger() {
+            @Override
+            protected Logger getLogger(StackTraceElement caller) {
+                return enabledLogger;
+            }
+        });
+        this.xxlJobLogger = XxlJobLoggerFactory.getLogger();
+        if ("json".equals(this.layout)) {
+            this.xxlJobLogger.useJsonLayout();
+        }
+        this.decorateLogger = new XxlJobSlf4jLogger(enabledLogger);
+        this.proxyLogger = XxlJobSlf4jProxyLogger.getLogger(enabledLogger);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncateLog() throws IOException {
+        final File file = new File(this.logFileName);
+        if (!file.exists()) {
+            return;
+        }
+
+        // 写出组件以追加方式打开文件，清空后继续写在文件末尾
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        // 替换写出组件，关闭已打开的日志文件
+        this.xxlJobLogger.setAppender(new XxlJobCachedFileLogAppender());
+        try (Stream<Path> paths = Files.walk(this.logDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * 每个基准测试线程独立设置{@link XxlJobContext}
+     */
+    @State(Scope.Thread)
+    public static class JobThread {
+
+        @Setup(Level.Trial)
+        public void setup(XxlJobLoggerBenchmark benchmark) {
+            XxlJobContext.setXxlJobContext(benchmark.contextActive
+                    ? new XxlJobContext(1, null, benchmark.logFileName, 0, 1)
+                    : null);
+        }
+    }
+
+    @Benchmark
+    public void direct(JobThread jobThread) {
+        final XxlJobLogger logger = this.xxlJobLogger;
+        if (this.withException) {
+            switch (this.argCount) {
+                case 0:
+                    logger.info(MESSAGE_0, this.exception);
+                    return;
+                case 1:
+                    logger.info(MESSAGE_1, this.exception, this.arg1);
+                    return;
+                case 2:
+                    logger.info(MESSAGE_2, this.exception, this.arg1, this.arg2);
+                    return;
+                default:
+                    logger.info(MESSAGE_3, this.exception, this.arg1, this.arg2, this.arg3);
+                    return;
+            }
+        }
+
+        switch (this.argCount) {
+            case 0:
+                logger.info(MESSAGE_0);
+                return;
+            case 1:
+                logger.info(MESSAGE_1, this.arg1);
+                return;
+            case 2:
+                logger.info(MESSAGE_2, this.arg1, this.arg2);
+                return;
+            default:
+                logger.info(MESSAGE_3, this.arg1, this.arg2, this.arg3);
+        }
+    }
+
+    @Benchmark
+    public void decorator(JobThread jobThread) {
+        this.slf4j(this.decorateLogger);
+    }
+
+    @Benchmark
+    public void proxy(JobThread jobThread) {
+        this.slf4j(this.proxyLogger);
+    }
+
+    private void slf4j(Logger logger) {
+        if (this.withException) {
+            switch (this.argCount) {
+                case 0:
+                    logger.info(MESSAGE_0, this.exception);
+                    return;
+                case 1:
+                    logger.info(MESSAGE_1, this.arg1, this.exception);
+                    return;
+                case 2:
+                    logger.info(MESSAGE_2, this.arg1, this.arg2, this.exception);
+                    return;
+                default:
+                    logger.info(MESSAGE_3, this.arg1, this.arg2, this.arg3, this.exception);
+                    return;
+            }
+        }
+
+        switch (this.argCount) {
+            case 0:
+                logger.info(MESSAGE_0);
+                return;
+            case 1:
+                logger.info(MESSAGE_1, this.arg1);
+                return;
+            case 2:
+                logger.info(MESSAGE_2, this.arg1, this.arg2);
+                return;
+            default:
+                logger.info(MESSAGE_3, this.arg1, this.arg2, this.arg3);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        for (int threads : THREADS) {
+            new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(XxlJobLoggerBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-result-" + threads + "t.json")
+                    .build()).run();
+        }
+    }
+}
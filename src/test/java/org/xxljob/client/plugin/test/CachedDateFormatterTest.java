@@ -0,0 +1,59 @@
+package org.xxljob.client.plugin.test;
+
+import org.junit.jupiter.api.Test;
+import org.xxljob.client.plugin.logger.layout.CachedDateFormatter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>测试{@link CachedDateFormatter}</p>
+ * <p>创建于 2026-10-19 11:05 11:05 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class CachedDateFormatterTest {
+
+    /**
+     * 小时、日期、月份名称宽度变化后，毫秒仍替换在正确的位置
+     */
+    @Test
+    public void testVariableWidthFields() {
+        for (String pattern : new String[]{"H:mm:ss.SSS", "d/M/yyyy HH:mm:ss.SSS", "MMMM d HH:mm:ss.SSS", "yyyy-MM-dd HH:mm:ss.SSS"}) {
+            final CachedDateFormatter formatter = new CachedDateFormatter(pattern);
+            for (LocalDateTime time : new LocalDateTime[]{
+                    LocalDateTime.of(2026, 10, 19, 10, 5, 6, 789_000_000),
+                    LocalDateTime.of(2026, 10, 19, 10, 5, 6, 12_000_000),
+                    LocalDateTime.of(2026, 10, 19, 9, 5, 6, 345_000_000),
+                    LocalDateTime.of(2026, 10, 19, 9, 5, 6, 1_000_000),
+                    LocalDateTime.of(2026, 5, 1, 9, 5, 6, 999_000_000),
+                    LocalDateTime.of(2026, 10, 19, 10, 5, 7, 0)}) {
+                final long epochMillis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                assertEquals(expected(pattern, epochMillis), formatter.format(epochMillis));
+            }
+        }
+    }
+
+    /**
+     * 非数字毫秒按毫秒格式化
+     */
+    @Test
+    public void testUnlocatedMillis() {
+        final String pattern = "HH:mm:ss.SSS 'at' n";
+        final CachedDateFormatter formatter = new CachedDateFormatter(pattern);
+        final long epochMillis = LocalDateTime.of(2026, 10, 19, 9, 5, 6, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (long millis = epochMillis; millis < epochMillis + 5; millis++) {
+            assertEquals(expected(pattern, millis), formatter.format(millis));
+        }
+    }
+
+    private static String expected(String pattern, long epochMillis) {
+        return DateTimeFormatter.ofPattern(pattern).withZone(ZoneId.systemDefault()).format(Instant.ofEpochMilli(epochMillis));
+    }
+}
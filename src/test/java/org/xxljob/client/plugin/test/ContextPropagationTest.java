@@ -0,0 +1,106 @@
+package org.xxljob.client.plugin.test;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.appender.XxlJobFileLogAppender;
+import org.xxljob.client.plugin.logger.concurrent.XxlJobContextPropagation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>测试{@link XxlJobContextPropagation}</p>
+ * <p>创建于 2026-10-19 14:50 14:50 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class ContextPropagationTest {
+
+    @TempDir
+    Path logDir;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        XxlJobContext.setXxlJobContext(null);
+        this.worker.shutdownNow();
+    }
+
+    /**
+     * 执行期间使用提交线程的上下文，日志写入提交任务的日志文件，结束后(包括抛出异常)还原工作线程原有的上下文
+     */
+    @Test
+    public void testWrapRestoresWorkerContext() throws Exception {
+        final XxlJobContext workerContext = new XxlJobContext(1, null, this.logDir.resolve("worker.log").toString(), 0, 1);
+        this.worker.submit(() -> XxlJobContext.setXxlJobContext(workerContext)).get();
+
+        final XxlJobLogger logger = new XxlJobLogger() {
+            @Override
+            protected boolean isLevelEnabled(Level level, Logger logger) {
+                return true;
+            }
+        };
+        logger.setAppender(new XxlJobFileLogAppender());
+        final Path logFile = this.logDir.resolve("job.log");
+        final XxlJobContext jobContext = new XxlJobContext(2, null, logFile.toString(), 0, 1);
+        XxlJobContext.setXxlJobContext(jobContext);
+
+        final AtomicReference<XxlJobContext> running = new AtomicReference<>();
+        this.worker.submit(XxlJobContextPropagation.wrap(() -> {
+            running.set(XxlJobContext.getXxlJobContext());
+            logger.info("test propagated line");
+        })).get();
+        assertSame(jobContext, running.get());
+        assertSame(workerContext, this.workerContext());
+
+        final Future<?> failed = this.worker.submit(XxlJobContextPropagation.wrap((Runnable) () -> {
+            throw new IllegalStateException("test propagated failure");
+        }));
+        assertTrue(assertThrows(ExecutionException.class, failed::get).getCause() instanceof IllegalStateException);
+        assertSame(workerContext, this.workerContext());
+        logger.complete();
+
+        final List<String> lines = Files.readAllLines(logFile);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("test propagated line"), lines.get(0));
+        assertTrue(Files.notExists(this.logDir.resolve("worker.log")));
+    }
+
+    /**
+     * 提交线程没有上下文时，执行期间清除工作线程的上下文，之后还原
+     */
+    @Test
+    public void testWrapWithoutContext() throws Exception {
+        final XxlJobContext workerContext = new XxlJobContext(1, null, this.logDir.resolve("worker.log").toString(), 0, 1);
+        this.worker.submit(() -> XxlJobContext.setXxlJobContext(workerContext)).get();
+
+        final AtomicReference<XxlJobContext> running = new AtomicReference<>(workerContext);
+        this.worker.submit(XxlJobContextPropagation.wrap(() -> running.set(XxlJobContext.getXxlJobContext()))).get();
+        assertNull(running.get());
+        assertSame(workerContext, this.workerContext());
+    }
+
+    private XxlJobContext workerContext() throws Exception {
+        return this.worker.submit(XxlJobContext::getXxlJobContext).get();
+    }
+}
@@ -0,0 +1,73 @@
+package org.xxljob.client.plugin.test;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.appender.XxlJobFileLogAppender;
+import org.xxljob.client.plugin.logger.layout.JsonLayout;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>测试{@link JsonLayout}</p>
+ * <p>创建于 2026-10-19 15:30 15:30 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class JsonLayoutTest {
+
+    @TempDir
+    Path logDir;
+
+    @AfterEach
+    public void tearDown() {
+        XxlJobContext.setXxlJobContext(null);
+    }
+
+    /**
+     * 引号、反斜杠、换行等控制字符在信息、模板、参数和异常中转义，每条日志只占一行，非ASCII字符原样输出
+     */
+    @Test
+    public void testEscape() throws IOException {
+        final XxlJobLogger logger = new XxlJobLogger() {
+            @Override
+            protected boolean isLevelEnabled(Level level, Logger logger) {
+                return true;
+            }
+        };
+        logger.setAppender(new XxlJobFileLogAppender());
+        logger.useJsonLayout();
+
+        final Path logFile = this.logDir.resolve("json.log");
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFile.toString(), 0, 1));
+        logger.error("say \"{}\" \\ to\n{}\tand \u0001 中文 {} {}", new IllegalStateException("bad \"state\"\r\nline\\2"),
+                "hi \"there\"", 1, Double.NaN, true);
+        logger.complete();
+
+        final List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        final String line = lines.get(0);
+        assertTrue(line.startsWith("{\"timestamp\":\"") && line.endsWith("}"), line);
+        assertFalse(line.contains("\t") || line.contains("\r") || line.contains("\u0001"), line);
+
+        assertTrue(line.contains(",\"message\":\"say \\\"hi \\\"there\\\"\\\" \\\\ to\\n1\\tand \\u0001 中文 NaN true\","), line);
+        assertTrue(line.contains(",\"template\":\"say \\\"{}\\\" \\\\ to\\n{}\\tand \\u0001 中文 {} {}\","), line);
+        assertTrue(line.contains(",\"args\":[\"hi \\\"there\\\"\",1,\"NaN\",true]"), line);
+        assertTrue(line.contains(",\"exception\":{\"class\":\"java.lang.IllegalStateException\",\"message\":\"bad \\\"state\\\"\\r\\nline\\\\2\",\"frames\":[\""
+                + JsonLayoutTest.class.getName() + ".testEscape(JsonLayoutTest.java:"), line);
+    }
+}
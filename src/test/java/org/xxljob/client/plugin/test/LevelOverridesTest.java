@@ -0,0 +1,137 @@
+package org.xxljob.client.plugin.test;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.appender.XxlJobFileLogAppender;
+import org.xxljob.client.plugin.logger.level.XxlJobLogLevelOverrides;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>测试{@link XxlJobLogLevelOverrides}</p>
+ * <p>创建于 2026-10-19 15:50 15:50 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class LevelOverridesTest {
+
+    private static final long JOB_ID = 7;
+
+    @TempDir
+    Path logDir;
+
+    private final XxlJobLogLevelOverrides overrides = new XxlJobLogLevelOverrides();
+
+    @AfterEach
+    public void tearDown() {
+        XxlJobContext.setXxlJobContext(null);
+        this.overrides.close();
+    }
+
+    /**
+     * 覆盖级别替代调用方Logger的级别，可开启低级别日志或关闭全部日志；任务id的规则优先于处理器名称的规则
+     */
+    @Test
+    public void testEnableAndSuppress() throws IOException {
+        final XxlJobLogger logger = new XxlJobLogger() {
+            @Override
+            protected boolean isLevelEnabled(Level level, Logger logger) {
+                return level.toInt() >= Level.INFO.toInt();
+            }
+        };
+        logger.setAppender(new XxlJobFileLogAppender());
+        logger.setLevelOverrides(this.overrides);
+        final Path logFile = this.logDir.resolve("overrides.log");
+        XxlJobContext.setXxlJobContext(new XxlJobContext(JOB_ID, null, logFile.toString(), 0, 1));
+
+        logger.debug("test override none debug");
+        logger.info("test override none info");
+
+        this.overrides.setJobLevel(JOB_ID, Level.DEBUG);
+        assertTrue(logger.isOverrideEnabled(Level.DEBUG));
+        logger.trace("test override debug trace");
+        logger.debug("test override debug debug");
+
+        this.overrides.setJobOff(JOB_ID);
+        logger.error("test override off error");
+
+        this.overrides.setJobLevel(JOB_ID, null);
+        this.overrides.setHandlerLevel("demoJobHandler", Level.TRACE);
+        logger.trace("test override unbound trace");
+        this.overrides.bindHandler(JOB_ID, "demoJobHandler");
+        logger.trace("test override handler trace");
+
+        this.overrides.setJobLevel(JOB_ID, Level.WARN);
+        logger.info("test override job before handler info");
+        logger.warn("test override job before handler warn");
+        logger.complete();
+
+        assertEquals(Arrays.asList("test override none info", "test override debug debug", "test override handler trace",
+                "test override job before handler warn"), messages(logFile));
+    }
+
+    /**
+     * 监听的文件修改后重新加载，删除后清空文件中的规则，无法识别的规则忽略
+     */
+    @Test
+    public void testReload() throws Exception {
+        final Path file = this.logDir.resolve("levels.properties");
+        Files.write(file, "job.7=WARN\njob.x=DEBUG\nhandler.=DEBUG\njob.8=LOUD\n".getBytes(StandardCharsets.UTF_8));
+        this.overrides.watch(file);
+        assertEquals(Level.WARN.toInt(), this.overrides.levelOf(JOB_ID));
+        assertEquals(XxlJobLogLevelOverrides.NONE, this.overrides.levelOf(8));
+
+        // 编程设置的规则优先于文件中的规则
+        this.overrides.setJobLevel(9, Level.ERROR);
+        Files.write(file, "job.7=debug\njob.9=OFF\n".getBytes(StandardCharsets.UTF_8));
+        awaitLevel(this.overrides, JOB_ID, Level.DEBUG.toInt());
+        assertEquals(Level.ERROR.toInt(), this.overrides.levelOf(9));
+
+        Files.delete(file);
+        awaitLevel(this.overrides, JOB_ID, XxlJobLogLevelOverrides.NONE);
+        assertEquals(Level.ERROR.toInt(), this.overrides.levelOf(9));
+
+        // 停止监听后修改不再生效
+        this.overrides.close();
+        Files.write(file, "job.7=OFF\n".getBytes(StandardCharsets.UTF_8));
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertFalse(this.overrides.levelOf(JOB_ID) == XxlJobLogLevelOverrides.OFF);
+    }
+
+    private static void awaitLevel(XxlJobLogLevelOverrides overrides, long jobId, int level) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (overrides.levelOf(jobId) != level && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        assertEquals(level, overrides.levelOf(jobId));
+    }
+
+    /**
+     * 日志文件中每行的日志信息
+     */
+    private static List<String> messages(Path logFile) throws IOException {
+        final List<String> messages = new ArrayList<>();
+        for (String line : Files.readAllLines(logFile)) {
+            messages.add(line.substring(line.indexOf(" : ") + 3));
+        }
+        return messages;
+    }
+}
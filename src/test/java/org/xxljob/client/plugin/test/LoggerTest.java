@@ -1,9 +1,43 @@
 package org.xxljob.client.plugin.test;
 
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.context.XxlJobContext;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.CallerPolicy;
 import org.xxljob.client.plugin.logger.XxlJobLogger;
 import org.xxljob.client.plugin.logger.XxlJobLoggerFactory;
+import org.xxljob.client.plugin.logger.appender.OverflowPolicy;
+import org.xxljob.client.plugin.logger.appender.XxlJobAsyncLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobCachedFileLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobFileLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobLogLineIndex;
+import org.xxljob.client.plugin.logger.appender.XxlJobMappedFileLogAppender;
+import org.xxljob.client.plugin.logger.archive.XxlJobLogArchiver;
+import org.xxljob.client.plugin.logger.encoder.XxlJobBinaryLogEncoder;
+import org.xxljob.client.plugin.logger.layout.XxlJobContextField;
+import org.xxljob.client.plugin.logger.reader.XxlJobLogReader;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * <p>测试{@link XxlJobLogger}</p>
@@ -15,6 +49,18 @@ import java.util.Arrays;
  */
 public class LoggerTest {
 
+    private static final int LINES = 3000;
+
+    /**
+     * 行首的日志时间，写出两个文件的时间不同
+     */
+    private static final String DATE_REGEX = "(?m)^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}";
+
+    @TempDir
+    Path logDir;
+
+    private XxlJobLogAppender appender;
+
     public void test() {
         XxlJobLogger logger = XxlJobLoggerFactory.getLogger();
         logger.info("test info log.");
@@ -41,4 +87,346 @@ public class LoggerTest {
 
         System.out.println(logger1 == logger);
     }
+
+    /**
+     * 测试{@link XxlJobAsyncLogAppender}异步写出，{@link XxlJobLogger#complete()}后日志已按顺序写出，
+     * 关闭后的日志丢弃并计数，不再写入文件
+     */
+    @Test
+    public void testAsync() throws IOException {
+        final XxlJobAsyncLogAppender appender = new XxlJobAsyncLogAppender(new XxlJobCachedFileLogAppender(), 1024, OverflowPolicy.DROP_DEBUG);
+        final XxlJobLogger logger = this.newLogger(appender);
+        final String logFileName = this.logFile("async");
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+        for (int i = 0; i < 10000; i++) {
+            logger.debug("test async debug {} log.", i);
+            logger.info("test async info {} log.", i);
+        }
+        logger.complete();
+
+        final List<String> lines = Files.readAllLines(Paths.get(logFileName));
+        assertEquals(20000L, lines.size() + appender.getDroppedCount());
+        int info = 0;
+        for (String line : lines) {
+            if (line.contains(" INFO ")) {
+                assertTrue(line.endsWith("test async info " + info++ + " log."), line);
+            }
+        }
+        assertEquals(10000, info);
+
+        final long dropped = appender.getDroppedCount();
+        appender.close();
+        logger.info("test async after close");
+        assertEquals(dropped + 1L, appender.getDroppedCount());
+        assertEquals(lines, Files.readAllLines(Paths.get(logFileName)));
+    }
+
+    /**
+     * 测试{@link XxlJobLogger#setPattern(String)}自定义日志格式
+     */
+    @Test
+    public void testPattern() throws IOException, InterruptedException {
+        final XxlJobLogger logger = this.newLogger(new XxlJobFileLogAppender());
+        logger.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %-5level %pid --- [%X{traceId:-N/A}] [%.15thread] %logger : %msg");
+        final String logFileName = this.logFile("pattern");
+        // 线程名称超出最大宽度时保留右侧15个字符
+        final Thread thread = new Thread(() -> {
+            XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+            logger.info("test pattern param1 {} log.", 1);
+            logger.complete();
+        }, "xxl-job-pattern-thread");
+        thread.start();
+        thread.join();
+
+        final List<String> lines = Files.readAllLines(Paths.get(logFileName));
+        assertEquals(1, lines.size());
+        final String expected = "\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3} INFO  \\d+ --- \\[N/A\\] "
+                + Pattern.quote("[-pattern-thread] " + LoggerFactory.getLogger(LoggerTest.class).getName() + " : test pattern param1 1 log.");
+        assertTrue(lines.get(0).matches(expected), lines.get(0));
+    }
+
+    /**
+     * {@code %X{key}}和上下文Key中的{@link XxlJobContextField}直接读取任务上下文，不经过MDC
+     */
+    @Test
+    public void testContextFields() throws IOException {
+        final XxlJobLogger logger = this.newLogger(new XxlJobFileLogAppender());
+        logger.setPattern("%X{xxl.jobId} %X{xxl.shardIndex}/%X{xxl.shardTotal} %X{xxl.logId} %X{traceId:-none} : %msg");
+        final String logFileName = this.logFile("123");
+        XxlJobContext.setXxlJobContext(new XxlJobContext(42, null, logFileName, 1, 3));
+        logger.info("test pattern context fields");
+
+        logger.setPattern(null);
+        logger.setContextKeys(new LinkedHashSet<>(Arrays.asList(XxlJobContextField.JOB_ID.getKey(), XxlJobContextField.LOG_ID.getKey(), "traceId")));
+        logger.info("test marked context fields");
+        logger.complete();
+
+        final List<String> lines = Files.readAllLines(Paths.get(logFileName));
+        assertEquals(2, lines.size());
+        assertEquals("42 1/3 123 none : test pattern context fields", lines.get(0));
+        assertTrue(lines.get(1).contains("{xxl.jobId=42,xxl.logId=123} "), lines.get(1));
+        assertTrue(lines.get(1).endsWith("test marked context fields"), lines.get(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        XxlJobContext.setXxlJobContext(null);
+        if (null != this.appender) {
+            this.appender.close();
+        }
+    }
+
+    /**
+     * 未索引的日志文件，{@link XxlJobLogReader}与{@link XxlJobFileAppender}读取结果一致
+     */
+    @Test
+    public void testReadPlain() {
+        final String logFileName = this.logFile("plain");
+        this.writeLog(this.newLogger(new XxlJobFileLogAppender()), logFileName);
+
+        assertSameLog(logFileName);
+    }
+
+    /**
+     * 按行偏移索引定位读取
+     */
+    @Test
+    public void testReadIndexed() {
+        final XxlJobCachedFileLogAppender appender = new XxlJobCachedFileLogAppender();
+        appender.setIndexInterval(100);
+        final String logFileName = this.logFile("indexed");
+        this.writeLog(this.newLogger(appender), logFileName);
+
+        assertTrue(Files.exists(Paths.get(XxlJobLogLineIndex.getIndexFileName(logFileName))));
+        assertSameLog(logFileName);
+    }
+
+    /**
+     * 归档后读取压缩文件，与归档前{@link XxlJobFileAppender}读取原文件的结果一致
+     */
+    @Test
+    public void testReadArchived() throws InterruptedException {
+        final String logFileName = this.logFile("archived");
+        this.writeLog(this.newLogger(new XxlJobCachedFileLogAppender()), logFileName);
+
+        final XxlJobLogArchiver archiver = new XxlJobLogArchiver(6, 0);
+        try {
+            final Path source = Paths.get(logFileName);
+            final Path archive = Paths.get(XxlJobLogArchiver.getArchiveFileName(logFileName));
+            final Path pending = Paths.get(XxlJobLogArchiver.getArchivingFileName(logFileName));
+            final int[] fromLineNums = fromLineNums(XxlJobFileAppender.readLog(logFileName, 1).getToLineNum());
+            final LogResult[] expected = new LogResult[fromLineNums.length];
+            for (int i = 0; i < fromLineNums.length; i++) {
+                expected[i] = XxlJobFileAppender.readLog(logFileName, fromLineNums[i]);
+            }
+            archiver.archive(logFileName);
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((Files.exists(source) || Files.exists(pending) || !Files.exists(archive)) && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            assertFalse(Files.exists(source));
+            assertTrue(Files.exists(archive));
+
+            for (int i = 0; i < fromLineNums.length; i++) {
+                assertSameLog(expected[i], XxlJobLogReader.readLog(logFileName, fromLineNums[i]));
+            }
+        } finally {
+            archiver.close();
+        }
+    }
+
+    /**
+     * 内存映射写出，映射区间多次扩展后读取
+     */
+    @Test
+    public void testReadMapped() {
+        final String logFileName = this.logFile("mapped");
+        this.writeLog(this.newLogger(new XxlJobMappedFileLogAppender(64 * 1024, 4, TimeUnit.MINUTES.toMillis(1))), logFileName);
+
+        assertSameLog(logFileName);
+    }
+
+    /**
+     * 二进制格式解码后与相同日志的文本格式一致，日志时间除外
+     */
+    @Test
+    public void testReadBinary() {
+        final XxlJobLogger logger = this.newLogger(new XxlJobCachedFileLogAppender());
+        final String textFileName = this.logFile("text");
+        final String binaryFileName = this.logFile("binary");
+        // 在同一处写出，异常堆栈中的行号一致
+        for (XxlJobBinaryLogEncoder binaryEncoder : new XxlJobBinaryLogEncoder[]{null, new XxlJobBinaryLogEncoder()}) {
+            logger.setBinaryEncoder(binaryEncoder);
+            this.writeLog(logger, null == binaryEncoder ? textFileName : binaryFileName);
+        }
+
+        for (int fromLineNum : fromLineNums(XxlJobFileAppender.readLog(textFileName, 1).getToLineNum())) {
+            final LogResult expected = XxlJobFileAppender.readLog(textFileName, fromLineNum);
+            final LogResult actual = XxlJobLogReader.readLog(binaryFileName, fromLineNum);
+            assertEquals(expected.getToLineNum(), actual.getToLineNum());
+            assertEquals(expected.getLogContent().replaceAll(DATE_REGEX, ""), actual.getLogContent().replaceAll(DATE_REGEX, ""));
+        }
+    }
+
+    /**
+     * 超出大小限制后保留开头和最近的日志
+     */
+    @Test
+    public void testReadCapped() {
+        final String logFileName = this.logFile("capped");
+        this.writeLog(this.newLogger(new XxlJobCachedFileLogAppender(XxlJobCachedFileLogAppender.DEFAULT_MAX_OPEN_FILES,
+                XxlJobCachedFileLogAppender.DEFAULT_IDLE_TIMEOUT_MILLIS, 16 * 1024, 16 * 1024)), logFileName);
+
+        assertTrue(XxlJobFileAppender.readLog(logFileName, 1).getLogContent().contains(" bytes ------"));
+        assertSameLog(logFileName);
+    }
+
+    /**
+     * 单行超过压缩时的扫描长度，保留的最近日志仍从完整的行开始
+     */
+    @Test
+    public void testCapLongLine() throws IOException {
+        final String logFileName = this.logFile("long");
+        final XxlJobLogger logger = this.newLogger(new XxlJobCachedFileLogAppender(XxlJobCachedFileLogAppender.DEFAULT_MAX_OPEN_FILES,
+                XxlJobCachedFileLogAppender.DEFAULT_IDLE_TIMEOUT_MILLIS, 16 * 1024, 128 * 1024));
+        final char[] longLine = new char[256 * 1024];
+        Arrays.fill(longLine, 'x');
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+        for (int i = 0; i < 400; i++) {
+            logger.info("test cap line {}", i);
+            if (i % 100 == 50) {
+                logger.info(new String(longLine));
+            }
+        }
+        logger.complete();
+
+        final List<String> lines = Files.readAllLines(Paths.get(logFileName));
+        final int marker = lines.indexOf(lines.stream().filter(line -> line.startsWith("------ elided ")).findFirst().orElse(null));
+        assertTrue(marker > 0);
+        for (String line : lines.subList(marker + 1, lines.size())) {
+            assertTrue(line.matches("^\\d{4}-.*"), line.length() > 100 ? line.substring(0, 100) : line);
+        }
+        assertTrue(lines.get(lines.size() - 1).endsWith("test cap line 399"));
+        assertSameLog(logFileName);
+    }
+
+    /**
+     * 日志内容中的0字节按原样读取，映射写出的文件结束后同样如此
+     */
+    @Test
+    public void testReadNul() {
+        for (XxlJobLogAppender appender : new XxlJobLogAppender[]{new XxlJobFileLogAppender(),
+                new XxlJobMappedFileLogAppender(64 * 1024, 4, TimeUnit.MINUTES.toMillis(1))}) {
+            final String logFileName = this.logFile(appender.getClass().getSimpleName());
+            final XxlJobLogger logger = this.newLogger(appender);
+            XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+            for (int i = 0; i < 100; i++) {
+                logger.info("test nul \0 inside {}", i);
+                XxlJobFileAppender.appendLog(logFileName, "\0test leading nul " + i);
+                XxlJobFileAppender.appendLog(logFileName, "test trailing nul " + i + "\0");
+            }
+            logger.complete();
+            appender.close();
+
+            assertFalse(Files.exists(Paths.get(XxlJobMappedFileLogAppender.getMappedFileName(logFileName))));
+            assertTrue(XxlJobLogReader.readLog(logFileName, 1).getLogContent().contains("\0test leading nul 99"));
+            assertSameLog(logFileName);
+        }
+    }
+
+    /**
+     * 直接调用时按调用方类判断日志级别，{@link CallerPolicy#WARN}只在{@code WARN}及以上级别输出调用方
+     */
+    @Test
+    public void testCallerPolicy() throws IOException {
+        final List<Class<?>> callerClasses = new ArrayList<>();
+        final XxlJobLogger logger = new XxlJobLogger() {
+            @Override
+            protected boolean isLevelEnabled(Level level, Logger logger) {
+                return level.toInt() >= Level.INFO.toInt();
+            }
+
+            @Override
+            protected Logger getLogger(Class<?> callerClass) {
+                callerClasses.add(callerClass);
+                return super.getLogger(callerClass);
+            }
+        };
+        this.appender = new XxlJobFileLogAppender();
+        logger.setAppender(this.appender);
+        logger.setCallerPolicy(CallerPolicy.WARN);
+
+        final String logFileName = this.logFile("caller");
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+        logger.debug("test caller debug");
+        logger.info("test caller info");
+        logger.warn("test caller warn");
+        logger.complete();
+
+        assertEquals(Arrays.asList(LoggerTest.class, LoggerTest.class, LoggerTest.class), callerClasses);
+        final List<String> lines = Files.readAllLines(Paths.get(logFileName));
+        assertEquals(2, lines.size());
+        assertFalse(lines.get(0).contains("#testCallerPolicy:"));
+        assertTrue(lines.get(0).endsWith("test caller info"));
+        assertTrue(lines.get(1).contains(LoggerTest.class.getName() + "#testCallerPolicy:"));
+        assertTrue(lines.get(1).endsWith("test caller warn"));
+    }
+
+    private String logFile(String name) {
+        return this.logDir.resolve(name + ".log").toString();
+    }
+
+    /**
+     * 开启所有级别的日志
+     */
+    private XxlJobLogger newLogger(XxlJobLogAppender appender) {
+        this.appender = appender;
+        final XxlJobLogger logger = new XxlJobLogger() {
+            @Override
+            protected boolean isLevelEnabled(Level level, Logger logger) {
+                return true;
+            }
+        };
+        logger.setAppender(appender);
+        return logger;
+    }
+
+    /**
+     * 写出带参数、多行、异常堆栈的日志，穿插xxl-job以{@code \r\n}结尾直接写入的行，结束后调用{@link XxlJobLogger#complete()}
+     */
+    private void writeLog(XxlJobLogger logger, String logFileName) {
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFileName, 0, 1));
+        for (int i = 0; i < LINES; i++) {
+            logger.info("test round trip {} of {} ok={} ratio={}", i, LINES, i % 2 == 0, i / 3.0);
+            if (i % 100 == 0) {
+                logger.warn("test round trip multi\nline {}", i);
+            }
+            if (i % 500 == 0) {
+                logger.error("test round trip error " + i, new IllegalStateException("test", new RuntimeException("cause")));
+                XxlJobFileAppender.appendLog(logFileName, "test round trip xxl-job line " + i);
+            }
+        }
+        logger.complete();
+        XxlJobContext.setXxlJobContext(null);
+    }
+
+    /**
+     * 从多个位置读取，比较{@link XxlJobLogReader}与{@link XxlJobFileAppender}的结果
+     */
+    private static void assertSameLog(String logFileName) {
+        for (int fromLineNum : fromLineNums(XxlJobFileAppender.readLog(logFileName, 1).getToLineNum())) {
+            assertSameLog(XxlJobFileAppender.readLog(logFileName, fromLineNum), XxlJobLogReader.readLog(logFileName, fromLineNum));
+        }
+    }
+
+    private static void assertSameLog(LogResult expected, LogResult actual) {
+        assertEquals(expected.getToLineNum(), actual.getToLineNum());
+        assertEquals(expected.getLogContent(), actual.getLogContent());
+    }
+
+    private static int[] fromLineNums(int lines) {
+        assertTrue(lines > 0);
+        return new int[]{0, 1, 2, 99, 100, 101, lines / 2, lines - 1, lines, lines + 1};
+    }
 }
@@ -0,0 +1,117 @@
+package org.xxljob.client.plugin.test;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.XxlJobLogger;
+import org.xxljob.client.plugin.logger.appender.XxlJobFileLogAppender;
+import org.xxljob.client.plugin.logger.limit.XxlJobLogRateLimiter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>测试{@link XxlJobLogRateLimiter}</p>
+ * <p>创建于 2026-10-19 14:10 14:10 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class RateLimiterTest {
+
+    private static final String SUMMARY = XxlJobLogRateLimiter.class.getName() + " : ";
+
+    @TempDir
+    Path logDir;
+
+    private XxlJobLogger logger;
+
+    @AfterEach
+    public void tearDown() {
+        XxlJobContext.setXxlJobContext(null);
+    }
+
+    /**
+     * 超出突发容量的日志被丢弃，任务结束时输出一行汇总；未设置限制的级别不受影响
+     */
+    @Test
+    public void testSuppressAndSummarize() throws IOException {
+        final XxlJobLogRateLimiter rateLimiter = new XxlJobLogRateLimiter();
+        rateLimiter.setLimit(Level.INFO, 1, 5);
+        rateLimiter.setSummaryInterval(1, TimeUnit.HOURS);
+        final Path logFile = this.startJob(rateLimiter);
+
+        for (int i = 0; i < 100; i++) {
+            this.logger.info("test rate limit info {}", i);
+            this.logger.warn("test rate limit warn {}", i);
+        }
+        this.logger.complete();
+
+        final List<String> lines = Files.readAllLines(logFile);
+        final List<String> info = lines.stream().filter(line -> line.contains("test rate limit info ")).collect(Collectors.toList());
+        assertEquals(5, info.size());
+        for (int i = 0; i < info.size(); i++) {
+            assertTrue(info.get(i).endsWith("test rate limit info " + i), info.get(i));
+        }
+        assertEquals(100L, lines.stream().filter(line -> line.contains("test rate limit warn ")).count());
+
+        // 汇总是最后一行
+        final String summary = lines.get(lines.size() - 1);
+        assertTrue(summary.endsWith(SUMMARY + "95 INFO lines suppressed by rate limit"), summary);
+    }
+
+    /**
+     * 到达汇总间隔时先输出汇总行，写出与被丢弃的行数之和等于输出的行数
+     */
+    @Test
+    public void testPeriodicSummary() throws IOException {
+        final XxlJobLogRateLimiter rateLimiter = new XxlJobLogRateLimiter(1, 1);
+        rateLimiter.setSummaryInterval(0, TimeUnit.MILLISECONDS);
+        final Path logFile = this.startJob(rateLimiter);
+
+        for (int i = 0; i < 10; i++) {
+            this.logger.info("test rate limit info {}", i);
+        }
+        this.logger.complete();
+
+        final List<String> lines = Files.readAllLines(logFile);
+        long written = 0;
+        long suppressed = 0;
+        for (String line : lines) {
+            if (line.contains(SUMMARY)) {
+                assertTrue(line.endsWith(" INFO lines suppressed by rate limit"), line);
+                suppressed += Long.parseLong(line.substring(line.indexOf(SUMMARY) + SUMMARY.length(), line.indexOf(" INFO lines")));
+            } else {
+                written++;
+            }
+        }
+        assertTrue(lines.get(1).contains(SUMMARY), lines.get(1));
+        assertEquals(10L, written + suppressed);
+    }
+
+    private Path startJob(XxlJobLogRateLimiter rateLimiter) {
+        this.logger = new XxlJobLogger() {
+            @Override
+            protected boolean isLevelEnabled(Level level, Logger logger) {
+                return true;
+            }
+        };
+        this.logger.setAppender(new XxlJobFileLogAppender());
+        this.logger.setRateLimiter(rateLimiter);
+
+        final Path logFile = this.logDir.resolve("limited.log");
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFile.toString(), 0, 1));
+        return logFile;
+    }
+}
@@ -0,0 +1,89 @@
+package org.xxljob.client.plugin.test;
+
+import com.xxl.job.core.context.XxlJobContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.xxljob.client.plugin.logger.slf4j.XxlJobSlf4jProxyLogger;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>测试{@link XxlJobSlf4jProxyLogger}</p>
+ * <p>创建于 2026-10-19 16:10 16:10 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class Slf4jProxyLoggerTest {
+
+    @TempDir
+    Path logDir;
+
+    /**
+     * 实际{@link Logger}收到的调用
+     */
+    private final List<Method> methods = new ArrayList<>();
+
+    private final List<Object[]> arguments = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        XxlJobContext.setXxlJobContext(null);
+    }
+
+    /**
+     * {@code error(msg, Throwable)}原样传给实际Logger，同时写入任务日志，异常作为堆栈输出而不是参数
+     */
+    @Test
+    public void testErrorWithThrowable() throws IOException {
+        final Logger logger = XxlJobSlf4jProxyLogger.getLogger(this.recordingLogger());
+        final Path logFile = this.logDir.resolve("proxy.log");
+        XxlJobContext.setXxlJobContext(new XxlJobContext(1, null, logFile.toString(), 0, 1));
+
+        final IllegalStateException ex = new IllegalStateException("test proxy failure");
+        logger.error("test proxy error", ex);
+        logger.error("test proxy error {} {}", 1, 2);
+
+        final int error = this.methods.size() - 2;
+        assertEquals(Arrays.asList(String.class, Throwable.class), Arrays.asList(this.methods.get(error).getParameterTypes()));
+        assertEquals("test proxy error", this.arguments.get(error)[0]);
+        assertSame(ex, this.arguments.get(error)[1]);
+        assertEquals(Arrays.asList(String.class, Object.class, Object.class), Arrays.asList(this.methods.get(error + 1).getParameterTypes()));
+
+        final List<String> lines = Files.readAllLines(logFile);
+        assertTrue(lines.get(0).endsWith("test proxy error :" + ex), lines.get(0));
+        assertTrue(lines.get(1).startsWith("\tat " + Slf4jProxyLoggerTest.class.getName() + ".testErrorWithThrowable("), lines.get(1));
+        assertTrue(lines.get(lines.size() - 1).endsWith("test proxy error 1 2"), lines.get(lines.size() - 1));
+    }
+
+    /**
+     * 记录调用的{@link Logger}，所有级别开启
+     */
+    private Logger recordingLogger() {
+        return (Logger) Proxy.newProxyInstance(Logger.class.getClassLoader(), new Class[]{Logger.class}, (proxy, method, args) -> {
+            if (method.getReturnType() == boolean.class) {
+                return true;
+            }
+            if (method.getReturnType() == String.class) {
+                return Slf4jProxyLoggerTest.class.getName();
+            }
+            this.methods.add(method);
+            this.arguments.add(null == args ? new Object[0] : args);
+            return null;
+        });
+    }
+}
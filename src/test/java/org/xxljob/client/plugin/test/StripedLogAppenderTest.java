@@ -0,0 +1,97 @@
+package org.xxljob.client.plugin.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.xxljob.client.plugin.logger.appender.XxlJobCachedFileLogAppender;
+import org.xxljob.client.plugin.logger.appender.XxlJobStripedLogAppender;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>测试{@link XxlJobStripedLogAppender}</p>
+ * <p>创建于 2026-10-19 15:10 15:10 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class StripedLogAppenderTest {
+
+    private static final int THREADS = 8;
+
+    private static final int LINES = 2000;
+
+    @TempDir
+    Path logDir;
+
+    private XxlJobStripedLogAppender appender;
+
+    @AfterEach
+    public void tearDown() {
+        if (null != this.appender) {
+            this.appender.close();
+        }
+    }
+
+    /**
+     * 多个线程写同一文件，{@link XxlJobStripedLogAppender#complete(String)}返回时全部日志已写出，交错顺序与取得序号的顺序一致
+     */
+    @Test
+    public void testCrossThreadOrder() throws Exception {
+        // 暂存区很小，生产者经常等待合并线程
+        this.appender = new XxlJobStripedLogAppender(new XxlJobCachedFileLogAppender(), 4);
+        final String logFileName = this.logDir.resolve("striped.log").toString();
+
+        // 在锁内追加，取得序号的顺序即计数顺序
+        final Object lock = new Object();
+        final int[] counter = new int[1];
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < LINES; i++) {
+                    synchronized (lock) {
+                        this.appender.append(logFileName, Level.INFO, "test striped line " + counter[0]++);
+                    }
+                }
+            }, "xxl-job-striped-test-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        this.appender.complete(logFileName);
+
+        final List<String> lines = Files.readAllLines(this.logDir.resolve("striped.log"));
+        assertEquals(THREADS * LINES, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals("test striped line " + i, lines.get(i));
+        }
+    }
+
+    /**
+     * 关闭前的日志全部写出，关闭后的日志丢弃，不再写入文件
+     */
+    @Test
+    public void testAppendAfterClose() throws IOException {
+        this.appender = new XxlJobStripedLogAppender(new XxlJobCachedFileLogAppender());
+        final String logFileName = this.logDir.resolve("closed.log").toString();
+        for (int i = 0; i < LINES; i++) {
+            this.appender.append(logFileName, Level.INFO, "test striped line " + i);
+        }
+        this.appender.close();
+        this.appender.append(logFileName, Level.INFO, "test striped after close");
+
+        final List<String> lines = Files.readAllLines(this.logDir.resolve("closed.log"));
+        assertEquals(LINES, lines.size());
+        assertEquals("test striped line " + (LINES - 1), lines.get(LINES - 1));
+    }
+}
@@ -0,0 +1,96 @@
+package org.xxljob.client.plugin.test;
+
+import org.junit.jupiter.api.Test;
+import org.xxljob.client.plugin.logger.layout.ThrowableRenderer;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>测试{@link ThrowableRenderer}</p>
+ * <p>创建于 2026-10-19 14:30 14:30 </p>
+ *
+ * @author <a href="mailto:fgwang.660@gmail.com">witt</a>
+ * @version v1.0
+ * @since 1.0.0
+ */
+public class ThrowableRendererTest {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * 不去重、不限制栈帧时与{@link Throwable#printStackTrace()}一致，cause、suppressed的公共栈底帧折叠为{@code ... N more}
+     */
+    @Test
+    public void testFoldCommonFrames() {
+        final IllegalStateException throwable = newThrowable("test fold");
+        throwable.addSuppressed(new IllegalArgumentException("test suppressed"));
+
+        final String rendered = render(new ThrowableRenderer(Integer.MAX_VALUE, 0), throwable, "fold.log");
+        final StringWriter expected = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(expected));
+        assertEquals(expected.toString().trim(), rendered);
+        // suppressed在外层方法中创建，比外层少newThrowable一帧；cause与外层在同一位置创建，栈帧全部相同
+        final int frames = throwable.getStackTrace().length;
+        assertTrue(rendered.contains(LINE_SEPARATOR + "\t\t... " + (frames - 2) + " more" + LINE_SEPARATOR), rendered);
+        assertTrue(rendered.endsWith(LINE_SEPARATOR + "Caused by: java.lang.RuntimeException: cause" + LINE_SEPARATOR + "\t... " + frames + " more"), rendered);
+    }
+
+    /**
+     * 同一日志文件中类型、栈帧相同的异常只输出一行引用，其他日志文件仍完整输出
+     */
+    @Test
+    public void testSameAs() {
+        final ThrowableRenderer renderer = new ThrowableRenderer();
+        final String[] rendered = new String[2];
+        for (int i = 0; i < rendered.length; i++) {
+            rendered[i] = render(renderer, newThrowable("test same " + i), "same.log");
+        }
+
+        assertTrue(rendered[0].startsWith("java.lang.IllegalStateException: test same 0 [#1]" + LINE_SEPARATOR + "\tat "), rendered[0]);
+        assertTrue(rendered[0].contains("Caused by: java.lang.RuntimeException: cause"), rendered[0]);
+        assertEquals("java.lang.IllegalStateException: test same 1 [same as #1]", rendered[1]);
+
+        final String other = render(renderer, newThrowable("test same 2"), "other.log");
+        assertTrue(other.startsWith("java.lang.IllegalStateException: test same 2 [#2]" + LINE_SEPARATOR), other);
+    }
+
+    /**
+     * 超出最大栈帧数的部分截断，框架包名前缀的连续栈帧折叠
+     */
+    @Test
+    public void testTruncateAndElide() {
+        final IllegalStateException throwable = new IllegalStateException("test truncate");
+        throwable.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("com.example.Job", "run", "Job.java", 10),
+                new StackTraceElement("java.lang.reflect.Method", "invoke", "Method.java", 20),
+                new StackTraceElement("java.lang.reflect.Method", "invoke0", "Method.java", 21),
+                new StackTraceElement("com.example.Job", "execute", "Job.java", 30),
+                new StackTraceElement("com.example.Runner", "start", "Runner.java", 40),
+                new StackTraceElement("com.example.Runner", "main", "Runner.java", 50)});
+
+        final ThrowableRenderer renderer = new ThrowableRenderer(2, 0);
+        renderer.setElidedPackages("java.lang.reflect.");
+        assertEquals("java.lang.IllegalStateException: test truncate" + LINE_SEPARATOR
+                + "\tat com.example.Job.run(Job.java:10)" + LINE_SEPARATOR
+                + "\t... 2 framework frames elided" + LINE_SEPARATOR
+                + "\tat com.example.Job.execute(Job.java:30)" + LINE_SEPARATOR
+                + "\t... 2 frames truncated", render(renderer, throwable, "truncate.log"));
+    }
+
+    /**
+     * 同一位置创建的异常栈帧相同
+     */
+    private static IllegalStateException newThrowable(String message) {
+        return new IllegalStateException(message, new RuntimeException("cause"));
+    }
+
+    private static String render(ThrowableRenderer renderer, Throwable throwable, String logFileName) {
+        final StringBuilder builder = new StringBuilder();
+        renderer.render(throwable, logFileName, builder);
+        return builder.toString();
+    }
+}